@@ -1,6 +1,11 @@
 package com.mycompany.myapp.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Spider.
@@ -10,7 +15,826 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    private final Bulk bulk = new Bulk();
+
+    private final SearchIndexing searchIndexing = new SearchIndexing();
+
+    private final Reindex reindex = new Reindex();
+
+    private final Search search = new Search();
+
+    private final Aggregations aggregations = new Aggregations();
+
+    private final Suggest suggest = new Suggest();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    private final Cache cache = new Cache();
+
+    private final Jwt jwt = new Jwt();
+
+    private final Password password = new Password();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle();
+
+    private final Mail mail = new Mail();
+
     // jhipster-needle-application-properties-property
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public SearchIndexing getSearchIndexing() {
+        return searchIndexing;
+    }
+
+    public Reindex getReindex() {
+        return reindex;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Aggregations getAggregations() {
+        return aggregations;
+    }
+
+    public Suggest getSuggest() {
+        return suggest;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Jwt getJwt() {
+        return jwt;
+    }
+
+    public Password getPassword() {
+        return password;
+    }
+
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Pagination {
+
+        private int defaultPageSize = 20;
+
+        private int maxPageSize = 1000;
+
+        private boolean totalCountHeader = true;
+
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public boolean isTotalCountHeader() {
+            return totalCountHeader;
+        }
+
+        public void setTotalCountHeader(boolean totalCountHeader) {
+            this.totalCountHeader = totalCountHeader;
+        }
+    }
+
+    public static class Bulk {
+
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class SearchIndexing {
+
+        private boolean async = true;
+
+        private int queueCapacity = 10000;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMs = 1000;
+
+        private long initialBackoffMs = 1000;
+
+        private long maxBackoffMs = 60000;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+    }
+
+    public static class Reindex {
+
+        private int batchSize = 1000;
+
+        private int parallelism = 4;
+
+        private int maxRowsPerSecond = 0;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxRowsPerSecond() {
+            return maxRowsPerSecond;
+        }
+
+        public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+            this.maxRowsPerSecond = maxRowsPerSecond;
+        }
+    }
+
+    public static class Search {
+
+        private int maxPageSize = 100;
+
+        private int maxResultWindow = 10000;
+
+        private int trackTotalHitsUpTo = 10000;
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public int getMaxResultWindow() {
+            return maxResultWindow;
+        }
+
+        public void setMaxResultWindow(int maxResultWindow) {
+            this.maxResultWindow = maxResultWindow;
+        }
+
+        public int getTrackTotalHitsUpTo() {
+            return trackTotalHitsUpTo;
+        }
+
+        public void setTrackTotalHitsUpTo(int trackTotalHitsUpTo) {
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+        }
+    }
+
+    public static class Aggregations {
+
+        private int maxBuckets = 100;
+
+        private long fallbackCacheTtlSeconds = 60;
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public long getFallbackCacheTtlSeconds() {
+            return fallbackCacheTtlSeconds;
+        }
+
+        public void setFallbackCacheTtlSeconds(long fallbackCacheTtlSeconds) {
+            this.fallbackCacheTtlSeconds = fallbackCacheTtlSeconds;
+        }
+    }
+
+    public static class Suggest {
+
+        private int defaultSize = 10;
+
+        private int maxSize = 50;
+
+        private long cacheMaxEntries = 1000;
+
+        private long cacheTtlSeconds = 60;
+
+        public int getDefaultSize() {
+            return defaultSize;
+        }
+
+        public void setDefaultSize(int defaultSize) {
+            this.defaultSize = defaultSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getCacheMaxEntries() {
+            return cacheMaxEntries;
+        }
+
+        public void setCacheMaxEntries(long cacheMaxEntries) {
+            this.cacheMaxEntries = cacheMaxEntries;
+        }
+
+        public long getCacheTtlSeconds() {
+            return cacheTtlSeconds;
+        }
+
+        public void setCacheTtlSeconds(long cacheTtlSeconds) {
+            this.cacheTtlSeconds = cacheTtlSeconds;
+        }
+    }
+    public static class ReadReplicas {
+
+        public static final String POSTGRESQL_LAG_QUERY =
+            "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+        private boolean enabled = false;
+
+        private double maxLagSeconds = 10;
+
+        private long lagCheckIntervalMs = 5000;
+
+        private String lagQuery = POSTGRESQL_LAG_QUERY;
+
+        private final List<Replica> replicas = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        public void setMaxLagSeconds(double maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public long getLagCheckIntervalMs() {
+            return lagCheckIntervalMs;
+        }
+
+        public void setLagCheckIntervalMs(long lagCheckIntervalMs) {
+            this.lagCheckIntervalMs = lagCheckIntervalMs;
+        }
+
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private Integer maximumPoolSize;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public Integer getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(Integer maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+    public static class Cache {
+
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final Cluster cluster = new Cluster();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Cluster getCluster() {
+            return cluster;
+        }
+
+        /**
+         * Broadcast of the cache invalidations between the nodes sharing the database.
+         */
+        public static class Cluster {
+
+            private boolean enabled = false;
+
+            private String channel = "spider_cache_invalidation";
+
+            private long pollTimeoutMs = 1000;
+
+            private long reconnectDelayMs = 5000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getChannel() {
+                return channel;
+            }
+
+            public void setChannel(String channel) {
+                this.channel = channel;
+            }
+
+            public long getPollTimeoutMs() {
+                return pollTimeoutMs;
+            }
+
+            public void setPollTimeoutMs(long pollTimeoutMs) {
+                this.pollTimeoutMs = pollTimeoutMs;
+            }
+
+            public long getReconnectDelayMs() {
+                return reconnectDelayMs;
+            }
+
+            public void setReconnectDelayMs(long reconnectDelayMs) {
+                this.reconnectDelayMs = reconnectDelayMs;
+            }
+        }
+
+        /**
+         * Overrides of the configuration of one cache region, each unset property keeping the default of the region.
+         */
+        public static class Region {
+
+            private Long maxEntries;
+
+            private DataSize offHeapSize;
+
+            private Long timeToLiveSeconds;
+
+            private Long timeToIdleSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+    public static class Jwt {
+
+        private String signingKeyId;
+
+        private final List<Key> keys = new ArrayList<>();
+
+        public String getSigningKeyId() {
+            return signingKeyId;
+        }
+
+        public void setSigningKeyId(String signingKeyId) {
+            this.signingKeyId = signingKeyId;
+        }
+
+        public List<Key> getKeys() {
+            return keys;
+        }
+
+        public static class Key {
+
+            private String id;
+
+            private String algorithm = "ES256";
+
+            private String publicKey;
+
+            private String privateKey;
+
+            public String getId() {
+                return id;
+            }
+
+            public void setId(String id) {
+                this.id = id;
+            }
+
+            public String getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(String algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public String getPublicKey() {
+                return publicKey;
+            }
+
+            public void setPublicKey(String publicKey) {
+                this.publicKey = publicKey;
+            }
+
+            public String getPrivateKey() {
+                return privateKey;
+            }
+
+            public void setPrivateKey(String privateKey) {
+                this.privateKey = privateKey;
+            }
+        }
+    }
+    public static class Password {
+
+        private String encoder = "bcrypt";
+
+        private long targetLatencyMs = 0;
+
+        private Integer bcryptStrength;
+
+        private Integer argon2Iterations;
+
+        private int argon2MemoryKb = 4096;
+
+        private int argon2Parallelism = 1;
+
+        private int pbkdf2Iterations = 185000;
+
+        private int threads = 0;
+
+        private int queueCapacity = 100;
+
+        public String getEncoder() {
+            return encoder;
+        }
+
+        public void setEncoder(String encoder) {
+            this.encoder = encoder;
+        }
+
+        public long getTargetLatencyMs() {
+            return targetLatencyMs;
+        }
+
+        public void setTargetLatencyMs(long targetLatencyMs) {
+            this.targetLatencyMs = targetLatencyMs;
+        }
+
+        public Integer getBcryptStrength() {
+            return bcryptStrength;
+        }
+
+        public void setBcryptStrength(Integer bcryptStrength) {
+            this.bcryptStrength = bcryptStrength;
+        }
+
+        public Integer getArgon2Iterations() {
+            return argon2Iterations;
+        }
+
+        public void setArgon2Iterations(Integer argon2Iterations) {
+            this.argon2Iterations = argon2Iterations;
+        }
+
+        public int getArgon2MemoryKb() {
+            return argon2MemoryKb;
+        }
+
+        public void setArgon2MemoryKb(int argon2MemoryKb) {
+            this.argon2MemoryKb = argon2MemoryKb;
+        }
+
+        public int getArgon2Parallelism() {
+            return argon2Parallelism;
+        }
+
+        public void setArgon2Parallelism(int argon2Parallelism) {
+            this.argon2Parallelism = argon2Parallelism;
+        }
+
+        public int getPbkdf2Iterations() {
+            return pbkdf2Iterations;
+        }
+
+        public void setPbkdf2Iterations(int pbkdf2Iterations) {
+            this.pbkdf2Iterations = pbkdf2Iterations;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+    public static class LoginThrottle {
+
+        private boolean enabled = true;
+
+        private int loginBurst = 5;
+
+        private int loginFailuresPerMinute = 5;
+
+        private int addressBurst = 50;
+
+        private int addressAttemptsPerMinute = 60;
+
+        private int stripes = 65536;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getLoginBurst() {
+            return loginBurst;
+        }
+
+        public void setLoginBurst(int loginBurst) {
+            this.loginBurst = loginBurst;
+        }
+
+        public int getLoginFailuresPerMinute() {
+            return loginFailuresPerMinute;
+        }
+
+        public void setLoginFailuresPerMinute(int loginFailuresPerMinute) {
+            this.loginFailuresPerMinute = loginFailuresPerMinute;
+        }
+
+        public int getAddressBurst() {
+            return addressBurst;
+        }
+
+        public void setAddressBurst(int addressBurst) {
+            this.addressBurst = addressBurst;
+        }
+
+        public int getAddressAttemptsPerMinute() {
+            return addressAttemptsPerMinute;
+        }
+
+        public void setAddressAttemptsPerMinute(int addressAttemptsPerMinute) {
+            this.addressAttemptsPerMinute = addressAttemptsPerMinute;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+    }
+    public static class Mail {
+
+        private boolean async = true;
+
+        private int batchSize = 50;
+
+        private int messagesPerSecond = 0;
+
+        private long pollIntervalMs = 1000;
+
+        private int maxAttempts = 8;
+
+        private long initialBackoffSeconds = 30;
+
+        private long maxBackoffSeconds = 3600;
+
+        private long leaseSeconds = 300;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMessagesPerSecond() {
+            return messagesPerSecond;
+        }
+
+        public void setMessagesPerSecond(int messagesPerSecond) {
+            this.messagesPerSecond = messagesPerSecond;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
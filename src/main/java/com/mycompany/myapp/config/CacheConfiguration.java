@@ -1,9 +1,21 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
 import java.time.Duration;
+import java.util.List;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.spi.RegionFactory;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -19,20 +31,34 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    /**
+     * The Hibernate region holding the last time each table was written, against which the cached query results are
+     * checked: its entries must never expire nor be evicted.
+     */
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * The Hibernate regions holding the results of the cacheable queries.
+     */
+    public static final List<String> QUERY_RESULTS_REGIONS = List.of(
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        AuthorityRepository.AUTHORITIES_QUERY_CACHE,
+        UserRepository.ACTIVATED_USERS_QUERY_CACHE,
+        ApplicationRepository.APPLICATION_ROWS_QUERY_CACHE,
+        InstanceRepository.INSTANCE_ROWS_QUERY_CACHE,
+        WMISComponentRepository.COMPONENT_TOPOLOGY_QUERY_CACHE
+    );
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties applicationProperties;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -43,8 +69,8 @@ public class CacheConfiguration {
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, com.mycompany.myapp.repository.UserCache.USER_IDS_BY_LOGIN_CACHE);
+            createCache(cm, com.mycompany.myapp.repository.UserCache.USER_IDS_BY_EMAIL_CACHE);
             createCache(cm, com.mycompany.myapp.domain.User.class.getName());
             createCache(cm, com.mycompany.myapp.domain.Authority.class.getName());
             createCache(cm, com.mycompany.myapp.domain.User.class.getName() + ".authorities");
@@ -53,17 +79,101 @@ public class CacheConfiguration {
             createCache(cm, com.mycompany.myapp.domain.Instance.class.getName());
             createCache(cm, com.mycompany.myapp.domain.Instance.class.getName() + ".instances");
             createCache(cm, com.mycompany.myapp.domain.WMISComponent.class.getName());
+            long aggregationsTtl = applicationProperties.getAggregations().getFallbackCacheTtlSeconds();
+            createCache(
+                cm,
+                com.mycompany.myapp.repository.WMISComponentRepository.AGGREGATIONS_CACHE,
+                ehcache.getMaxEntries(),
+                aggregationsTtl
+            );
+            createCache(
+                cm,
+                com.mycompany.myapp.repository.UserRepository.USERS_CREATED_PER_DAY_CACHE,
+                ehcache.getMaxEntries(),
+                aggregationsTtl
+            );
+            ApplicationProperties.Suggest suggest = applicationProperties.getSuggest();
+            createCache(
+                cm,
+                com.mycompany.myapp.service.SearchSuggestionService.SUGGESTIONS_CACHE,
+                suggest.getCacheMaxEntries(),
+                suggest.getCacheTtlSeconds()
+            );
+            createCache(cm, com.mycompany.myapp.security.jwt.TokenProvider.AUTHENTICATIONS_CACHE);
+            createCache(cm, UPDATE_TIMESTAMPS_REGION, ehcache.getMaxEntries(), 0);
+            QUERY_RESULTS_REGIONS.forEach(region -> createCache(cm, region));
             // jhipster-needle-ehcache-add-entry
+            applicationProperties
+                .getCache()
+                .getRegions()
+                .keySet()
+                .stream()
+                .filter(region -> cm.getCache(region) == null)
+                .forEach(region -> log.warn("application.cache.regions.{} is not a cache region, its configuration is ignored", region));
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, long maxEntries, long timeToLiveSeconds) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName, maxEntries, timeToLiveSeconds));
+        }
+        // Feeds the hit, miss, put and eviction meters bound to each cache by Spring Boot
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Build the configuration of a cache region, applying its {@code application.cache.regions} overrides to its
+     * defaults.
+     * <p>
+     * The heap tier is bounded by a number of entries. A region with an off-heap tier, bounded by a number of bytes,
+     * keeps its least recently used entries there, serialized, which requires its keys and values to be
+     * {@link java.io.Serializable}. A time to live or to idle of {@code 0} never expires the entries.
+     *
+     * @param cacheName the name of the region.
+     * @param maxEntries the default number of entries of the heap tier.
+     * @param timeToLiveSeconds the default time to live of the entries.
+     * @return the configuration.
+     */
+    javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName, long maxEntries, long timeToLiveSeconds) {
+        ApplicationProperties.Cache.Region region = applicationProperties
+            .getCache()
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(region.getMaxEntries() != null ? region.getMaxEntries() : maxEntries);
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+            .withExpiry(expiry(region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : timeToLiveSeconds, region));
+        if (region.getOffHeapSize() != null) {
+            builder =
+                builder
+                    .withKeySerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+                    .withValueSerializer(new PlainJavaSerializer<>(getClass().getClassLoader()));
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    private static ExpiryPolicy<Object, Object> expiry(long timeToLiveSeconds, ApplicationProperties.Cache.Region region) {
+        Duration timeToLive = timeToLiveSeconds > 0 ? Duration.ofSeconds(timeToLiveSeconds) : ExpiryPolicy.INFINITE;
+        if (region.getTimeToIdleSeconds() == null) {
+            return timeToLiveSeconds > 0 ? ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive) : ExpiryPolicyBuilder.noExpiration();
+        }
+        Duration timeToIdle = region.getTimeToIdleSeconds() > 0 ? Duration.ofSeconds(region.getTimeToIdleSeconds()) : ExpiryPolicy.INFINITE;
+        if (region.getTimeToLiveSeconds() == null) {
+            // Only idle expiry was asked for, the default time to live does not apply
+            return ExpiryPolicyBuilder.timeToIdleExpiration(timeToIdle);
         }
+        // An entry lives timeToLive after each write, and timeToIdle after each read
+        return ExpiryPolicyBuilder.expiry().create(timeToLive).update(timeToLive).access(timeToIdle).build();
     }
 
     @Autowired(required = false)
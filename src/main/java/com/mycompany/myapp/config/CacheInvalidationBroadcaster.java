@@ -0,0 +1,329 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Keeps the local caches of the nodes of a cluster consistent, by broadcasting the entries each node overwrites or
+ * removes so that the other nodes drop their copy and read it again from the database.
+ * <p>
+ * Entries written for the first time are not broadcast: the other nodes cannot hold an older copy, except after an
+ * insert, whose collection caches are not invalidated on the writing node either. An update or a delete goes through
+ * the second-level cache lock and then through the new entry, both overwriting an entry: it is broadcast twice, the
+ * second time after the commit, which closes the window where another node read the old row again. Clearing a whole
+ * cache does not fire any event, and is not broadcast.
+ * <p>
+ * The cached query results are checked against the last write time of their tables, kept in the update timestamps
+ * region. Every write of a timestamp is broadcast with its value, new ones included. The other nodes write it into
+ * their own timestamps, unless they hold a later one, before clearing their query results: a query still running there
+ * then caches its results as already stale. The query results themselves are never broadcast.
+ * <p>
+ * The keys are broadcast as their {@code Long}, {@code Integer} or {@code String} value, which requires the
+ * {@code simple} Hibernate cache keys. A write of any other key invalidates the whole cache on the other nodes.
+ */
+public class CacheInvalidationBroadcaster {
+
+    public static final String SENT_METER_NAME = "cache.invalidations.sent";
+    public static final String RECEIVED_METER_NAME = "cache.invalidations.received";
+    public static final String FAILED_METER_NAME = "cache.invalidations.failed";
+    public static final String LATENCY_METER_NAME = "cache.invalidation.latency";
+    public static final String HIT_RATIO_METER_NAME = "cache.hit.ratio";
+    public static final String CACHE_DIMENSION = "cache";
+
+    private static final String SEPARATOR = "|";
+    private static final String ALL_KEYS = "*";
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBroadcaster.class);
+
+    /**
+     * The entries being invalidated on behalf of another node, so that their removal is not broadcast back. Ehcache
+     * notifies the listeners from its own threads, but a synchronous listener is done before the removal returns.
+     */
+    private final Set<String> receiving = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The last timestamp written on behalf of another node, for each table.
+     */
+    private final Map<Object, Object> receivedTimestamps = new ConcurrentHashMap<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationTransport transport;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Clock clock;
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+        new CustomizableThreadFactory("cache-invalidation-sender-")
+    );
+
+    private final Timer latency;
+
+    private final Counter failed;
+
+    public CacheInvalidationBroadcaster(
+        CacheManager cacheManager,
+        CacheInvalidationTransport transport,
+        MeterRegistry meterRegistry,
+        Clock clock
+    ) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.latency =
+            Timer
+                .builder(LATENCY_METER_NAME)
+                .description("Time from the write of an entry on a node to its invalidation on another node")
+                .register(meterRegistry);
+        this.failed =
+            Counter.builder(FAILED_METER_NAME).description("Invalidations that could not be broadcast").register(meterRegistry);
+    }
+
+    /**
+     * Start broadcasting the writes of every cache of the cache manager, and applying those of the other nodes.
+     */
+    @PostConstruct
+    public void start() {
+        List<String> cacheNames = new ArrayList<>();
+        cacheManager.getCacheNames().forEach(cacheNames::add);
+        for (String cacheName : cacheNames) {
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            Factory<CacheEntryListener<Object, Object>> listener = CacheConfiguration.UPDATE_TIMESTAMPS_REGION.equals(cacheName)
+                ? () -> new TimestampsListener(cacheName)
+                : () -> new InvalidationListener(cacheName);
+            if (!CacheConfiguration.QUERY_RESULTS_REGIONS.contains(cacheName)) {
+                cache.registerCacheEntryListener(new MutableCacheEntryListenerConfiguration<>(listener, null, false, true));
+            }
+            Gauge
+                .builder(HIT_RATIO_METER_NAME, cacheName, this::hitRatio)
+                .description("Share of the reads of the cache that found the entry, since the start")
+                .tag(CACHE_DIMENSION, cacheName)
+                .register(meterRegistry);
+        }
+        transport.subscribe(this::receive, this::clearAll);
+        log.debug("Broadcasting the invalidations of {} caches as node {}", cacheNames.size(), nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdown();
+    }
+
+    private void broadcast(String cacheName, Object key) {
+        broadcast(cacheName, key, encode(key));
+    }
+
+    private void broadcast(String cacheName, Object key, String payload) {
+        if (receiving.contains(cacheName + SEPARATOR + encode(key))) {
+            return;
+        }
+        String message = nodeId + SEPARATOR + clock.millis() + SEPARATOR + cacheName + SEPARATOR + payload;
+        sender.execute(() -> {
+            try {
+                transport.publish(message);
+                meterRegistry.counter(SENT_METER_NAME, CACHE_DIMENSION, cacheName).increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Could not broadcast the invalidation of {} in {}: {}", key, cacheName, e.getMessage());
+            }
+        });
+    }
+
+    void receive(String message) {
+        String[] fields = message.split("\\" + SEPARATOR, 4);
+        if (fields.length != 4 || nodeId.equals(fields[0])) {
+            return;
+        }
+        String cacheName = fields[2];
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        String key = fields[3];
+        String timestamp = null;
+        if (CacheConfiguration.UPDATE_TIMESTAMPS_REGION.equals(cacheName)) {
+            String[] payload = fields[3].split("\\" + SEPARATOR, 2);
+            if (payload.length != 2) {
+                return;
+            }
+            timestamp = payload[0];
+            key = payload[1];
+        }
+        String entry = cacheName + SEPARATOR + key;
+        receiving.add(entry);
+        try {
+            if (timestamp != null) {
+                updateTimestamp(cache, key, timestamp);
+                clearQueryResults();
+            } else if (ALL_KEYS.equals(key)) {
+                cache.clear();
+            } else {
+                cache.remove(decode(key));
+            }
+            meterRegistry.counter(RECEIVED_METER_NAME, CACHE_DIMENSION, cacheName).increment();
+            latency.record(Duration.ofMillis(Math.max(0, clock.millis() - Long.parseLong(fields[1]))));
+        } catch (RuntimeException e) {
+            log.warn("Could not apply the invalidation {}: {}", message, e.getMessage());
+        } finally {
+            receiving.remove(entry);
+        }
+    }
+
+    /**
+     * Write the timestamp of a table written on another node, unless this node holds a later one. A timestamp received
+     * earlier is overwritten even when later, since the writing node first sends a timestamp ahead of its transaction and
+     * then the time of its commit.
+     */
+    private void updateTimestamp(Cache<Object, Object> cache, String key, String timestamp) {
+        if (ALL_KEYS.equals(key) || ALL_KEYS.equals(timestamp)) {
+            return;
+        }
+        Object space = decode(key);
+        Object received = decode(timestamp);
+        Object current = cache.get(space);
+        if (
+            current != null &&
+            !current.equals(receivedTimestamps.get(space)) &&
+            !(current instanceof Long && received instanceof Long && (Long) current < (Long) received)
+        ) {
+            return;
+        }
+        // A local write racing with this one wins, its timestamp being the latest
+        if (current == null ? cache.putIfAbsent(space, received) : cache.replace(space, current, received)) {
+            receivedTimestamps.put(space, received);
+        }
+    }
+
+    private void clearAll() {
+        log.info("Clearing all the caches, invalidations may have been missed");
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    private void clearQueryResults() {
+        CacheConfiguration.QUERY_RESULTS_REGIONS
+            .stream()
+            .map(cacheManager::getCache)
+            .filter(Objects::nonNull)
+            .forEach(Cache::clear);
+    }
+
+    private static String encode(Object key) {
+        if (key instanceof Long) {
+            return "L" + key;
+        } else if (key instanceof Integer) {
+            return "I" + key;
+        } else if (key instanceof String) {
+            return "S" + key;
+        }
+        return ALL_KEYS;
+    }
+
+    private static Object decode(String key) {
+        switch (key.charAt(0)) {
+            case 'L':
+                return Long.valueOf(key.substring(1));
+            case 'I':
+                return Integer.valueOf(key.substring(1));
+            case 'S':
+                return key.substring(1);
+            default:
+                throw new IllegalArgumentException("Unknown key " + key);
+        }
+    }
+
+    private double hitRatio(String cacheName) {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName.replaceAll("[,:=\n]", ".") + ",*"),
+                null
+            );
+            for (ObjectName name : names) {
+                return ((Number) mBeanServer.getAttribute(name, "CacheHitPercentage")).doubleValue() / 100;
+            }
+        } catch (Exception e) {
+            log.debug("Could not read the statistics of the cache {}: {}", cacheName, e.getMessage());
+        }
+        return Double.NaN;
+    }
+
+    private class InvalidationListener implements CacheEntryUpdatedListener<Object, Object>, CacheEntryRemovedListener<Object, Object> {
+
+        private final String cacheName;
+
+        InvalidationListener(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<?, ?>> events) {
+            events.forEach(event -> broadcast(cacheName, event.getKey()));
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<?, ?>> events) {
+            events.forEach(event -> broadcast(cacheName, event.getKey()));
+        }
+    }
+
+    private class TimestampsListener extends InvalidationListener implements CacheEntryCreatedListener<Object, Object> {
+
+        private final String cacheName;
+
+        TimestampsListener(String cacheName) {
+            super(cacheName);
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public void onCreated(Iterable<CacheEntryEvent<?, ?>> events) {
+            onUpdated(events);
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<?, ?>> events) {
+            events.forEach(event ->
+                broadcast(cacheName, event.getKey(), encode(event.getValue()) + SEPARATOR + encode(event.getKey()))
+            );
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<?, ?>> events) {
+            events.forEach(event -> broadcast(cacheName, event.getKey(), ALL_KEYS + SEPARATOR + encode(event.getKey())));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mycompany.myapp.config;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * Channel carrying the cache invalidations between the nodes of the cluster.
+ * <p>
+ * Every message published is delivered to every subscribed node, the publishing one included.
+ */
+public interface CacheInvalidationTransport extends Closeable {
+    /**
+     * Publish a message to all the nodes.
+     *
+     * @param message the message.
+     * @throws IllegalStateException if the message could not be published.
+     */
+    void publish(String message);
+
+    /**
+     * Start receiving the messages.
+     *
+     * @param onMessage called with each message received.
+     * @param onGap called when messages may have been missed, after the channel was interrupted.
+     */
+    void subscribe(Consumer<String> onMessage, Runnable onGap);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,43 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import javax.cache.CacheManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the Ehcache caches of several instances of the application consistent, when
+ * {@code application.cache.cluster.enabled} is {@code true}.
+ * <p>
+ * Each instance keeps its own caches, and broadcasts the entries it overwrites or removes to the other instances over
+ * the {@code LISTEN}/{@code NOTIFY} channels of the PostgreSQL primary of {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.cache.cluster", name = "enabled", havingValue = "true")
+public class ClusteredCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public CacheInvalidationTransport cacheInvalidationTransport(
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        return new PostgresCacheInvalidationTransport(
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword(),
+            applicationProperties.getCache().getCluster()
+        );
+    }
+
+    @Bean
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster(
+        CacheManager cacheManager,
+        CacheInvalidationTransport cacheInvalidationTransport,
+        MeterRegistry meterRegistry
+    ) {
+        return new CacheInvalidationBroadcaster(cacheManager, cacheInvalidationTransport, meterRegistry, Clock.systemUTC());
+    }
+}
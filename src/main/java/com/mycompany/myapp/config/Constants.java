@@ -1,5 +1,7 @@
 package com.mycompany.myapp.config;
 
+import java.util.List;
+
 /**
  * Application constants.
  */
@@ -10,6 +12,11 @@ public final class Constants {
 
     public static final String SYSTEM = "system";
     public static final String DEFAULT_LANGUAGE = "en";
+    // Languages of the messages and emails, as in src/main/webapp/app/config/language.constants.ts
+    public static final List<String> LANGUAGES = List.of(DEFAULT_LANGUAGE);
+
+    // Name of the read-only transactions that must see the latest commits, which are never sent to a read replica
+    public static final String PRIMARY_READ_ONLY_TRANSACTION = "primaryReadOnly";
 
     private Constants() {}
 }
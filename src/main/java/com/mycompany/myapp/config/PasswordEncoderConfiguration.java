@@ -0,0 +1,182 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.security.BoundedPasswordEncoder;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Configuration of the hashing of the passwords.
+ * <p>
+ * New passwords are hashed with the {@code application.password.encoder} algorithm, and prefixed with its id, such as
+ * {@code {argon2}}. The hashes of every algorithm are still matched, the unprefixed ones stored before as bcrypt. On a
+ * successful login, a hash of another algorithm, or of a lower cost, is replaced by a new one.
+ * <p>
+ * With a {@code target-latency-ms}, the cost of the bcrypt or argon2 encoder is benchmarked at startup, unless set: a
+ * hash is timed at the default cost of Spring Security, and the cost extrapolated to the highest one within the
+ * target, never below the default. The iterations of pbkdf2 are not stored in its hashes, so they are never
+ * benchmarked: changing them would no longer match the hashes stored before.
+ * <p>
+ * The passwords are hashed on {@code application.password.threads} threads, and the callers queue for them.
+ */
+@Configuration
+public class PasswordEncoderConfiguration {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    static final int BCRYPT_MIN_STRENGTH = 10;
+    static final int BCRYPT_MAX_STRENGTH = 16;
+    static final int ARGON2_MIN_ITERATIONS = 3;
+    static final int ARGON2_MAX_ITERATIONS = 100;
+
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final int PBKDF2_HASH_WIDTH = 256;
+    private static final int BENCHMARK_RUNS = 3;
+    private static final String BENCHMARK_PASSWORD = "benchmark";
+
+    private final Logger log = LoggerFactory.getLogger(PasswordEncoderConfiguration.class);
+
+    private final ApplicationProperties.Password properties;
+
+    public PasswordEncoderConfiguration(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getPassword();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(), passwordEncoderExecutor());
+    }
+
+    /**
+     * The executor is owned by the encoder rather than the context, where a second executor would make the injection
+     * of an {@code Executor} by type ambiguous.
+     */
+    private ThreadPoolTaskExecutor passwordEncoderExecutor() {
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("password-encoder-");
+        executor.initialize();
+        return executor;
+    }
+
+    DelegatingPasswordEncoder delegatingPasswordEncoder() {
+        String encoder = properties.getEncoder();
+        long targetNanos = properties.getTargetLatencyMs() * 1_000_000;
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength(encoder, targetNanos)));
+        encoders.put(ARGON2, argon2(argon2Iterations(encoder, targetNanos)));
+        encoders.put(PBKDF2, pbkdf2(properties.getPbkdf2Iterations()));
+        if (!encoders.containsKey(encoder)) {
+            throw new IllegalArgumentException("Unknown application.password.encoder " + encoder);
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encoder, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return passwordEncoder;
+    }
+
+    private int bcryptStrength(String encoder, long targetNanos) {
+        if (properties.getBcryptStrength() != null) {
+            return properties.getBcryptStrength();
+        }
+        if (!BCRYPT.equals(encoder) || targetNanos <= 0) {
+            return BCRYPT_MIN_STRENGTH;
+        }
+        long nanos = benchmark(new BCryptPasswordEncoder(BCRYPT_MIN_STRENGTH));
+        int strength = bcryptStrength(nanos, targetNanos);
+        log.info("Hashing the passwords with bcrypt strength {}, {} ms at strength {}", strength, nanos / 1_000_000, BCRYPT_MIN_STRENGTH);
+        return strength;
+    }
+
+    private int argon2Iterations(String encoder, long targetNanos) {
+        if (properties.getArgon2Iterations() != null) {
+            return properties.getArgon2Iterations();
+        }
+        if (!ARGON2.equals(encoder) || targetNanos <= 0) {
+            return ARGON2_MIN_ITERATIONS;
+        }
+        long nanos = benchmark(argon2(ARGON2_MIN_ITERATIONS));
+        int iterations = argon2Iterations(nanos, targetNanos);
+        log.info(
+            "Hashing the passwords with argon2 {} iterations, {} ms at {} iterations",
+            iterations,
+            nanos / 1_000_000,
+            ARGON2_MIN_ITERATIONS
+        );
+        return iterations;
+    }
+
+    /**
+     * Extrapolate the bcrypt strength within a target latency, each strength doubling the work of the previous one.
+     *
+     * @param minStrengthNanos the time of a hash at {@link #BCRYPT_MIN_STRENGTH}.
+     * @param targetNanos the target time of a hash.
+     * @return the strength.
+     */
+    static int bcryptStrength(long minStrengthNanos, long targetNanos) {
+        int strength = BCRYPT_MIN_STRENGTH;
+        long nanos = minStrengthNanos;
+        while (strength < BCRYPT_MAX_STRENGTH && nanos * 2 <= targetNanos) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * Extrapolate the argon2 iterations within a target latency, the work growing linearly with the iterations.
+     *
+     * @param minIterationsNanos the time of a hash at {@link #ARGON2_MIN_ITERATIONS}.
+     * @param targetNanos the target time of a hash.
+     * @return the iterations.
+     */
+    static int argon2Iterations(long minIterationsNanos, long targetNanos) {
+        long iterations = ARGON2_MIN_ITERATIONS * targetNanos / Math.max(1, minIterationsNanos);
+        return (int) Math.max(ARGON2_MIN_ITERATIONS, Math.min(ARGON2_MAX_ITERATIONS, iterations));
+    }
+
+    private PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(
+            ARGON2_SALT_LENGTH,
+            ARGON2_HASH_LENGTH,
+            properties.getArgon2Parallelism(),
+            properties.getArgon2MemoryKb(),
+            iterations
+        );
+    }
+
+    private static PasswordEncoder pbkdf2(int iterations) {
+        Pbkdf2PasswordEncoder encoder = new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, iterations, PBKDF2_HASH_WIDTH);
+        encoder.setAlgorithm(Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        return encoder;
+    }
+
+    /**
+     * Time the fastest of a few hashes, after a first one warming up the encoder.
+     */
+    private static long benchmark(PasswordEncoder encoder) {
+        encoder.encode(BENCHMARK_PASSWORD);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < BENCHMARK_RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode(BENCHMARK_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
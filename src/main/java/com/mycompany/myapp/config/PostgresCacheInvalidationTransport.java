@@ -0,0 +1,154 @@
+package com.mycompany.myapp.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * {@link CacheInvalidationTransport} over the {@code LISTEN}/{@code NOTIFY} channels of the PostgreSQL primary.
+ * <p>
+ * It holds two connections of its own, outside of the pools: one publishing the messages with {@code pg_notify}, the
+ * other listening to the channel from a background thread. When the listening connection is lost, it is opened again
+ * every {@code application.cache.cluster.reconnect-delay-ms}, and the subscriber is told that messages may have been
+ * missed in between.
+ * <p>
+ * The PostgreSQL driver is only on the classpath of the {@code prod} profile, so its notification API is called
+ * reflectively.
+ */
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final Logger log = LoggerFactory.getLogger(PostgresCacheInvalidationTransport.class);
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final ApplicationProperties.Cache.Cluster properties;
+
+    private Connection publishConnection;
+
+    private Thread listener;
+
+    private volatile boolean closed;
+
+    public PostgresCacheInvalidationTransport(
+        String url,
+        String username,
+        String password,
+        ApplicationProperties.Cache.Cluster properties
+    ) {
+        if (!CHANNEL_PATTERN.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid application.cache.cluster.channel " + properties.getChannel());
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void publish(String message) {
+        try {
+            if (publishConnection == null || publishConnection.isClosed()) {
+                publishConnection = DriverManager.getConnection(url, username, password);
+                publishConnection.setAutoCommit(true);
+            }
+            try (PreparedStatement statement = publishConnection.prepareStatement("select pg_notify(?, ?)")) {
+                statement.setString(1, properties.getChannel());
+                statement.setString(2, message);
+                statement.execute();
+            }
+        } catch (SQLException e) {
+            closeQuietly(publishConnection);
+            publishConnection = null;
+            throw new IllegalStateException("Could not publish on the channel " + properties.getChannel(), e);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        listener = new CustomizableThreadFactory("cache-invalidation-listener-").newThread(() -> listen(onMessage, onGap));
+        listener.start();
+    }
+
+    private void listen(Consumer<String> onMessage, Runnable onGap) {
+        boolean interrupted = false;
+        while (!closed) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                if (interrupted) {
+                    log.info("Listening again to the channel {}", properties.getChannel());
+                    onGap.run();
+                }
+                interrupted = true;
+                Class<?> pgConnectionType = Class.forName("org.postgresql.PGConnection");
+                Object pgConnection = connection.unwrap(pgConnectionType);
+                Method getNotifications = pgConnectionType.getMethod("getNotifications", int.class);
+                Method getParameter = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+                while (!closed) {
+                    Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, (int) properties.getPollTimeoutMs());
+                    if (notifications != null) {
+                        for (Object notification : notifications) {
+                            onMessage.accept((String) getParameter.invoke(notification));
+                        }
+                    }
+                }
+            } catch (SQLException | InvocationTargetException e) {
+                if (!closed) {
+                    log.warn("Lost the channel {}, reconnecting: {}", properties.getChannel(), e.getMessage());
+                    pause();
+                }
+            } catch (ReflectiveOperationException e) {
+                log.error("The PostgreSQL driver cannot listen to the channel {}", properties.getChannel(), e);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not handle a message of the channel {}", properties.getChannel(), e);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.getReconnectDelayMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        closeQuietly(publishConnection);
+        publishConnection = null;
+    }
+
+    private void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close the connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the {@code spring.datasource} into a primary pool and one pool per {@code application.read-replicas.replicas}
+ * entry, when {@code application.read-replicas.enabled} is {@code true}.
+ * <p>
+ * Every pool is configured by the {@code spring.datasource.hikari} properties, the replica pools with their own URL,
+ * credentials and optionally size, and publishes the {@code hikaricp.*} meters tagged with its pool name.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfiguration {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaDataSourceConfiguration.class);
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties,
+        Environment env,
+        MeterRegistry meterRegistry
+    ) {
+        Binder binder = Binder.get(env);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindPool(binder, meterRegistry, primary);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ApplicationProperties.ReadReplicas.Replica> replicaProperties = applicationProperties.getReadReplicas().getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            ApplicationProperties.ReadReplicas.Replica replicaProperty = replicaProperties.get(i);
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = DataSourceBuilder
+                .create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperty.getUrl())
+                .username(replicaProperty.getUsername())
+                .password(replicaProperty.getPassword())
+                .build();
+            bindPool(binder, meterRegistry, replica);
+            replica.setPoolName((primary.getPoolName() != null ? primary.getPoolName() : "Hikari") + "-" + name);
+            replica.setReadOnly(true);
+            if (replicaProperty.getMaximumPoolSize() != null) {
+                replica.setMaximumPoolSize(replicaProperty.getMaximumPoolSize());
+            }
+            replicas.put(name, replica);
+        }
+        log.debug("Routing the read-only transactions to {} read replicas", replicas.size());
+        return new ReadReplicaRoutingDataSource(primary, replicas, applicationProperties.getReadReplicas(), meterRegistry);
+    }
+
+    private static void bindPool(Binder binder, MeterRegistry meterRegistry, HikariDataSource pool) {
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(pool));
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+
+    /**
+     * The data source of the application, only taking a connection from a pool on the first statement of a
+     * transaction, once its read-only flag is known.
+     *
+     * @param readReplicaRoutingDataSource the data source routing between the primary and the replicas.
+     * @return the data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,265 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} sending the connections of read-only transactions to the read replicas, and all the others to
+ * the primary.
+ * <p>
+ * The replicas are picked in turn among those lagging at most {@code application.read-replicas.max-lag-seconds}
+ * behind the primary, as measured every {@code application.read-replicas.lag-check-interval-ms} by the
+ * {@code application.read-replicas.lag-query}. When none is available, or the one picked refuses the connection, the
+ * read-only transaction runs on the primary instead.
+ * <p>
+ * As a replica may not have the latest commits yet:
+ * <ul>
+ *     <li>read-only transactions named {@link Constants#PRIMARY_READ_ONLY_TRANSACTION}, which read what was just
+ *     committed, stay on the primary;</li>
+ *     <li>the Hibernate session of a transaction sent to a replica still reads the second-level and query caches, but
+ *     no longer adds to them, so that the caches are only filled with the rows of the primary.</li>
+ * </ul>
+ * <p>
+ * The read-only flag of the transaction is only known once it has begun, after the transaction manager asked for a
+ * connection: this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which only asks for it on the first
+ * statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String CONNECTIONS_METER_NAME = "datasource.routing.connections";
+    public static final String CONNECTIONS_METER_POOL_DIMENSION = "pool";
+    public static final String FALLBACKS_METER_NAME = "datasource.routing.fallbacks";
+    public static final String LAG_METER_NAME = "datasource.replica.lag";
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final ApplicationProperties.ReadReplicas properties;
+
+    private final Map<String, Counter> connections = new HashMap<>();
+
+    private final Counter fallbacks;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService lagChecker;
+
+    /**
+     * @param primary the pool of the primary, closed with this data source.
+     * @param replicas the pools of the replicas by name, closed with this data source.
+     * @param properties the lag tolerance and how it is measured.
+     * @param meterRegistry the registry of the routing and lag meters.
+     */
+    public ReadReplicaRoutingDataSource(
+        DataSource primary,
+        Map<String, DataSource> replicas,
+        ApplicationProperties.ReadReplicas properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.properties = properties;
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        connections.put(PRIMARY, connectionsCounter(meterRegistry, PRIMARY));
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            connections.put(name, connectionsCounter(meterRegistry, name));
+            Gauge
+                .builder(LAG_METER_NAME, replica, r -> r.lagSeconds)
+                .description("Seconds the replica lags behind the primary, as last measured")
+                .baseUnit("seconds")
+                .tag(CONNECTIONS_METER_POOL_DIMENSION, name)
+                .register(meterRegistry);
+        });
+        this.fallbacks =
+            Counter
+                .builder(FALLBACKS_METER_NAME)
+                .description("Read-only connections taken from the primary because no replica was available")
+                .register(meterRegistry);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    private static Counter connectionsCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter
+            .builder(CONNECTIONS_METER_NAME)
+            .description("Connections handed out, per pool")
+            .tag(CONNECTIONS_METER_POOL_DIMENSION, pool)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (replicas.isEmpty()) {
+            return;
+        }
+        lagChecker = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("read-replica-lag-"));
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, properties.getLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            closePool(replica.dataSource);
+        }
+        closePool(primary);
+    }
+
+    private void closePool(DataSource pool) {
+        if (pool instanceof Closeable) {
+            try {
+                ((Closeable) pool).close();
+            } catch (IOException e) {
+                log.warn("Could not close the pool {}: {}", pool, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Measure the lag of each replica, and make the replicas lagging too much or unreachable unavailable until the
+     * next check.
+     */
+    void checkLag() {
+        for (Replica replica : replicas) {
+            try (
+                Connection connection = replica.dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(properties.getLagQuery())
+            ) {
+                replica.lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.NaN;
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Could not measure the lag of the read replica {}: {}", replica.name, e.getMessage());
+                replica.lagSeconds = Double.NaN;
+            }
+            boolean available = replica.lagSeconds <= properties.getMaxLagSeconds();
+            if (available != replica.available) {
+                log.info("Read replica {} is now {}, lagging {}s", replica.name, available ? "available" : "unavailable", replica.lagSeconds);
+            }
+            replica.available = available;
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReplicaEligible()) {
+            return PRIMARY;
+        }
+        Replica replica = nextAvailableReplica();
+        return replica == null ? PRIMARY : replica.name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReplicaEligible()) {
+            return primaryConnection();
+        }
+        Replica replica = nextAvailableReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                connections.get(replica.name).increment();
+                disableCachePuts();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Read replica {} refused a connection, it is unavailable until the next check: {}", replica.name, e.getMessage());
+                replica.available = false;
+            }
+        }
+        fallbacks.increment();
+        return primaryConnection();
+    }
+
+    private static boolean isReplicaEligible() {
+        return (
+            TransactionSynchronizationManager.isCurrentTransactionReadOnly() &&
+            !Constants.PRIMARY_READ_ONLY_TRANSACTION.equals(TransactionSynchronizationManager.getCurrentTransactionName())
+        );
+    }
+
+    /**
+     * Stop the Hibernate sessions of the current transaction from caching what they read, which may be behind the
+     * primary, until they are closed with the transaction.
+     */
+    private static void disableCachePuts() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                Session session = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class);
+                if (session.getCacheMode().isPutEnabled()) {
+                    session.setCacheMode(session.getCacheMode().isGetEnabled() ? CacheMode.GET : CacheMode.IGNORE);
+                }
+            }
+        }
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        Connection connection = primary.getConnection();
+        connections.get(PRIMARY).increment();
+        return connection;
+    }
+
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean available;
+
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mycompany.myapp.domain;
+
+import java.io.Serializable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+
+/**
+ * Denormalized search document of one {@link WMISComponent}, carrying the country name of its {@link Instance} and the
+ * name of its {@link Application}, so that a single query can match on all three.
+ * <p>
+ * It is not an entity: it is built from the topology rows of the database and only lives in Elasticsearch, under the
+ * id of the component.
+ */
+@Document(indexName = "componenttopology")
+public class ComponentTopology implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = { @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+    private String componentName;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = { @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+    private String description;
+
+    @Field(type = FieldType.Long)
+    private Long instanceId;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = { @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+    private String countryName;
+
+    @Field(type = FieldType.Long)
+    private Long applicationId;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = { @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+    private String applicationName;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getComponentName() {
+        return componentName;
+    }
+
+    public void setComponentName(String componentName) {
+        this.componentName = componentName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(Long instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    public void setApplicationId(Long applicationId) {
+        this.applicationId = applicationId;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ComponentTopology)) {
+            return false;
+        }
+        return id != null && id.equals(((ComponentTopology) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ComponentTopology{" +
+            "id=" + getId() +
+            ", componentName='" + getComponentName() + "'" +
+            ", countryName='" + getCountryName() + "'" +
+            ", applicationName='" + getApplicationName() + "'" +
+            "}";
+    }
+}
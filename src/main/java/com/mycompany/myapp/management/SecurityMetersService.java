@@ -13,16 +13,31 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String LOGIN_ATTEMPTS_METER_NAME = "security.authentication.login-attempts";
+    public static final String LOGIN_ATTEMPTS_METER_DESCRIPTION = "Indicates the decisions of the login throttle on the login attempts.";
+    public static final String LOGIN_ATTEMPTS_METER_BASE_UNIT = "attempts";
+    public static final String LOGIN_ATTEMPTS_METER_DECISION_DIMENSION = "decision";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Counter loginAllowedCounter;
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByAddressCounter;
+    private final Counter loginUnknownCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.loginAllowedCounter = loginAttemptsCounterForDecisionBuilder("allowed").register(registry);
+        this.loginThrottledByLoginCounter = loginAttemptsCounterForDecisionBuilder("throttled-login").register(registry);
+        this.loginThrottledByAddressCounter = loginAttemptsCounterForDecisionBuilder("throttled-address").register(registry);
+        this.loginUnknownCounter = loginAttemptsCounterForDecisionBuilder("unknown-login").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -37,6 +52,14 @@ public class SecurityMetersService {
         this.tokenInvalidSignatureCounter.increment();
     }
 
+    private Counter.Builder loginAttemptsCounterForDecisionBuilder(String decision) {
+        return Counter
+            .builder(LOGIN_ATTEMPTS_METER_NAME)
+            .baseUnit(LOGIN_ATTEMPTS_METER_BASE_UNIT)
+            .description(LOGIN_ATTEMPTS_METER_DESCRIPTION)
+            .tag(LOGIN_ATTEMPTS_METER_DECISION_DIMENSION, decision);
+    }
+
     public void trackTokenExpired() {
         this.tokenExpiredCounter.increment();
     }
@@ -48,4 +71,20 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackLoginAllowed() {
+        this.loginAllowedCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByAddress() {
+        this.loginThrottledByAddressCounter.increment();
+    }
+
+    public void trackLoginUnknown() {
+        this.loginUnknownCounter.increment();
+    }
 }
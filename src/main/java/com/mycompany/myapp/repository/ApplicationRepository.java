@@ -1,7 +1,20 @@
 package com.mycompany.myapp.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.mycompany.myapp.domain.Application;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +22,74 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ApplicationRepository extends JpaRepository<Application, Long> {}
+public interface ApplicationRepository extends JpaRepository<Application, Long> {
+    String APPLICATION_ROWS_QUERY_CACHE = "applicationRowsQuery";
+
+    /**
+     * Keyset pagination: read the slice of entities whose id is strictly greater than the given one.
+     *
+     * @param id the id of the last entity of the previous slice.
+     * @param pageable the size and ordering of the slice, which must be sorted by id.
+     * @return the slice, without any count query.
+     */
+    Slice<Application> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Keyset pagination over the columns returned by the list endpoint, without loading the entities. The slices
+     * are cached until the next write to the applications.
+     *
+     * @param id the id of the last application of the previous slice.
+     * @param pageable the size and ordering of the slice, which must be sorted by id.
+     * @return the slice, without any count query.
+     */
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = APPLICATION_ROWS_QUERY_CACHE),
+        }
+    )
+    Slice<ApplicationRow> findRowsByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Read applications with their instances in a single query, for a slice of ids read beforehand: fetching a
+     * collection cannot be paginated in the database.
+     *
+     * @param ids the ids of the applications.
+     * @return the applications, ordered by id.
+     */
+    @Query("select distinct a from Application a left join fetch a.applications where a.id in :ids order by a.id")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Application> findAllWithInstancesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Read applications with their instances and the components of these instances in a single query.
+     *
+     * @param ids the ids of the applications.
+     * @return the applications, ordered by id.
+     * @see #findAllWithInstancesByIdIn(Collection)
+     */
+    @Query(
+        "select distinct a from Application a left join fetch a.applications i left join fetch i.instances " +
+        "where a.id in :ids order by a.id"
+    )
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Application> findAllWithInstancesAndComponentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the whole topology, one row per application, instance and component, ordered by application, instance and component id.
+     *
+     * @return a forward-only stream of rows, to be consumed and closed inside a transaction.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from Application a left join a.applications i left join i.instances c order by a.id, i.id, c.id"
+    )
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = TopologyRow.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+        }
+    )
+    Stream<TopologyRow> streamTopology();
+}
@@ -0,0 +1,10 @@
+package com.mycompany.myapp.repository;
+
+/**
+ * Projection of the columns of an Application returned by the list endpoint, read without loading the entity.
+ */
+public interface ApplicationRow {
+    Long getId();
+
+    String getApplicationName();
+}
@@ -0,0 +1,39 @@
+package com.mycompany.myapp.repository;
+
+import java.io.Serializable;
+
+/**
+ * Row of one {@code GROUP BY} group: the value grouped on and the number of rows in the group.
+ * <p>
+ * Built by a constructor expression rather than as a projection proxy, so that the results can be cached in any tier.
+ */
+public class CountRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String bucket;
+
+    private final Long total;
+
+    public CountRow(String bucket, Long total) {
+        this.bucket = bucket;
+        this.total = total;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CountRow{" +
+            "bucket='" + bucket + "'" +
+            ", total=" + total +
+            "}";
+    }
+}
@@ -0,0 +1,55 @@
+package com.mycompany.myapp.repository;
+
+import java.io.Serializable;
+
+/**
+ * Row of one {@code GROUP BY} group on the calendar day of a date: the day and the number of rows in the group.
+ * <p>
+ * Built by a constructor expression rather than as a projection proxy, so that the results can be cached in any tier.
+ */
+public class DateCountRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Integer year;
+
+    private final Integer month;
+
+    private final Integer day;
+
+    private final Long total;
+
+    public DateCountRow(Integer year, Integer month, Integer day, Long total) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.total = total;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Integer getMonth() {
+        return month;
+    }
+
+    public Integer getDay() {
+        return day;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DateCountRow{" +
+            "year=" + year +
+            ", month=" + month +
+            ", day=" + day +
+            ", total=" + total +
+            "}";
+    }
+}
@@ -1,7 +1,20 @@
 package com.mycompany.myapp.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.mycompany.myapp.domain.Instance;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +22,65 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface InstanceRepository extends JpaRepository<Instance, Long> {}
+public interface InstanceRepository extends JpaRepository<Instance, Long> {
+    String INSTANCE_ROWS_QUERY_CACHE = "instanceRowsQuery";
+
+    /**
+     * Keyset pagination: read the slice of entities whose id is strictly greater than the given one.
+     *
+     * @param id the id of the last entity of the previous slice.
+     * @param pageable the size and ordering of the slice, which must be sorted by id.
+     * @return the slice, without any count query.
+     */
+    Slice<Instance> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Keyset pagination over the columns returned by the list endpoint, with the name of the application of each
+     * instance, without loading the entities. The slices are cached until the next write to the instances or the
+     * applications.
+     *
+     * @param id the id of the last instance of the previous slice.
+     * @param pageable the size and ordering of the slice, which must be sorted by id.
+     * @return the slice, without any count query.
+     */
+    @Query(
+        "select i.id as id, i.countryName as countryName, a.id as applicationId, a.applicationName as applicationName " +
+        "from Instance i left join i.application a where i.id > :id"
+    )
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = INSTANCE_ROWS_QUERY_CACHE),
+        }
+    )
+    Slice<InstanceRow> findRowsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Read instances with their application and their components in a single query, for a slice of ids read
+     * beforehand: fetching a collection cannot be paginated in the database.
+     *
+     * @param ids the ids of the instances.
+     * @return the instances, ordered by id.
+     */
+    @Query("select distinct i from Instance i left join fetch i.application left join fetch i.instances where i.id in :ids order by i.id")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Instance> findAllWithComponentsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stream the instances that do not belong to any application, with their components, ordered by instance and component id.
+     *
+     * @return a forward-only stream of rows, to be consumed and closed inside a transaction.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from Instance i left join i.application a left join i.instances c where a.id is null order by i.id, c.id"
+    )
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = TopologyRow.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+        }
+    )
+    Stream<TopologyRow> streamTopologyWithoutApplication();
+}
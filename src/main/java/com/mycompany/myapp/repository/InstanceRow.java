@@ -0,0 +1,15 @@
+package com.mycompany.myapp.repository;
+
+/**
+ * Projection of the columns of an Instance returned by the list endpoint, with the id and name of its application,
+ * read without loading the entities.
+ */
+public interface InstanceRow {
+    Long getId();
+
+    String getCountryName();
+
+    Long getApplicationId();
+
+    String getApplicationName();
+}
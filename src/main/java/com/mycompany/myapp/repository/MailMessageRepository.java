@@ -0,0 +1,34 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.MailMessage;
+import java.time.Instant;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailMessage} entity.
+ */
+@Repository
+public interface MailMessageRepository extends JpaRepository<MailMessage, Long> {
+    String LOCK_TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    /**
+     * Lock the messages due at a date, oldest first, skipping those already locked by another node.
+     *
+     * @param date the date.
+     * @param pageable the number of messages.
+     * @return the messages.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = LOCK_TIMEOUT_HINT, value = "" + LockOptions.SKIP_LOCKED))
+    List<MailMessage> findAllByNextAttemptDateLessThanEqualOrderByNextAttemptDateAsc(Instant date, Pageable pageable);
+
+    long countByNextAttemptDateNotNull();
+}
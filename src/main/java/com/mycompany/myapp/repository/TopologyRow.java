@@ -0,0 +1,28 @@
+package com.mycompany.myapp.repository;
+
+/**
+ * Flat projection of one Application → Instance → WMISComponent path, used to stream the topology without
+ * loading any entity into the persistence context.
+ * <p>
+ * Any of the three levels may be {@code null} when a parent has no children, or when a child has no parent.
+ */
+public interface TopologyRow {
+    /**
+     * JDBC fetch size used by the streaming topology queries.
+     */
+    String FETCH_SIZE = "500";
+
+    Long getApplicationId();
+
+    String getApplicationName();
+
+    Long getInstanceId();
+
+    String getCountryName();
+
+    Long getComponentId();
+
+    String getComponentName();
+
+    String getDescription();
+}
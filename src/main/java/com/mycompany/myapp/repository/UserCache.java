@@ -0,0 +1,95 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.User;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.hibernate.Hibernate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Looks up the users with their authorities by login or email, through the second-level cache of the {@link User}
+ * entity.
+ * <p>
+ * The users are cached once, by id, in the Hibernate region of the entity, which every write through JPA keeps up to
+ * date. The logins and emails are indexed in two caches of ids, whose entries are checked against the user they lead
+ * to: an entry left behind by a change of email, or by a deleted user, is dropped and looked up again, so the indexes
+ * never need to be evicted for the lookups to be right. The unknown logins and emails are not cached.
+ */
+@Component
+@Transactional(readOnly = true)
+public class UserCache {
+
+    public static final String USER_IDS_BY_LOGIN_CACHE = "userIdsByLogin";
+
+    public static final String USER_IDS_BY_EMAIL_CACHE = "userIdsByEmail";
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    public UserCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param login the login, in lower case.
+     * @return the user with this login, with their authorities.
+     */
+    public Optional<User> findOneWithAuthoritiesByLogin(String login) {
+        return find(USER_IDS_BY_LOGIN_CACHE, login, user -> login.equals(user.getLogin()), userRepository::findOneWithAuthoritiesByLogin);
+    }
+
+    /**
+     * @param email the email, in any case.
+     * @return the user with this email, with their authorities.
+     */
+    public Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email) {
+        String key = email.toLowerCase(Locale.ENGLISH);
+        return find(
+            USER_IDS_BY_EMAIL_CACHE,
+            key,
+            user -> key.equalsIgnoreCase(user.getEmail()),
+            userRepository::findOneWithAuthoritiesByEmailIgnoreCase
+        );
+    }
+
+    /**
+     * Drop the index entries of the current login and email of a user, which would otherwise be dropped on their next
+     * lookup.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        index(USER_IDS_BY_LOGIN_CACHE).evict(user.getLogin());
+        if (user.getEmail() != null) {
+            index(USER_IDS_BY_EMAIL_CACHE).evict(user.getEmail().toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    private Optional<User> find(String indexName, String key, Predicate<User> matches, Function<String, Optional<User>> query) {
+        Cache index = index(indexName);
+        Long id = index.get(key, Long.class);
+        if (id != null) {
+            Optional<User> user = userRepository.findById(id).filter(matches);
+            if (user.isPresent()) {
+                Hibernate.initialize(user.get().getAuthorities());
+                return user;
+            }
+            index.evict(key);
+        }
+        Optional<User> user = query.apply(key);
+        user.map(User::getId).ifPresent(userId -> index.put(key, userId));
+        return user;
+    }
+
+    private Cache index(String indexName) {
+        return Objects.requireNonNull(cacheManager.getCache(indexName));
+    }
+}
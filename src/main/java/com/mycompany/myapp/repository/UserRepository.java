@@ -1,13 +1,21 @@
 package com.mycompany.myapp.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 import com.mycompany.myapp.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.QueryHint;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,9 +23,10 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    String USERS_BY_LOGIN_CACHE = "usersByLogin";
+    String USERS_CREATED_PER_DAY_CACHE = "usersCreatedPerDay";
+
+    String ACTIVATED_USERS_QUERY_CACHE = "activatedUsersQuery";
 
-    String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
@@ -25,12 +34,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
+    @Query("select u.login from User u where u.login in :logins")
+    List<String> findAllLoginsIn(@Param("logins") Collection<String> logins);
+
+    @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+    List<String> findAllEmailsIgnoreCaseIn(@Param("emails") Collection<String> emails);
+
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ACTIVATED_USERS_QUERY_CACHE),
+        }
+    )
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    Slice<User> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    List<User> findAllByLastModifiedDateGreaterThanEqual(Instant dateTime);
+
+    @Query(
+        "select new com.mycompany.myapp.repository.DateCountRow(" +
+        "year(u.createdDate), month(u.createdDate), day(u.createdDate), count(u.id)) " +
+        "from User u where u.createdDate is not null " +
+        "group by year(u.createdDate), month(u.createdDate), day(u.createdDate)"
+    )
+    @Cacheable(cacheNames = USERS_CREATED_PER_DAY_CACHE)
+    List<DateCountRow> countCreatedPerDay();
 }
@@ -1,7 +1,20 @@
 package com.mycompany.myapp.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.mycompany.myapp.domain.WMISComponent;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +22,166 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WMISComponentRepository extends JpaRepository<WMISComponent, Long> {}
+public interface WMISComponentRepository extends JpaRepository<WMISComponent, Long> {
+    String AGGREGATIONS_CACHE = "wmisComponentAggregations";
+
+    String COMPONENT_TOPOLOGY_QUERY_CACHE = "componentTopologyQuery";
+
+    /**
+     * Keyset pagination: read the slice of entities whose id is strictly greater than the given one.
+     *
+     * @param id the id of the last entity of the previous slice.
+     * @param pageable the size and ordering of the slice, which must be sorted by id.
+     * @return the slice, without any count query.
+     */
+    Slice<WMISComponent> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Stream the components that do not belong to any instance, ordered by id.
+     *
+     * @return a forward-only stream of rows, to be consumed and closed inside a transaction.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a where i.id is null order by c.id"
+    )
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = TopologyRow.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+        }
+    )
+    Stream<TopologyRow> streamTopologyWithoutInstance();
+
+    /**
+     * Read the topology rows of components, one per component.
+     *
+     * @param ids the ids of the components.
+     * @return the rows of the components that exist.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a where c.id in :ids"
+    )
+    List<TopologyRow> findTopologyByComponentIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset pagination over the topology rows of all components, ordered by component id. The slices are cached
+     * until the next write to the components, the instances or the applications.
+     *
+     * @param componentId the id of the last component of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice, without any count query.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a where c.id > :componentId order by c.id"
+    )
+    @QueryHints(
+        value = {
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = COMPONENT_TOPOLOGY_QUERY_CACHE),
+        }
+    )
+    Slice<TopologyRow> findTopologyByComponentIdGreaterThan(@Param("componentId") Long componentId, Pageable pageable);
+
+    /**
+     * Keyset pagination over the topology rows of all components, ordered by component id, for the full scans of the
+     * reindexing. Unlike {@link #findTopologyByComponentIdGreaterThan(Long, Pageable)}, the slices are not cached.
+     *
+     * @param componentId the id of the last component of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice, without any count query.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a where c.id > :componentId order by c.id"
+    )
+    Slice<TopologyRow> scanTopologyByComponentIdGreaterThan(@Param("componentId") Long componentId, Pageable pageable);
+
+    /**
+     * Keyset pagination over the topology rows of the components of instances, ordered by component id.
+     *
+     * @param instanceIds the ids of the instances.
+     * @param componentId the id of the last component of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice, without any count query.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a " +
+        "where i.id in :instanceIds and c.id > :componentId order by c.id"
+    )
+    Slice<TopologyRow> findTopologyByInstanceIdIn(
+        @Param("instanceIds") Collection<Long> instanceIds,
+        @Param("componentId") Long componentId,
+        Pageable pageable
+    );
+
+    /**
+     * Keyset pagination over the topology rows of the components of applications, ordered by component id.
+     *
+     * @param applicationIds the ids of the applications.
+     * @param componentId the id of the last component of the previous slice.
+     * @param pageable the size of the slice.
+     * @return the slice, without any count query.
+     */
+    @Query(
+        "select a.id as applicationId, a.applicationName as applicationName, i.id as instanceId, i.countryName as countryName, " +
+        "c.id as componentId, c.componentName as componentName, c.description as description " +
+        "from WMISComponent c left join c.instance i left join i.application a " +
+        "where a.id in :applicationIds and c.id > :componentId order by c.id"
+    )
+    Slice<TopologyRow> findTopologyByApplicationIdIn(
+        @Param("applicationIds") Collection<Long> applicationIds,
+        @Param("componentId") Long componentId,
+        Pageable pageable
+    );
+
+    /**
+     * Count the components of each country, largest groups first. Components without a country are not counted.
+     *
+     * @param pageable the number of groups to return.
+     * @return the groups, keyed by country name.
+     */
+    @Query(
+        "select new com.mycompany.myapp.repository.CountRow(i.countryName, count(c.id)) from WMISComponent c join c.instance i " +
+        "where i.countryName is not null group by i.countryName order by count(c.id) desc, i.countryName"
+    )
+    @Cacheable(cacheNames = AGGREGATIONS_CACHE, key = "#root.methodName + ':' + #p0.pageSize")
+    List<CountRow> countPerCountryName(Pageable pageable);
+
+    /**
+     * Count the components of each application, largest groups first. Components without an application are not
+     * counted.
+     *
+     * @param pageable the number of groups to return.
+     * @return the groups, keyed by application name.
+     */
+    @Query(
+        "select new com.mycompany.myapp.repository.CountRow(a.applicationName, count(c.id)) " +
+        "from WMISComponent c join c.instance i join i.application a " +
+        "where a.applicationName is not null group by a.applicationName order by count(c.id) desc, a.applicationName"
+    )
+    @Cacheable(cacheNames = AGGREGATIONS_CACHE, key = "#root.methodName + ':' + #p0.pageSize")
+    List<CountRow> countPerApplicationName(Pageable pageable);
+
+    /**
+     * Count the distinct instances running components of each application, largest groups first.
+     *
+     * @param pageable the number of groups to return.
+     * @return the groups, keyed by application name.
+     */
+    @Query(
+        "select new com.mycompany.myapp.repository.CountRow(a.applicationName, count(distinct i.id)) " +
+        "from WMISComponent c join c.instance i join i.application a " +
+        "where a.applicationName is not null group by a.applicationName order by count(distinct i.id) desc, a.applicationName"
+    )
+    @Cacheable(cacheNames = AGGREGATIONS_CACHE, key = "#root.methodName + ':' + #p0.pageSize")
+    List<CountRow> countInstancesPerApplicationName(Pageable pageable);
+}
@@ -3,10 +3,10 @@ package com.mycompany.myapp.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import com.mycompany.myapp.domain.Application;
-import com.mycompany.myapp.repository.ApplicationRepository;
 import java.util.stream.Stream;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
@@ -25,17 +25,17 @@ interface ApplicationSearchRepositoryInternal {
 
     Stream<Application> search(Query query);
 
+    SearchHits<Application> searchHits(Query query);
+
     void index(Application entity);
 }
 
 class ApplicationSearchRepositoryInternalImpl implements ApplicationSearchRepositoryInternal {
 
     private final ElasticsearchRestTemplate elasticsearchTemplate;
-    private final ApplicationRepository repository;
 
-    ApplicationSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, ApplicationRepository repository) {
+    ApplicationSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
         this.elasticsearchTemplate = elasticsearchTemplate;
-        this.repository = repository;
     }
 
     @Override
@@ -49,8 +49,13 @@ class ApplicationSearchRepositoryInternalImpl implements ApplicationSearchReposi
         return elasticsearchTemplate.search(query, Application.class).map(SearchHit::getContent).stream();
     }
 
+    @Override
+    public SearchHits<Application> searchHits(Query query) {
+        return elasticsearchTemplate.search(query, Application.class);
+    }
+
     @Override
     public void index(Application entity) {
-        repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
+        elasticsearchTemplate.save(entity);
     }
 }
@@ -0,0 +1,51 @@
+package com.mycompany.myapp.repository.search;
+
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+
+import com.mycompany.myapp.domain.ComponentTopology;
+import java.util.stream.Stream;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+
+/**
+ * Spring Data Elasticsearch repository for the {@link ComponentTopology} search document.
+ */
+public interface ComponentTopologySearchRepository
+    extends ElasticsearchRepository<ComponentTopology, Long>, ComponentTopologySearchRepositoryInternal {}
+
+interface ComponentTopologySearchRepositoryInternal {
+    Stream<ComponentTopology> search(String query);
+
+    Stream<ComponentTopology> search(Query query);
+
+    SearchHits<ComponentTopology> searchHits(Query query);
+}
+
+class ComponentTopologySearchRepositoryInternalImpl implements ComponentTopologySearchRepositoryInternal {
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    ComponentTopologySearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+    }
+
+    @Override
+    public Stream<ComponentTopology> search(String query) {
+        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
+        return search(nativeSearchQuery);
+    }
+
+    @Override
+    public Stream<ComponentTopology> search(Query query) {
+        return elasticsearchTemplate.search(query, ComponentTopology.class).map(SearchHit::getContent).stream();
+    }
+
+    @Override
+    public SearchHits<ComponentTopology> searchHits(Query query) {
+        return elasticsearchTemplate.search(query, ComponentTopology.class);
+    }
+}
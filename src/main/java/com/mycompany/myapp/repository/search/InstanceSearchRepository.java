@@ -3,10 +3,10 @@ package com.mycompany.myapp.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import com.mycompany.myapp.domain.Instance;
-import com.mycompany.myapp.repository.InstanceRepository;
 import java.util.stream.Stream;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
@@ -25,17 +25,17 @@ interface InstanceSearchRepositoryInternal {
 
     Stream<Instance> search(Query query);
 
+    SearchHits<Instance> searchHits(Query query);
+
     void index(Instance entity);
 }
 
 class InstanceSearchRepositoryInternalImpl implements InstanceSearchRepositoryInternal {
 
     private final ElasticsearchRestTemplate elasticsearchTemplate;
-    private final InstanceRepository repository;
 
-    InstanceSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, InstanceRepository repository) {
+    InstanceSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
         this.elasticsearchTemplate = elasticsearchTemplate;
-        this.repository = repository;
     }
 
     @Override
@@ -49,8 +49,13 @@ class InstanceSearchRepositoryInternalImpl implements InstanceSearchRepositoryIn
         return elasticsearchTemplate.search(query, Instance.class).map(SearchHit::getContent).stream();
     }
 
+    @Override
+    public SearchHits<Instance> searchHits(Query query) {
+        return elasticsearchTemplate.search(query, Instance.class);
+    }
+
     @Override
     public void index(Instance entity) {
-        repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
+        elasticsearchTemplate.save(entity);
     }
 }
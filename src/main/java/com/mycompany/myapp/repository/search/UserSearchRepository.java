@@ -6,7 +6,9 @@ import com.mycompany.myapp.domain.User;
 import java.util.stream.Stream;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
@@ -16,6 +18,8 @@ public interface UserSearchRepository extends ElasticsearchRepository<User, Long
 
 interface UserSearchRepositoryInternal {
     Stream<User> search(String query);
+
+    SearchHits<User> searchHits(Query query);
 }
 
 class UserSearchRepositoryInternalImpl implements UserSearchRepositoryInternal {
@@ -31,4 +35,9 @@ class UserSearchRepositoryInternalImpl implements UserSearchRepositoryInternal {
         NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
         return elasticsearchTemplate.search(nativeSearchQuery, User.class).map(SearchHit::getContent).stream();
     }
+
+    @Override
+    public SearchHits<User> searchHits(Query query) {
+        return elasticsearchTemplate.search(query, User.class);
+    }
 }
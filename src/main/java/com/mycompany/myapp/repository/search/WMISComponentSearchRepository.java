@@ -3,10 +3,10 @@ package com.mycompany.myapp.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import com.mycompany.myapp.domain.WMISComponent;
-import com.mycompany.myapp.repository.WMISComponentRepository;
 import java.util.stream.Stream;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
@@ -26,17 +26,17 @@ interface WMISComponentSearchRepositoryInternal {
 
     Stream<WMISComponent> search(Query query);
 
+    SearchHits<WMISComponent> searchHits(Query query);
+
     void index(WMISComponent entity);
 }
 
 class WMISComponentSearchRepositoryInternalImpl implements WMISComponentSearchRepositoryInternal {
 
     private final ElasticsearchRestTemplate elasticsearchTemplate;
-    private final WMISComponentRepository repository;
 
-    WMISComponentSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, WMISComponentRepository repository) {
+    WMISComponentSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
         this.elasticsearchTemplate = elasticsearchTemplate;
-        this.repository = repository;
     }
 
     @Override
@@ -50,8 +50,13 @@ class WMISComponentSearchRepositoryInternalImpl implements WMISComponentSearchRe
         return elasticsearchTemplate.search(query, WMISComponent.class).map(SearchHit::getContent).stream();
     }
 
+    @Override
+    public SearchHits<WMISComponent> searchHits(Query query) {
+        return elasticsearchTemplate.search(query, WMISComponent.class);
+    }
+
     @Override
     public void index(WMISComponent entity) {
-        repository.findById(entity.getId()).ifPresent(elasticsearchTemplate::save);
+        elasticsearchTemplate.save(entity);
     }
 }
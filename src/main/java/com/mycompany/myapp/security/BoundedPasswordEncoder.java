@@ -0,0 +1,124 @@
+package com.mycompany.myapp.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} hashing the passwords on a bounded executor.
+ * <p>
+ * Hashing a password is slow by design. Under a burst of logins, the callers wait for a thread of the executor rather
+ * than all hashing at once and starving the other requests of CPU. Once the queue of the executor is full too, the
+ * password is refused with a {@link PasswordEncoderBusyException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolTaskExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the number of passwords hashed at a time.
+     */
+    public int getThreads() {
+        return executor.getMaxPoolSize();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hash many passwords in parallel on the executor, with at most {@code parallelism} of them submitted at a time. With
+     * as many as the threads of the executor, a login waits for about one hash per thread, not for all of them, and
+     * the queue keeps room for the logins.
+     *
+     * @param rawPasswords the passwords.
+     * @param parallelism the passwords hashed at a time.
+     * @return the hashes, in the order of the passwords.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int parallelism) {
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<String>> results = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                permits.acquire();
+                results.add(
+                    submit(() -> {
+                        try {
+                            return delegate.encode(rawPassword);
+                        } finally {
+                            permits.release();
+                        }
+                    })
+                );
+            }
+            List<String> hashes = new ArrayList<>(results.size());
+            for (Future<String> result : results) {
+                hashes.add(get(result));
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordEncoderBusyException("Interrupted while hashing passwords", e);
+        } finally {
+            results.forEach(result -> result.cancel(true));
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        return get(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (TaskRejectedException e) {
+            throw new PasswordEncoderBusyException("Too many passwords are being hashed", e);
+        }
+    }
+
+    private static <T> T get(Future<T> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new PasswordEncoderBusyException("Interrupted while hashing a password", e);
+        }
+    }
+}
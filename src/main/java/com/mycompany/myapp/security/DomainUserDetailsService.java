@@ -1,7 +1,9 @@
 package com.mycompany.myapp.security;
 
+import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserCache;
 import com.mycompany.myapp.repository.UserRepository;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -11,44 +13,92 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and store the new hash of their password when it is hashed again on login.
+ * <p>
+ * The users are read from the primary database, so that a user registered or provisioned a moment ago can log in even
+ * when the read replicas lag behind.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserCache userCache;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        UserCache userCache,
+        PlatformTransactionManager transactionManager
+    ) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.readOnlyTransactionTemplate.setName(Constants.PRIMARY_READ_ONLY_TRANSACTION);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
+        return readOnlyTransactionTemplate.execute(status -> load(login));
+    }
 
+    private UserDetails load(String login) {
         if (new EmailValidator().isValid(login, null)) {
-            return userRepository
+            return userCache
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
-        return userRepository
+        return userCache
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
+    /**
+     * Whether a user has a login or email, from the same cached lookups as {@link #loadUserByUsername(String)}: an
+     * unknown login costs one query on the unique index of the logins or emails, and is not cached.
+     *
+     * @param login the login or email.
+     * @return whether a user has it, activated or not.
+     */
+    public boolean isKnown(final String login) {
+        return Boolean.TRUE.equals(readOnlyTransactionTemplate.execute(status -> exists(login)));
+    }
+
+    private boolean exists(String login) {
+        if (new EmailValidator().isValid(login, null)) {
+            return userCache.findOneWithAuthoritiesByEmailIgnoreCase(login).isPresent();
+        }
+        return userCache.findOneWithAuthoritiesByLogin(login.toLowerCase(Locale.ENGLISH)).isPresent();
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrading the password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> user.setPassword(newPassword));
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
@@ -0,0 +1,115 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.management.SecurityMetersService;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Throttles the logins, per login and per client address, before their password is hashed.
+ * <p>
+ * Every attempt takes a token from the bucket of its client address, and every failed attempt one from the bucket of
+ * its login. Successful logins never take from the bucket of their login, so that only failures lock a user out.
+ * Unknown logins are refused without hashing the password at all, from the cached lookups of the users. This makes
+ * them faster to refuse than a wrong password, which the throttle keeps from being used to enumerate the logins at
+ * any useful rate.
+ * <p>
+ * Each decision is counted by the {@link SecurityMetersService}.
+ */
+@Component
+public class LoginThrottler {
+
+    private final boolean enabled;
+
+    private final StripedTokenBuckets logins;
+
+    private final StripedTokenBuckets addresses;
+
+    private final DomainUserDetailsService userDetailsService;
+
+    private final SecurityMetersService securityMetersService;
+
+    @Autowired
+    public LoginThrottler(
+        ApplicationProperties applicationProperties,
+        DomainUserDetailsService userDetailsService,
+        SecurityMetersService securityMetersService
+    ) {
+        this(applicationProperties, userDetailsService, securityMetersService, System::nanoTime);
+    }
+
+    LoginThrottler(
+        ApplicationProperties applicationProperties,
+        DomainUserDetailsService userDetailsService,
+        SecurityMetersService securityMetersService,
+        LongSupplier ticker
+    ) {
+        ApplicationProperties.LoginThrottle properties = applicationProperties.getLoginThrottle();
+        int stripes = properties.getStripes();
+        this.enabled = properties.isEnabled();
+        this.logins = new StripedTokenBuckets(stripes, properties.getLoginBurst(), properties.getLoginFailuresPerMinute(), ticker);
+        this.addresses = new StripedTokenBuckets(stripes, properties.getAddressBurst(), properties.getAddressAttemptsPerMinute(), ticker);
+        this.userDetailsService = userDetailsService;
+        this.securityMetersService = securityMetersService;
+    }
+
+    /**
+     * Check that a login may be attempted, and take a token from the bucket of its client address.
+     *
+     * @param login the login or email.
+     * @param address the client address.
+     * @throws LoginThrottledException if the login or the address has no token left.
+     */
+    public void checkAllowed(String login, String address) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = logins.waitNanos(key(login));
+        if (waitNanos > 0) {
+            securityMetersService.trackLoginThrottledByLogin();
+            throw new LoginThrottledException("Too many failed logins for " + login, retryAfterSeconds(waitNanos));
+        }
+        waitNanos = addresses.tryAcquire(address);
+        if (waitNanos > 0) {
+            securityMetersService.trackLoginThrottledByAddress();
+            throw new LoginThrottledException("Too many logins from " + address, retryAfterSeconds(waitNanos));
+        }
+        securityMetersService.trackLoginAllowed();
+    }
+
+    /**
+     * Whether no user has a login, so that it can be refused without checking its password.
+     *
+     * @param login the login or email.
+     * @return {@code false} if a user has the login, or if the throttle is disabled.
+     */
+    public boolean isUnknown(String login) {
+        if (!enabled || userDetailsService.isKnown(login)) {
+            return false;
+        }
+        securityMetersService.trackLoginUnknown();
+        return true;
+    }
+
+    /**
+     * Take a token from the bucket of a login whose authentication failed.
+     *
+     * @param login the login or email.
+     */
+    public void recordFailure(String login) {
+        if (enabled) {
+            logins.acquire(key(login));
+        }
+    }
+
+    private static String key(String login) {
+        return login.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,13 @@
+package com.mycompany.myapp.security;
+
+/**
+ * This exception is thrown when a password cannot be hashed, because too many passwords are already being hashed.
+ */
+public class PasswordEncoderBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordEncoderBusyException(String message, Throwable t) {
+        super(message, t);
+    }
+}
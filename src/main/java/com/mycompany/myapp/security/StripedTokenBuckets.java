@@ -0,0 +1,156 @@
+package com.mycompany.myapp.security;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets of any number of keys, held in a fixed array of stripes updated without locks.
+ * <p>
+ * Each bucket is kept as its theoretical arrival time: the time at which it would be full again. Taking a token moves
+ * it one interval later, and a token is left as long as it stays within {@code burst} intervals of now. A key is spread
+ * over two stripes, picked by hashes seeded at random so that keys cannot be crafted to share the stripes of another.
+ * Its bucket is the emptier of the two stripes taken together, like a count-min sketch: a key only loses tokens to
+ * others when both its stripes are shared with busier keys. The memory used is the same however many keys are seen,
+ * which is what matters when the keys are chosen by an attacker.
+ */
+public class StripedTokenBuckets {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray stripes;
+
+    private final int mask;
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final LongSupplier ticker;
+
+    private final long origin;
+
+    private final long firstSeed;
+
+    private final long secondSeed;
+
+    /**
+     * @param stripes the number of stripes, rounded up to a power of two.
+     * @param burst the tokens of a full bucket.
+     * @param tokensPerMinute the tokens put back in each bucket per minute.
+     * @param ticker the current time, in nanoseconds.
+     */
+    public StripedTokenBuckets(int stripes, int burst, int tokensPerMinute, LongSupplier ticker) {
+        if (stripes <= 0 || burst <= 0 || tokensPerMinute <= 0) {
+            throw new IllegalArgumentException("The stripes, burst and tokens per minute must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / tokensPerMinute;
+        this.toleranceNanos = intervalNanos * burst;
+        this.ticker = ticker;
+        this.origin = ticker.getAsLong();
+        SecureRandom random = new SecureRandom();
+        this.firstSeed = random.nextLong();
+        this.secondSeed = random.nextLong();
+    }
+
+    /**
+     * Take a token from the bucket of a key, if one is left.
+     * <p>
+     * The token is taken from the emptier stripe only if it did not change in between, then from the other one. While
+     * another thread is between the two, the other stripe can still grant a token, so that under contention on the
+     * same key up to twice the burst may be granted.
+     *
+     * @param key the key.
+     * @return 0 if a token was taken, the nanoseconds until the next one otherwise.
+     */
+    public long tryAcquire(String key) {
+        int first = firstStripe(key);
+        int second = secondStripe(key, first);
+        while (true) {
+            long now = now();
+            long firstArrival = stripes.get(first);
+            long secondArrival = stripes.get(second);
+            boolean firstIsEmptier = firstArrival <= secondArrival;
+            long arrival = Math.min(firstArrival, secondArrival);
+            long waitNanos = waitNanos(arrival, now);
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (stripes.compareAndSet(firstIsEmptier ? first : second, arrival, Math.max(arrival, now) + intervalNanos)) {
+                acquire(firstIsEmptier ? second : first, now);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Take a token from the bucket of a key, even when none is left.
+     * <p>
+     * An empty bucket stays empty, but is never emptier than that: it gets a token back after one interval.
+     *
+     * @param key the key.
+     */
+    public void acquire(String key) {
+        long now = now();
+        int first = firstStripe(key);
+        acquire(first, now);
+        acquire(secondStripe(key, first), now);
+    }
+
+    /**
+     * Time until the bucket of a key has a token, without taking it.
+     *
+     * @param key the key.
+     * @return 0 if a token is left, the nanoseconds until the next one otherwise.
+     */
+    public long waitNanos(String key) {
+        int first = firstStripe(key);
+        return waitNanos(Math.min(stripes.get(first), stripes.get(secondStripe(key, first))), now());
+    }
+
+    private long waitNanos(long arrival, long now) {
+        return Math.max(0, Math.max(arrival, now) + intervalNanos - toleranceNanos - now);
+    }
+
+    private void acquire(int stripe, long now) {
+        long arrival;
+        long next;
+        do {
+            arrival = stripes.get(stripe);
+            next = Math.min(Math.max(arrival, now) + intervalNanos, now + toleranceNanos);
+        } while (next > arrival && !stripes.compareAndSet(stripe, arrival, next));
+    }
+
+    private long now() {
+        return ticker.getAsLong() - origin;
+    }
+
+    private int firstStripe(String key) {
+        return (int) hash(key, firstSeed) & mask;
+    }
+
+    private int secondStripe(String key, int first) {
+        int second = (int) hash(key, secondSeed) & mask;
+        return second == first ? first ^ 1 : second;
+    }
+
+    /**
+     * FNV-1a of the characters of the key from a random offset, then mixed by the finalizer of MurmurHash3.
+     */
+    private static long hash(String key, long seed) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
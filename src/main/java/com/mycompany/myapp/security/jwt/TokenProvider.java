@@ -1,16 +1,28 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.management.SecurityMetersService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,9 +32,21 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
 
+/**
+ * Creates and verifies the JWT of the users.
+ * <p>
+ * Tokens are signed with HS512 by the {@code jhipster.security.authentication.jwt} secret, or, when
+ * {@code application.jwt.signing-key-id} is set, with the private key of that entry of {@code application.jwt.keys}.
+ * Asymmetric tokens carry the id of their key in their {@code kid} header, and are verified with the public key of
+ * that id: a node holding only public keys verifies tokens without being able to sign any. To rotate the keys, add the
+ * new key to the ring of every node, then sign with it, and only remove the previous key once the tokens it signed
+ * have expired.
+ */
 @Component
 public class TokenProvider {
 
+    public static final String AUTHENTICATIONS_CACHE = "jwtAuthentications";
+
     private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
 
     private static final String AUTHORITIES_KEY = "auth";
@@ -31,6 +55,14 @@ public class TokenProvider {
 
     private final Key key;
 
+    private final Map<String, VerificationKey> verificationKeys = new HashMap<>();
+
+    private final String signingKeyId;
+
+    private final PrivateKey signingKey;
+
+    private final SignatureAlgorithm signingAlgorithm;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -39,27 +71,70 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final Cache authenticationsCache;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        CacheManager cacheManager
+    ) {
+        ApplicationProperties.Jwt jwt = applicationProperties.getJwt();
+        PrivateKey privateKey = null;
+        SignatureAlgorithm privateKeyAlgorithm = null;
+        for (ApplicationProperties.Jwt.Key ringKey : jwt.getKeys()) {
+            SignatureAlgorithm algorithm = SignatureAlgorithm.forName(ringKey.getAlgorithm());
+            if (!algorithm.isEllipticCurve() && !algorithm.isRsa()) {
+                throw new IllegalArgumentException("application.jwt.keys " + ringKey.getId() + " is not an RSA or elliptic curve key");
+            }
+            verificationKeys.put(ringKey.getId(), new VerificationKey(algorithm, publicKey(algorithm, ringKey.getPublicKey())));
+            if (ringKey.getId().equals(jwt.getSigningKeyId()) && !ObjectUtils.isEmpty(ringKey.getPrivateKey())) {
+                privateKey = privateKey(algorithm, ringKey.getPrivateKey());
+                privateKeyAlgorithm = algorithm;
+            }
+        }
+        signingKeyId = jwt.getSigningKeyId();
+        signingKey = privateKey;
+        signingAlgorithm = privateKeyAlgorithm;
+        if (!ObjectUtils.isEmpty(signingKeyId) && !verificationKeys.containsKey(signingKeyId)) {
+            throw new IllegalArgumentException("application.jwt.signing-key-id " + signingKeyId + " is not in application.jwt.keys");
+        }
+
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
+        String plainSecret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
         if (!ObjectUtils.isEmpty(secret)) {
             log.debug("Using a Base64-encoded JWT secret key");
             keyBytes = Decoders.BASE64.decode(secret);
+        } else if (!verificationKeys.isEmpty() && ObjectUtils.isEmpty(plainSecret)) {
+            log.debug("Using the JWT key ring only, tokens without a key id are refused");
+            keyBytes = null;
         } else {
             log.warn(
                 "Warning: the JWT key used is not Base64-encoded. " +
                 "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security."
             );
-            secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
-            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            keyBytes = plainSecret.getBytes(StandardCharsets.UTF_8);
         }
-        key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        key = keyBytes != null ? Keys.hmacShaKeyFor(keyBytes) : null;
+        jwtParser =
+            Jwts
+                .parserBuilder()
+                .setSigningKeyResolver(
+                    new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            return verificationKey(header);
+                        }
+                    }
+                )
+                .build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authenticationsCache = Objects.requireNonNull(cacheManager.getCache(AUTHENTICATIONS_CACHE));
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -73,32 +148,32 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
+        JwtBuilder builder = Jwts
             .builder()
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setExpiration(validity);
+        if (!ObjectUtils.isEmpty(signingKeyId)) {
+            if (signingKey == null) {
+                throw new IllegalStateException("This node only verifies tokens, it has no private key for " + signingKeyId);
+            }
+            return builder.setHeaderParam(JwsHeader.KEY_ID, signingKeyId).signWith(signingKey, signingAlgorithm).compact();
+        }
+        if (key == null) {
+            throw new IllegalStateException("This node only verifies tokens, application.jwt.signing-key-id is not set");
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS512).compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
+        ValidatedToken validatedToken = validate(token);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return new UsernamePasswordAuthenticationToken(validatedToken.principal, token, validatedToken.principal.getAuthorities());
     }
 
     public boolean validateToken(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            validate(authToken);
 
             return true;
         } catch (ExpiredJwtException e) {
@@ -123,4 +198,122 @@ public class TokenProvider {
 
         return false;
     }
+
+    /**
+     * Verify a token once, and keep its principal until it expires or is evicted from the cache, so that the
+     * following requests carrying the same token skip its signature verification and parsing.
+     *
+     * @param token the token.
+     * @return the validated token.
+     * @throws JwtException if the token is not valid, or has expired since it was cached.
+     */
+    private ValidatedToken validate(String token) {
+        String cacheKey = hash(token);
+        ValidatedToken validatedToken = authenticationsCache.get(cacheKey, ValidatedToken.class);
+        if (validatedToken == null) {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+            Collection<? extends GrantedAuthority> authorities = Arrays
+                .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+                .filter(auth -> !auth.trim().isEmpty())
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+            User principal = new User(claims.getSubject(), "", authorities);
+            Date expiration = claims.getExpiration();
+            validatedToken = new ValidatedToken(principal, expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+            authenticationsCache.put(cacheKey, validatedToken);
+        } else if (validatedToken.expiresAt <= System.currentTimeMillis()) {
+            authenticationsCache.evict(cacheKey);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + new Date(validatedToken.expiresAt));
+        }
+        return validatedToken;
+    }
+
+    /**
+     * Find the key a token was signed with: the key of its {@code kid} header in the ring, or the HMAC secret for the
+     * tokens without one. The algorithm of the token must be the algorithm of the key.
+     */
+    private Key verificationKey(JwsHeader<?> header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (key == null) {
+                throw new SignatureException("The JWT has no key id");
+            }
+            return key;
+        }
+        VerificationKey verificationKey = verificationKeys.get(keyId);
+        if (verificationKey == null) {
+            throw new SignatureException("Unknown JWT key id " + keyId);
+        }
+        if (!verificationKey.algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("The JWT key " + keyId + " does not sign with " + header.getAlgorithm());
+        }
+        return verificationKey.publicKey;
+    }
+
+    private static PublicKey publicKey(SignatureAlgorithm algorithm, String encoded) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(der(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid " + algorithm + " public key in application.jwt.keys", e);
+        }
+    }
+
+    private static PrivateKey privateKey(SignatureAlgorithm algorithm, String encoded) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(der(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid " + algorithm + " private key in application.jwt.keys", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws NoSuchAlgorithmException {
+        return KeyFactory.getInstance(algorithm.isRsa() ? "RSA" : "EC");
+    }
+
+    /**
+     * Decode a key given either as PEM, or as the Base64 of its DER encoding.
+     */
+    private static byte[] der(String encoded) {
+        return Base64.getMimeDecoder().decode(encoded.replaceAll("-----(BEGIN|END) [A-Z ]+-----", ""));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class VerificationKey {
+
+        private final SignatureAlgorithm algorithm;
+
+        private final PublicKey publicKey;
+
+        VerificationKey(SignatureAlgorithm algorithm, PublicKey publicKey) {
+            this.algorithm = algorithm;
+            this.publicKey = publicKey;
+        }
+    }
+
+    /**
+     * The principal of a token whose signature was verified, and the time it expires at.
+     */
+    private static class ValidatedToken implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final User principal;
+
+        private final long expiresAt;
+
+        ValidatedToken(User principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
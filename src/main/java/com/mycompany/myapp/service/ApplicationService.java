@@ -0,0 +1,159 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.ApplicationRow;
+import com.mycompany.myapp.service.dto.ApplicationDTO;
+import com.mycompany.myapp.service.mapper.ApplicationMapper;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Application}.
+ */
+@Service
+@Transactional
+public class ApplicationService {
+
+    private final Logger log = LoggerFactory.getLogger(ApplicationService.class);
+
+    private final ApplicationRepository applicationRepository;
+
+    private final SearchIndexingService searchIndexingService;
+
+    private final ApplicationMapper applicationMapper;
+
+    public ApplicationService(
+        ApplicationRepository applicationRepository,
+        SearchIndexingService searchIndexingService,
+        ApplicationMapper applicationMapper
+    ) {
+        this.applicationRepository = applicationRepository;
+        this.searchIndexingService = searchIndexingService;
+        this.applicationMapper = applicationMapper;
+    }
+
+    /**
+     * Save a application.
+     *
+     * @param applicationDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public ApplicationDTO save(ApplicationDTO applicationDTO) {
+        log.debug("Request to save Application : {}", applicationDTO);
+        Application application = applicationRepository.save(applicationMapper.toEntity(applicationDTO));
+        searchIndexingService.index(application);
+        return applicationMapper.toDto(application);
+    }
+
+    /**
+     * Update a application.
+     *
+     * @param applicationDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public ApplicationDTO update(ApplicationDTO applicationDTO) {
+        log.debug("Request to update Application : {}", applicationDTO);
+        Application application = applicationRepository.save(applicationMapper.toEntity(applicationDTO));
+        searchIndexingService.index(application);
+        return applicationMapper.toDto(application);
+    }
+
+    /**
+     * Partially update a application.
+     *
+     * @param applicationDTO the entity to update partially.
+     * @return the persisted entity.
+     */
+    public Optional<ApplicationDTO> partialUpdate(ApplicationDTO applicationDTO) {
+        log.debug("Request to partially update Application : {}", applicationDTO);
+
+        return applicationRepository
+            .findById(applicationDTO.getId())
+            .map(existingApplication -> {
+                applicationMapper.partialUpdate(existingApplication, applicationDTO);
+
+                return existingApplication;
+            })
+            .map(applicationRepository::save)
+            .map(savedApplication -> {
+                searchIndexingService.index(savedApplication);
+
+                return savedApplication;
+            })
+            .map(applicationMapper::toDto);
+    }
+
+    /**
+     * Get a slice of the applications whose id is greater than the given one.
+     *
+     * @param id the id after which the slice starts.
+     * @param pageable the size of the slice, sorted by id.
+     * @param withInstances whether to return the instances of each application.
+     * @param withComponents whether to return the components of these instances too.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ApplicationDTO> findAll(Long id, Pageable pageable, boolean withInstances, boolean withComponents) {
+        log.debug("Request to get a slice of Applications after {}", id);
+        Slice<ApplicationRow> slice = applicationRepository.findRowsByIdGreaterThan(id, pageable);
+        if (!(withInstances || withComponents) || slice.isEmpty()) {
+            return slice.map(applicationMapper::toDto);
+        }
+        List<Long> ids = slice.map(ApplicationRow::getId).getContent();
+        List<ApplicationDTO> applications = withComponents
+            ? applicationRepository
+                .findAllWithInstancesAndComponentsByIdIn(ids)
+                .stream()
+                .map(applicationMapper::toDtoWithInstancesAndComponents)
+                .collect(Collectors.toList())
+            : applicationRepository
+                .findAllWithInstancesByIdIn(ids)
+                .stream()
+                .map(applicationMapper::toDtoWithInstances)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(applications, slice.getPageable(), slice.hasNext());
+    }
+
+    /**
+     * Count the applications.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        log.debug("Request to count Applications");
+        return applicationRepository.count();
+    }
+
+    /**
+     * Get one application by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ApplicationDTO> findOne(Long id) {
+        log.debug("Request to get Application : {}", id);
+        return applicationRepository.findById(id).map(applicationMapper::toDto);
+    }
+
+    /**
+     * Delete the application by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Application : {}", id);
+        applicationRepository.deleteById(id);
+        searchIndexingService.delete(Application.class, id);
+    }
+}
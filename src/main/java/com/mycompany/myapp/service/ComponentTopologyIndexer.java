@@ -0,0 +1,182 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.TopologyRow;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.ComponentTopologySearchRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the denormalized {@link ComponentTopology} documents in sync with the Application, Instance and
+ * WMISComponent they are built from.
+ * <p>
+ * It is called by the {@link SearchIndexingService} with each batch of written entities:
+ * <ul>
+ *     <li>a component gets its own document back, built from the entity when it belongs to no instance, and from its
+ *     topology row otherwise, since the instance it references may not be loaded;</li>
+ *     <li>an instance or an application fans out to the documents of all of its components, which are read with
+ *     keyset pagination and written {@code application.search-indexing.batch-size} at a time, so that renaming a
+ *     large application does not load all of its components at once.</li>
+ * </ul>
+ * Instances and applications cannot be deleted while components reference them, so only deleted components remove
+ * documents.
+ */
+@Service
+public class ComponentTopologyIndexer {
+
+    private final Logger log = LoggerFactory.getLogger(ComponentTopologyIndexer.class);
+
+    private final WMISComponentRepository wMISComponentRepository;
+
+    private final ComponentTopologySearchRepository componentTopologySearchRepository;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.SearchIndexing properties;
+
+    public ComponentTopologyIndexer(
+        WMISComponentRepository wMISComponentRepository,
+        ComponentTopologySearchRepository componentTopologySearchRepository,
+        ElasticsearchOperations elasticsearchOperations,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.wMISComponentRepository = wMISComponentRepository;
+        this.componentTopologySearchRepository = componentTopologySearchRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.properties = applicationProperties.getSearchIndexing();
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // Reads what was just committed, which a read replica may not have yet
+        this.readOnlyTransactionTemplate.setName(Constants.PRIMARY_READ_ONLY_TRANSACTION);
+        if (properties.isAsync()) {
+            // Called by the flushes of the indexing queue, which may run after commit
+            this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    /**
+     * Build the document of a component from its topology row.
+     *
+     * @param row the topology row of the component.
+     * @return the document.
+     */
+    public static ComponentTopology toDocument(TopologyRow row) {
+        ComponentTopology topology = new ComponentTopology();
+        topology.setId(row.getComponentId());
+        topology.setComponentName(row.getComponentName());
+        topology.setDescription(row.getDescription());
+        topology.setInstanceId(row.getInstanceId());
+        topology.setCountryName(row.getCountryName());
+        topology.setApplicationId(row.getApplicationId());
+        topology.setApplicationName(row.getApplicationName());
+        return topology;
+    }
+
+    /**
+     * Update the documents depending on a batch of written and deleted entities.
+     *
+     * @param type the class of the entities.
+     * @param written the entities that were indexed.
+     * @param deleted the ids of the entities that were deleted.
+     * @param shadowIndex the index being rebuilt, which receives a copy of the documents, or {@code null}.
+     */
+    public void refresh(Class<?> type, Collection<?> written, Collection<Long> deleted, IndexCoordinates shadowIndex) {
+        if (type == WMISComponent.class) {
+            refreshComponents(written, deleted, shadowIndex);
+        } else if (type == Instance.class && !written.isEmpty()) {
+            Set<Long> ids = written.stream().map(entity -> ((Instance) entity).getId()).collect(Collectors.toSet());
+            fanOut(ids, wMISComponentRepository::findTopologyByInstanceIdIn, shadowIndex);
+        } else if (type == Application.class && !written.isEmpty()) {
+            Set<Long> ids = written.stream().map(entity -> ((Application) entity).getId()).collect(Collectors.toSet());
+            fanOut(ids, wMISComponentRepository::findTopologyByApplicationIdIn, shadowIndex);
+        }
+    }
+
+    private void refreshComponents(Collection<?> written, Collection<Long> deleted, IndexCoordinates shadowIndex) {
+        List<ComponentTopology> documents = new ArrayList<>();
+        Set<Long> attached = new HashSet<>();
+        for (Object entity : written) {
+            WMISComponent component = (WMISComponent) entity;
+            if (component.getInstance() == null) {
+                ComponentTopology topology = new ComponentTopology();
+                topology.setId(component.getId());
+                topology.setComponentName(component.getComponentName());
+                topology.setDescription(component.getDescription());
+                documents.add(topology);
+            } else {
+                attached.add(component.getId());
+            }
+        }
+        if (!attached.isEmpty()) {
+            List<TopologyRow> rows = readOnlyTransactionTemplate.execute(status ->
+                wMISComponentRepository.findTopologyByComponentIdIn(attached)
+            );
+            rows.forEach(row -> documents.add(toDocument(row)));
+        }
+        save(documents, shadowIndex);
+        if (!deleted.isEmpty()) {
+            componentTopologySearchRepository.deleteAllById(deleted);
+            if (shadowIndex != null) {
+                deleted.forEach(id -> elasticsearchOperations.delete(id.toString(), shadowIndex));
+            }
+        }
+    }
+
+    private void fanOut(Set<Long> parentIds, TopologyReader reader, IndexCoordinates shadowIndex) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, properties.getBatchSize()));
+        long cursor = Long.MIN_VALUE;
+        long count = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            long after = cursor;
+            Slice<TopologyRow> slice = readOnlyTransactionTemplate.execute(status -> reader.apply(parentIds, after, pageable));
+            List<TopologyRow> rows = slice.getContent();
+            if (!rows.isEmpty()) {
+                cursor = rows.get(rows.size() - 1).getComponentId();
+                save(rows.stream().map(ComponentTopologyIndexer::toDocument).collect(Collectors.toList()), shadowIndex);
+            }
+            count += rows.size();
+            hasNext = slice.hasNext();
+        }
+        log.debug("Refreshed {} component topology documents", count);
+    }
+
+    private void save(List<ComponentTopology> documents, IndexCoordinates shadowIndex) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        componentTopologySearchRepository.saveAll(documents);
+        if (shadowIndex != null) {
+            elasticsearchOperations.save(documents, shadowIndex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TopologyReader {
+        Slice<TopologyRow> apply(Collection<Long> parentIds, Long afterComponentId, Pageable pageable);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.InstanceRow;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import com.mycompany.myapp.service.mapper.InstanceMapper;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link Instance}.
+ */
+@Service
+@Transactional
+public class InstanceService {
+
+    private final Logger log = LoggerFactory.getLogger(InstanceService.class);
+
+    private final InstanceRepository instanceRepository;
+
+    private final SearchIndexingService searchIndexingService;
+
+    private final InstanceMapper instanceMapper;
+
+    public InstanceService(
+        InstanceRepository instanceRepository,
+        SearchIndexingService searchIndexingService,
+        InstanceMapper instanceMapper
+    ) {
+        this.instanceRepository = instanceRepository;
+        this.searchIndexingService = searchIndexingService;
+        this.instanceMapper = instanceMapper;
+    }
+
+    /**
+     * Save a instance.
+     *
+     * @param instanceDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public InstanceDTO save(InstanceDTO instanceDTO) {
+        log.debug("Request to save Instance : {}", instanceDTO);
+        Instance instance = instanceRepository.save(instanceMapper.toEntity(instanceDTO));
+        searchIndexingService.index(instance);
+        return instanceMapper.toDto(instance);
+    }
+
+    /**
+     * Update a instance.
+     *
+     * @param instanceDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public InstanceDTO update(InstanceDTO instanceDTO) {
+        log.debug("Request to update Instance : {}", instanceDTO);
+        Instance instance = instanceRepository.save(instanceMapper.toEntity(instanceDTO));
+        searchIndexingService.index(instance);
+        return instanceMapper.toDto(instance);
+    }
+
+    /**
+     * Partially update a instance.
+     *
+     * @param instanceDTO the entity to update partially.
+     * @return the persisted entity.
+     */
+    public Optional<InstanceDTO> partialUpdate(InstanceDTO instanceDTO) {
+        log.debug("Request to partially update Instance : {}", instanceDTO);
+
+        return instanceRepository
+            .findById(instanceDTO.getId())
+            .map(existingInstance -> {
+                instanceMapper.partialUpdate(existingInstance, instanceDTO);
+
+                return existingInstance;
+            })
+            .map(instanceRepository::save)
+            .map(savedInstance -> {
+                searchIndexingService.index(savedInstance);
+
+                return savedInstance;
+            })
+            .map(instanceMapper::toDto);
+    }
+
+    /**
+     * Get a slice of the instances whose id is greater than the given one.
+     *
+     * @param id the id after which the slice starts.
+     * @param pageable the size of the slice, sorted by id.
+     * @param withComponents whether to return the components of each instance.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<InstanceDTO> findAll(Long id, Pageable pageable, boolean withComponents) {
+        log.debug("Request to get a slice of Instances after {}", id);
+        Slice<InstanceRow> slice = instanceRepository.findRowsByIdGreaterThan(id, pageable);
+        if (!withComponents || slice.isEmpty()) {
+            return slice.map(instanceMapper::toDto);
+        }
+        List<InstanceDTO> instances = instanceRepository
+            .findAllWithComponentsByIdIn(slice.map(InstanceRow::getId).getContent())
+            .stream()
+            .map(instanceMapper::toDtoWithComponents)
+            .collect(Collectors.toList());
+        return new SliceImpl<>(instances, slice.getPageable(), slice.hasNext());
+    }
+
+    /**
+     * Count the instances.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        log.debug("Request to count Instances");
+        return instanceRepository.count();
+    }
+
+    /**
+     * Get one instance by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<InstanceDTO> findOne(Long id) {
+        log.debug("Request to get Instance : {}", id);
+        return instanceRepository.findById(id).map(instanceMapper::toDto);
+    }
+
+    /**
+     * Delete the instance by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Instance : {}", id);
+        instanceRepository.deleteById(id);
+        searchIndexingService.delete(Instance.class, id);
+    }
+}
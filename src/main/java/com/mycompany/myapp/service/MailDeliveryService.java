@@ -0,0 +1,487 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.MailMessage;
+import com.mycompany.myapp.repository.MailMessageRepository;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails from a persistent queue, the {@link MailMessage} table.
+ * <p>
+ * Queuing an email only inserts it, in the caller's transaction, so that callers never wait for the mail server and
+ * an email survives a restart. Once the transaction is committed, a background thread claims the due emails by
+ * batches of {@code application.mail.batch-size}, skipping those claimed by another node, and leases them for
+ * {@code application.mail.lease-seconds}, so that no transaction is held open while sending. It also checks the table
+ * every {@code application.mail.poll-interval-ms}, for the retries and the emails of the nodes that stopped.
+ * <p>
+ * The emails are sent over one SMTP connection, kept open for as long as emails are due, at most
+ * {@code application.mail.messages-per-second}. An email that fails is tried again after a backoff doubling from
+ * {@code application.mail.initial-backoff-seconds} up to {@code application.mail.max-backoff-seconds}, and is given up
+ * on after {@code application.mail.max-attempts}, left in the table with its last error. As an email is only deleted
+ * once sent, one sent just before its node stopped may be sent again.
+ * <p>
+ * When {@code application.mail.async} is {@code false}, the due emails are sent inline instead, on the committing thread.
+ */
+@Service
+public class MailDeliveryService {
+
+    public static final String QUEUE_SIZE_METER_NAME = "mail.queue.size";
+    public static final String LATENCY_METER_NAME = "mail.send.latency";
+    public static final String BATCH_DURATION_METER_NAME = "mail.send.batch.duration";
+    public static final String MESSAGES_METER_NAME = "mail.messages";
+    public static final String MESSAGES_METER_RESULT_DIMENSION = "result";
+
+    private final Logger log = LoggerFactory.getLogger(MailDeliveryService.class);
+
+    private final MailMessageRepository mailMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Transactions of the delivery, which may run once the caller's transaction is committed but still bound.
+     */
+    private final TransactionTemplate deliveryTransactionTemplate;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final AtomicBoolean deliveryRequested = new AtomicBoolean();
+
+    private final AtomicLong queueSize = new AtomicLong();
+
+    private final ScheduledExecutorService sender;
+
+    private final Clock clock;
+
+    private final Timer latencyTimer;
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    /**
+     * Connection to the mail server, kept open between batches. Only used while holding the lock of this service.
+     */
+    private Transport transport;
+
+    /**
+     * Emails that may still be sent within {@code application.mail.messages-per-second}, refilled as time passes.
+     */
+    private double permits;
+
+    private long permitsRefilledAt;
+
+    public MailDeliveryService(
+        MailMessageRepository mailMessageRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry registry,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveryTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = applicationProperties.getMail();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mail-sender-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.clock = registry.config().clock();
+        this.permits = properties.getMessagesPerSecond();
+        this.permitsRefilledAt = clock.monotonicTime();
+        Gauge
+            .builder(QUEUE_SIZE_METER_NAME, queueSize, AtomicLong::get)
+            .description("Number of emails waiting to be sent, as of the last delivery")
+            .baseUnit("messages")
+            .register(registry);
+        this.latencyTimer = Timer
+            .builder(LATENCY_METER_NAME)
+            .description("Time between the queuing of an email and its sending")
+            .register(registry);
+        this.batchTimer = Timer
+            .builder(BATCH_DURATION_METER_NAME)
+            .description("Time taken to send a batch of emails")
+            .register(registry);
+        this.sentCounter = messagesCounter(registry, "sent");
+        this.retriedCounter = messagesCounter(registry, "retried");
+        this.failedCounter = messagesCounter(registry, "failed");
+    }
+
+    private static Counter messagesCounter(MeterRegistry registry, String result) {
+        return Counter
+            .builder(MESSAGES_METER_NAME)
+            .description("Attempts to send an email, by result")
+            .baseUnit("messages")
+            .tag(MESSAGES_METER_RESULT_DIMENSION, result)
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isAsync()) {
+            long interval = Math.max(1, properties.getPollIntervalMs());
+            sender.scheduleWithFixedDelay(this::deliverQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        sender.shutdown();
+        if (!sender.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Mail sender did not stop in time");
+        }
+        synchronized (this) {
+            closeTransport();
+        }
+    }
+
+    /**
+     * Queue an email, sent once the current transaction, if any, is committed.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the content.
+     * @param isMultipart whether the email is a multipart one.
+     * @param isHtml whether the content is HTML.
+     */
+    public void enqueue(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        Instant now = Instant.ofEpochMilli(clock.wallTime());
+        MailMessage message = new MailMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setContent(content);
+        message.setMultipart(isMultipart);
+        message.setHtml(isHtml);
+        message.setCreatedDate(now);
+        message.setNextAttemptDate(now);
+        transactionTemplate.executeWithoutResult(status -> mailMessageRepository.save(message));
+        eventPublisher.publishEvent(new MailQueued(message.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMailQueued(MailQueued event) {
+        if (properties.isAsync()) {
+            requestDelivery();
+        } else {
+            deliver();
+        }
+    }
+
+    /**
+     * Send the due emails now, on the calling thread, by batches, until none is left or the rate limit is reached.
+     *
+     * @return the number of emails sent.
+     */
+    public synchronized int deliver() {
+        deliveryRequested.set(false);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int sent = 0;
+        boolean drained = false;
+        try {
+            while (true) {
+                int permitted = acquirePermits(batchSize);
+                if (permitted == 0) {
+                    requestDeliveryWhenPermitted();
+                    break;
+                }
+                List<MailMessage> batch = claim(permitted);
+                releasePermits(permitted - batch.size());
+                if (!batch.isEmpty()) {
+                    sent += send(batch);
+                }
+                if (batch.size() < permitted) {
+                    drained = true;
+                    break;
+                }
+            }
+        } finally {
+            if (drained) {
+                closeTransport();
+            }
+            queueSize.set(deliveryTransactionTemplate.execute(status -> mailMessageRepository.countByNextAttemptDateNotNull()));
+        }
+        return sent;
+    }
+
+    private void requestDelivery() {
+        if (deliveryRequested.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::deliverQuietly);
+            } catch (RejectedExecutionException e) {
+                log.debug("Mail sender is stopped, the email will be sent on the next start");
+            }
+        }
+    }
+
+    private void requestDeliveryWhenPermitted() {
+        if (properties.isAsync() && deliveryRequested.compareAndSet(false, true)) {
+            long waitNanos = (long) ((1 - permits) * TimeUnit.SECONDS.toNanos(1) / properties.getMessagesPerSecond());
+            try {
+                sender.schedule(this::deliverQuietly, Math.max(1, waitNanos), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Mail sender is stopped, the emails will be sent on the next start");
+            }
+        }
+    }
+
+    private void deliverQuietly() {
+        try {
+            deliver();
+        } catch (RuntimeException e) {
+            log.error("Mail delivery failed", e);
+        }
+    }
+
+    private int acquirePermits(int wanted) {
+        int rate = properties.getMessagesPerSecond();
+        if (rate <= 0) {
+            return wanted;
+        }
+        long now = clock.monotonicTime();
+        permits = Math.min(rate, permits + (double) (now - permitsRefilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+        permitsRefilledAt = now;
+        int granted = (int) Math.min(wanted, Math.floor(permits));
+        permits -= granted;
+        return granted;
+    }
+
+    private void releasePermits(int unused) {
+        if (properties.getMessagesPerSecond() > 0) {
+            permits += unused;
+        }
+    }
+
+    private List<MailMessage> claim(int batchSize) {
+        return deliveryTransactionTemplate.execute(status -> {
+            Instant now = Instant.ofEpochMilli(clock.wallTime());
+            List<MailMessage> due = mailMessageRepository.findAllByNextAttemptDateLessThanEqualOrderByNextAttemptDateAsc(
+                now,
+                PageRequest.of(0, batchSize)
+            );
+            Instant leaseEnd = now.plusSeconds(properties.getLeaseSeconds());
+            due.forEach(message -> message.setNextAttemptDate(leaseEnd));
+            return due;
+        });
+    }
+
+    private int send(List<MailMessage> batch) {
+        long start = clock.monotonicTime();
+        List<MailMessage> sent = new ArrayList<>();
+        Map<Long, Exception> failures = new HashMap<>();
+        for (MailMessage message : batch) {
+            try {
+                transmit(toMimeMessage(message));
+                sent.add(message);
+                log.debug("Sent email {} to '{}'", message.getId(), message.getRecipient());
+            } catch (MailException | MessagingException e) {
+                failures.put(message.getId(), e);
+            }
+        }
+        batchTimer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        complete(batch, sent, failures);
+        return sent.size();
+    }
+
+    private MimeMessage toMimeMessage(MailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    /**
+     * Send an email over the connection kept open, or through the {@link JavaMailSender} when it is not a
+     * {@link JavaMailSenderImpl}, which would otherwise open a connection per email.
+     */
+    private void transmit(MimeMessage mimeMessage) throws MessagingException {
+        if (!(javaMailSender instanceof JavaMailSenderImpl)) {
+            javaMailSender.send(mimeMessage);
+            return;
+        }
+        Transport connection = connect((JavaMailSenderImpl) javaMailSender);
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve the explicitly specified message id, as saveChanges resets it
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        Address[] recipients = mimeMessage.getAllRecipients();
+        try {
+            connection.sendMessage(mimeMessage, recipients != null ? recipients : new Address[0]);
+        } catch (MessagingException e) {
+            if (!connection.isConnected()) {
+                closeTransport();
+            }
+            throw e;
+        }
+    }
+
+    private Transport connect(JavaMailSenderImpl mailSender) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        closeTransport();
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport connection = mailSender.getSession().getTransport(protocol);
+        connection.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        transport = connection;
+        return connection;
+    }
+
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Could not close the connection to the mail server", e);
+            }
+            transport = null;
+        }
+    }
+
+    private void complete(List<MailMessage> batch, List<MailMessage> sent, Map<Long, Exception> failures) {
+        Instant now = Instant.ofEpochMilli(clock.wallTime());
+        Map<Long, MailMessage> failed = new HashMap<>();
+        for (MailMessage message : batch) {
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                continue;
+            }
+            int attempts = message.getAttempts() + 1;
+            // The nested exceptions hold the reply of the mail server
+            String error = truncate(failure.toString(), MailMessage.LAST_ERROR_MAX_LENGTH);
+            message.setAttempts(attempts);
+            message.setLastError(error);
+            if (attempts >= properties.getMaxAttempts()) {
+                message.setNextAttemptDate(null);
+                failedCounter.increment();
+                log.error(
+                    "Giving up on email {} to '{}' after {} attempts: {}",
+                    message.getId(),
+                    message.getRecipient(),
+                    attempts,
+                    error
+                );
+            } else {
+                message.setNextAttemptDate(now.plusSeconds(backoffSeconds(attempts)));
+                retriedCounter.increment();
+                log.warn(
+                    "Email {} to '{}' could not be sent, trying again at {}: {}",
+                    message.getId(),
+                    message.getRecipient(),
+                    message.getNextAttemptDate(),
+                    error
+                );
+            }
+            failed.put(message.getId(), message);
+        }
+        deliveryTransactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                mailMessageRepository.deleteAllByIdInBatch(sent.stream().map(MailMessage::getId).collect(Collectors.toList()));
+            }
+            if (!failed.isEmpty()) {
+                for (MailMessage message : mailMessageRepository.findAllById(failed.keySet())) {
+                    MailMessage update = failed.get(message.getId());
+                    message.setAttempts(update.getAttempts());
+                    message.setLastError(update.getLastError());
+                    message.setNextAttemptDate(update.getNextAttemptDate());
+                }
+            }
+        });
+        for (MailMessage message : sent) {
+            latencyTimer.record(Duration.between(message.getCreatedDate(), now));
+            sentCounter.increment();
+        }
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Math.min(backoff, properties.getMaxBackoffSeconds());
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    /**
+     * Event published for each queued email, to send it once the transaction is committed.
+     */
+    public static final class MailQueued {
+
+        private final Long id;
+
+        private MailQueued(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+}
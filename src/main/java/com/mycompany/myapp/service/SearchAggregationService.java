@@ -0,0 +1,239 @@
+package com.mycompany.myapp.service;
+
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.CountRow;
+import com.mycompany.myapp.repository.DateCountRow;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.service.dto.AggregationDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.BucketOrder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.Cardinality;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service counting documents per value for the dashboards, returning only the buckets.
+ * <p>
+ * The counts are Elasticsearch aggregations: terms on the {@link ComponentTopology} documents, with a cardinality
+ * sub-aggregation for distinct instances, and a date histogram on the creation date of the users. When Elasticsearch
+ * is unavailable, the same buckets are computed by {@code GROUP BY} queries instead, whose results are cached for
+ * {@code application.aggregations.fallback-cache-ttl-seconds}.
+ */
+@Service
+public class SearchAggregationService {
+
+    private static final String AGGREGATION_NAME = "buckets";
+
+    private static final String INSTANCES_AGGREGATION_NAME = "instances";
+
+    /**
+     * Calendar intervals of the date histograms, with the format of their bucket keys.
+     */
+    public enum Interval {
+        YEAR(DateHistogramInterval.YEAR, "yyyy"),
+        MONTH(DateHistogramInterval.MONTH, "yyyy-MM"),
+        DAY(DateHistogramInterval.DAY, "yyyy-MM-dd");
+
+        private final DateHistogramInterval calendarInterval;
+
+        private final String format;
+
+        Interval(DateHistogramInterval calendarInterval, String format) {
+            this.calendarInterval = calendarInterval;
+            this.format = format;
+        }
+
+        private String key(DateCountRow row) {
+            switch (this) {
+                case YEAR:
+                    return String.format("%04d", row.getYear());
+                case MONTH:
+                    return String.format("%04d-%02d", row.getYear(), row.getMonth());
+                default:
+                    return String.format("%04d-%02d-%02d", row.getYear(), row.getMonth(), row.getDay());
+            }
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(SearchAggregationService.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final WMISComponentRepository wMISComponentRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.Aggregations properties;
+
+    public SearchAggregationService(
+        ElasticsearchOperations elasticsearchOperations,
+        WMISComponentRepository wMISComponentRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.wMISComponentRepository = wMISComponentRepository;
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getAggregations();
+    }
+
+    /**
+     * Count the components of each country, largest groups first.
+     *
+     * @param size the maximum number of buckets, capped at {@code application.aggregations.max-buckets}.
+     * @return the buckets, keyed by country name.
+     */
+    public AggregationDTO countComponentsPerCountryName(int size) {
+        int buckets = bucketCount(size);
+        return aggregate(
+            () -> terms(AggregationBuilders.terms(AGGREGATION_NAME).field("countryName.keyword").size(buckets), Terms.Bucket::getDocCount),
+            () -> toBuckets(wMISComponentRepository.countPerCountryName(PageRequest.of(0, buckets)))
+        );
+    }
+
+    /**
+     * Count the components of each application, largest groups first.
+     *
+     * @param size the maximum number of buckets, capped at {@code application.aggregations.max-buckets}.
+     * @return the buckets, keyed by application name.
+     */
+    public AggregationDTO countComponentsPerApplicationName(int size) {
+        int buckets = bucketCount(size);
+        return aggregate(
+            () -> terms(AggregationBuilders.terms(AGGREGATION_NAME).field("applicationName.keyword").size(buckets), Terms.Bucket::getDocCount),
+            () -> toBuckets(wMISComponentRepository.countPerApplicationName(PageRequest.of(0, buckets)))
+        );
+    }
+
+    /**
+     * Count the distinct instances running components of each application, largest groups first.
+     *
+     * @param size the maximum number of buckets, capped at {@code application.aggregations.max-buckets}.
+     * @return the buckets, keyed by application name.
+     */
+    public AggregationDTO countInstancesPerApplicationName(int size) {
+        int buckets = bucketCount(size);
+        return aggregate(
+            () ->
+                terms(
+                    AggregationBuilders
+                        .terms(AGGREGATION_NAME)
+                        .field("applicationName.keyword")
+                        .size(buckets)
+                        .order(List.of(BucketOrder.aggregation(INSTANCES_AGGREGATION_NAME, false), BucketOrder.key(true)))
+                        .subAggregation(AggregationBuilders.cardinality(INSTANCES_AGGREGATION_NAME).field("instanceId")),
+                    bucket -> ((Cardinality) bucket.getAggregations().get(INSTANCES_AGGREGATION_NAME)).getValue()
+                ),
+            () -> toBuckets(wMISComponentRepository.countInstancesPerApplicationName(PageRequest.of(0, buckets)))
+        );
+    }
+
+    /**
+     * Count the users created in each calendar interval, oldest first. Intervals without any user are left out.
+     *
+     * @param interval the calendar interval of the buckets.
+     * @return the buckets, keyed by the start of the interval.
+     */
+    public AggregationDTO countUsersCreated(Interval interval) {
+        return aggregate(
+            () -> {
+                Histogram histogram = aggregations(
+                    User.class,
+                    AggregationBuilders
+                        .dateHistogram(AGGREGATION_NAME)
+                        .field("createdDate")
+                        .calendarInterval(interval.calendarInterval)
+                        .format(interval.format)
+                        .minDocCount(1)
+                )
+                    .get(AGGREGATION_NAME);
+                if (histogram == null) {
+                    return List.of();
+                }
+                return histogram
+                    .getBuckets()
+                    .stream()
+                    .map(bucket -> new AggregationDTO.Bucket(bucket.getKeyAsString(), bucket.getDocCount()))
+                    .collect(Collectors.toList());
+            },
+            () -> {
+                Map<String, Long> counts = new TreeMap<>();
+                userRepository.countCreatedPerDay().forEach(row -> counts.merge(interval.key(row), row.getTotal(), Long::sum));
+                List<AggregationDTO.Bucket> buckets = new ArrayList<>();
+                counts.forEach((key, count) -> buckets.add(new AggregationDTO.Bucket(key, count)));
+                return buckets;
+            }
+        );
+    }
+
+    private int bucketCount(int size) {
+        return Math.min(Math.max(size, 1), properties.getMaxBuckets());
+    }
+
+    private AggregationDTO aggregate(Supplier<List<AggregationDTO.Bucket>> search, Supplier<List<AggregationDTO.Bucket>> database) {
+        List<AggregationDTO.Bucket> buckets;
+        try {
+            buckets = search.get();
+        } catch (DataAccessException e) {
+            log.warn("Elasticsearch aggregation failed, counting in the database instead: {}", e.getMessage());
+            return new AggregationDTO(AggregationDTO.Source.DATABASE, database.get());
+        }
+        return new AggregationDTO(AggregationDTO.Source.ELASTICSEARCH, buckets);
+    }
+
+    private List<AggregationDTO.Bucket> terms(AbstractAggregationBuilder<?> aggregation, Function<Terms.Bucket, Long> counter) {
+        Terms terms = aggregations(ComponentTopology.class, aggregation).get(AGGREGATION_NAME);
+        if (terms == null) {
+            return List.of();
+        }
+        return terms
+            .getBuckets()
+            .stream()
+            .map(bucket -> new AggregationDTO.Bucket(bucket.getKeyAsString(), counter.apply(bucket)))
+            .collect(Collectors.toList());
+    }
+
+    private Aggregations aggregations(Class<?> documentClass, AbstractAggregationBuilder<?> aggregation) {
+        NativeSearchQuery query = new NativeSearchQueryBuilder()
+            .withQuery(matchAllQuery())
+            .withAggregations(aggregation)
+            .withMaxResults(0)
+            .withTrackTotalHits(false)
+            .build();
+        SearchHits<?> searchHits = elasticsearchOperations.search(query, documentClass);
+        AggregationsContainer<?> container = searchHits.getAggregations();
+        if (container == null) {
+            return new Aggregations(List.of());
+        }
+        return (Aggregations) container.aggregations();
+    }
+
+    private static List<AggregationDTO.Bucket> toBuckets(List<CountRow> rows) {
+        return rows.stream().map(row -> new AggregationDTO.Bucket(row.getBucket(), row.getTotal())).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,721 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.ApplicationSearchRepository;
+import com.mycompany.myapp.repository.search.InstanceSearchRepository;
+import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the Elasticsearch indices in sync with the database.
+ * <p>
+ * Writers hand over the entities they saved and the ids they deleted. They are queued once the transaction is
+ * committed, so that neither the transaction nor the HTTP request waits for Elasticsearch, and repeated writes to the
+ * same entity before a flush are coalesced into one document. The queue is flushed by a background thread every
+ * {@code application.search-indexing.flush-interval-ms}, or as soon as it holds
+ * {@code application.search-indexing.batch-size} documents, with one Elasticsearch bulk request per batch. Documents
+ * that fail are retried after a backoff doubling from {@code application.search-indexing.initial-backoff-ms} up to
+ * {@code application.search-indexing.max-backoff-ms}.
+ * <p>
+ * Documents are built from the entities as they were committed, without reading them again. Only callers that do not
+ * hold the entity use {@link #reindex(Class, Collection)}, which reads the entities once per batch. A change to a
+ * document already waiting or being written is read again too: the events of concurrent transactions may arrive out of
+ * commit order, and the entity they hold may be older than the one queued. A document is never written by two threads
+ * at once. The denormalized
+ * {@link ComponentTopology} documents depending on each batch are then updated by the {@link ComponentTopologyIndexer}.
+ * <p>
+ * When {@code application.search-indexing.async} is {@code false}, the documents are written inline instead, in the
+ * caller's transaction.
+ */
+@Service
+public class SearchIndexingService {
+
+    public static final String QUEUE_SIZE_METER_NAME = "search.indexing.queue.size";
+    public static final String QUEUE_OLDEST_METER_NAME = "search.indexing.queue.oldest";
+    public static final String LAG_METER_NAME = "search.indexing.lag";
+    public static final String DOCUMENTS_METER_NAME = "search.indexing.documents";
+    public static final String DOCUMENTS_METER_RESULT_DIMENSION = "result";
+    public static final String COALESCED_METER_NAME = "search.indexing.coalesced";
+    public static final String OVERFLOWS_METER_NAME = "search.indexing.overflows";
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexingService.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final ComponentTopologyIndexer componentTopologyIndexer;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.SearchIndexing properties;
+
+    private final Map<Class<?>, Target<?>> targets = new HashMap<>();
+
+    /**
+     * Indices being rebuilt, which receive a copy of every write until they replace the live one.
+     */
+    private final Map<Class<?>, Shadow> shadows = new ConcurrentHashMap<>();
+
+    /**
+     * Documents waiting to be written, in queuing order.
+     */
+    private final LinkedHashMap<IndexKey, Change> pending = new LinkedHashMap<>();
+
+    /**
+     * Documents being written, which stay out of the batches until then. Guarded by {@link #pending}.
+     */
+    private final Set<IndexKey> writing = new HashSet<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledExecutorService flusher;
+
+    private final Clock clock;
+
+    private final Timer lagTimer;
+    private final Counter indexedCounter;
+    private final Counter deletedCounter;
+    private final Counter failedCounter;
+    private final Counter coalescedCounter;
+    private final Counter overflowsCounter;
+
+    public SearchIndexingService(
+        ApplicationEventPublisher eventPublisher,
+        ElasticsearchOperations elasticsearchOperations,
+        ComponentTopologyIndexer componentTopologyIndexer,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry registry,
+        ApplicationProperties applicationProperties,
+        ApplicationRepository applicationRepository,
+        ApplicationSearchRepository applicationSearchRepository,
+        InstanceRepository instanceRepository,
+        InstanceSearchRepository instanceSearchRepository,
+        WMISComponentRepository wMISComponentRepository,
+        WMISComponentSearchRepository wMISComponentSearchRepository
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.componentTopologyIndexer = componentTopologyIndexer;
+        this.properties = applicationProperties.getSearchIndexing();
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // Reads what was just committed, which a read replica may not have yet
+        this.readOnlyTransactionTemplate.setName(Constants.PRIMARY_READ_ONLY_TRANSACTION);
+        if (properties.isAsync()) {
+            // Queued documents may be written after commit, while the committed transaction is still bound
+            this.readOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        register(Application.class, applicationRepository, applicationSearchRepository, Application::getId);
+        register(Instance.class, instanceRepository, instanceSearchRepository, Instance::getId);
+        register(WMISComponent.class, wMISComponentRepository, wMISComponentSearchRepository, WMISComponent::getId);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-indexing-");
+        threadFactory.setDaemon(true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+
+        this.clock = registry.config().clock();
+        Gauge
+            .builder(QUEUE_SIZE_METER_NAME, this, SearchIndexingService::getQueueSize)
+            .description("Number of distinct documents waiting to be indexed")
+            .baseUnit("documents")
+            .register(registry);
+        TimeGauge
+            .builder(QUEUE_OLDEST_METER_NAME, this, TimeUnit.NANOSECONDS, SearchIndexingService::getOldestPendingAge)
+            .description("Time the oldest document waiting to be indexed has been queued for")
+            .register(registry);
+        this.lagTimer = Timer
+            .builder(LAG_METER_NAME)
+            .description("Time between the commit of a change and its indexing")
+            .register(registry);
+        this.indexedCounter = documentsCounter(registry, "indexed");
+        this.deletedCounter = documentsCounter(registry, "deleted");
+        this.failedCounter = documentsCounter(registry, "failed");
+        this.coalescedCounter = Counter
+            .builder(COALESCED_METER_NAME)
+            .description("Changes merged into a document that was already waiting to be indexed")
+            .baseUnit("documents")
+            .register(registry);
+        this.overflowsCounter = Counter
+            .builder(OVERFLOWS_METER_NAME)
+            .description("Times the queue was full and flushed by the committing thread")
+            .register(registry);
+    }
+
+    private <T> void register(
+        Class<T> type,
+        JpaRepository<T, Long> repository,
+        ElasticsearchRepository<T, Long> searchRepository,
+        Function<T, Long> idExtractor
+    ) {
+        targets.put(type, new Target<>(type, repository, searchRepository, idExtractor));
+    }
+
+    private static Counter documentsCounter(MeterRegistry registry, String result) {
+        return Counter
+            .builder(DOCUMENTS_METER_NAME)
+            .description("Documents written to Elasticsearch by the indexing queue")
+            .baseUnit("documents")
+            .tag(DOCUMENTS_METER_RESULT_DIMENSION, result)
+            .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.isAsync()) {
+            long interval = Math.max(1, properties.getFlushIntervalMs());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Search indexing flusher did not stop in time");
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Index an entity once the current transaction is committed, as it is then.
+     *
+     * @param entity the entity.
+     */
+    public void index(Object entity) {
+        index(List.of(entity));
+    }
+
+    /**
+     * Index entities once the current transaction is committed, as they are then.
+     *
+     * @param entities the entities, all of the same class.
+     */
+    public void index(Collection<?> entities) {
+        for (Object entity : entities) {
+            Target<?> target = getTarget(entity.getClass());
+            submit(target.type, target.getId(entity), Action.INDEX, entity);
+        }
+    }
+
+    /**
+     * Delete the document of an entity once the current transaction is committed.
+     *
+     * @param type the entity class.
+     * @param id the id of the entity.
+     */
+    public void delete(Class<?> type, Long id) {
+        delete(type, List.of(id));
+    }
+
+    /**
+     * Delete the documents of entities once the current transaction is committed.
+     *
+     * @param type the entity class.
+     * @param ids the ids of the entities.
+     */
+    public void delete(Class<?> type, Collection<Long> ids) {
+        getTarget(type);
+        ids.forEach(id -> submit(type, id, Action.DELETE, null));
+    }
+
+    /**
+     * Read entities from the database once the current transaction is committed, then index them, or delete the
+     * documents of the ones that no longer exist.
+     *
+     * @param type the entity class.
+     * @param id the id of the entity.
+     */
+    public void reindex(Class<?> type, Long id) {
+        reindex(type, List.of(id));
+    }
+
+    /**
+     * Read entities from the database once the current transaction is committed, then index them, or delete the
+     * documents of the ones that no longer exist.
+     *
+     * @param type the entity class.
+     * @param ids the ids of the entities.
+     */
+    public void reindex(Class<?> type, Collection<Long> ids) {
+        getTarget(type);
+        ids.forEach(id -> submit(type, id, Action.REINDEX, null));
+    }
+
+    private Target<?> getTarget(Class<?> type) {
+        // Walk up from Hibernate proxy classes to the entity class
+        for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+            Target<?> target = targets.get(candidate);
+            if (target != null) {
+                return target;
+            }
+        }
+        throw new IllegalArgumentException("No search index for " + type.getSimpleName());
+    }
+
+    private void submit(Class<?> type, Long id, Action action, Object entity) {
+        if (properties.isAsync()) {
+            eventPublisher.publishEvent(new IndexRequest(type, id, action, entity));
+        } else {
+            Map<IndexKey, Change> batch = new LinkedHashMap<>();
+            batch.put(new IndexKey(type, id), new Change(action, entity, clock.monotonicTime()));
+            write(type, batch);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexRequest(IndexRequest request) {
+        IndexKey key = new IndexKey(request.getType(), request.getId());
+        Map<IndexKey, Change> overflow = null;
+        boolean batchReady;
+        synchronized (pending) {
+            Change previous = pending.get(key);
+            if (previous != null) {
+                // Read again when written, but the document has been waiting, and maybe backing off, since the first change
+                pending.put(key, new Change(Action.REINDEX, null, previous.enqueuedAt, previous.failures, previous.retryAt));
+                coalescedCounter.increment();
+                return;
+            }
+            if (writing.contains(key)) {
+                pending.put(key, new Change(Action.REINDEX, null, clock.monotonicTime()));
+            } else {
+                pending.put(key, new Change(request.getAction(), request.getEntity(), clock.monotonicTime()));
+            }
+            if (pending.size() >= properties.getQueueCapacity()) {
+                // Including the documents waiting to be retried, so that the queue stays bounded
+                overflow = drain(Integer.MAX_VALUE, true);
+            }
+            batchReady = pending.size() >= properties.getBatchSize();
+        }
+        if (overflow != null) {
+            log.warn("Search indexing queue is full, flushing {} documents inline", overflow.size());
+            overflowsCounter.increment();
+            writeQuietly(overflow);
+        } else if (batchReady) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Write every queued document to Elasticsearch now, on the calling thread.
+     * <p>
+     * Documents that fail are queued again, and left out of the flushes until their backoff has elapsed.
+     */
+    public void flush() {
+        flushRequested.set(false);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int remaining = getQueueSize(); remaining > 0; remaining -= batchSize) {
+            Map<IndexKey, Change> batch = drainBatch(Math.min(batchSize, remaining));
+            if (batch.isEmpty()) {
+                return;
+            }
+            writeQuietly(batch);
+        }
+    }
+
+    /**
+     * Copy every document written or deleted from now on to another index, until {@link #stopShadowing(Class)} is
+     * called.
+     *
+     * @param type the entity or search document class.
+     * @param index the index receiving the copies.
+     */
+    public void startShadowing(Class<?> type, IndexCoordinates index) {
+        shadows.put(type, new Shadow(index));
+    }
+
+    /**
+     * Stop copying the documents of a class to another index.
+     *
+     * @param type the entity or search document class.
+     * @return the ids of the documents deleted while shadowing, which a rebuild may have copied again from a row it
+     * read before their deletion.
+     */
+    public Set<Long> stopShadowing(Class<?> type) {
+        Shadow shadow = shadows.remove(type);
+        return shadow != null ? Set.copyOf(shadow.deleted) : Set.of();
+    }
+
+    /**
+     * Delete documents that their writer indexes itself, such as users, once the transaction is committed. They are
+     * deleted from the index being rebuilt too, which could otherwise be given them again by a rebuild reading the rows
+     * before the commit.
+     *
+     * @param type the search document class.
+     * @param ids the ids of the deleted entities.
+     */
+    public void deleteSelfIndexed(Class<?> type, Collection<Long> ids) {
+        eventPublisher.publishEvent(new DeleteRequest(type, ids));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeleteRequest(DeleteRequest request) {
+        IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(request.getType());
+        Shadow shadow = shadows.get(request.getType());
+        if (shadow != null) {
+            shadow.deleted.addAll(request.getIds());
+        }
+        for (Long id : request.getIds()) {
+            elasticsearchOperations.delete(id.toString(), index);
+            if (shadow != null) {
+                elasticsearchOperations.delete(id.toString(), shadow.index);
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private double getOldestPendingAge() {
+        Change oldest;
+        synchronized (pending) {
+            Iterator<Change> changes = pending.values().iterator();
+            oldest = changes.hasNext() ? changes.next() : null;
+        }
+        return oldest == null ? 0 : clock.monotonicTime() - oldest.enqueuedAt;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Search indexing flush failed", e);
+        }
+    }
+
+    private Map<IndexKey, Change> drainBatch(int batchSize) {
+        synchronized (pending) {
+            return drain(batchSize, false);
+        }
+    }
+
+    private Map<IndexKey, Change> drain(int max, boolean includeBackingOff) {
+        long now = clock.monotonicTime();
+        Map<IndexKey, Change> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<IndexKey, Change>> entries = pending.entrySet().iterator();
+        while (batch.size() < max && entries.hasNext()) {
+            Map.Entry<IndexKey, Change> entry = entries.next();
+            if (!writing.contains(entry.getKey()) && (includeBackingOff || entry.getValue().isDue(now))) {
+                batch.put(entry.getKey(), entry.getValue());
+                entries.remove();
+            }
+        }
+        writing.addAll(batch.keySet());
+        return batch;
+    }
+
+    private void writeQuietly(Map<IndexKey, Change> batch) {
+        Map<Class<?>, Map<IndexKey, Change>> byType = new LinkedHashMap<>();
+        batch.forEach((key, change) -> byType.computeIfAbsent(key.type, type -> new LinkedHashMap<>()).put(key, change));
+        byType.forEach((type, changes) -> {
+            try {
+                write(type, changes);
+            } catch (RuntimeException e) {
+                log.warn("Could not index {} {} documents, they will be retried: {}", changes.size(), type.getSimpleName(), e.getMessage());
+                failedCounter.increment(changes.size());
+                requeue(changes);
+            } finally {
+                synchronized (pending) {
+                    writing.removeAll(changes.keySet());
+                }
+            }
+        });
+    }
+
+    private void write(Class<?> type, Map<IndexKey, Change> changes) {
+        write(targets.get(type), changes);
+    }
+
+    private <T> void write(Target<T> target, Map<IndexKey, Change> changes) {
+        List<T> entities = new ArrayList<>();
+        Set<Long> deleted = new HashSet<>();
+        Set<Long> reindexed = new HashSet<>();
+        changes.forEach((key, change) -> {
+            if (change.action == Action.INDEX) {
+                entities.add(target.type.cast(change.entity));
+            } else if (change.action == Action.DELETE) {
+                deleted.add(key.id);
+            } else {
+                reindexed.add(key.id);
+            }
+        });
+        if (!reindexed.isEmpty()) {
+            List<T> found = readOnlyTransactionTemplate.execute(status -> target.repository.findAllById(reindexed));
+            Set<Long> missing = new HashSet<>(reindexed);
+            found.forEach(entity -> missing.remove(target.idExtractor.apply(entity)));
+            entities.addAll(found);
+            deleted.addAll(missing);
+        }
+        if (!entities.isEmpty()) {
+            target.searchRepository.saveAll(entities);
+        }
+        if (!deleted.isEmpty()) {
+            target.searchRepository.deleteAllById(deleted);
+        }
+        Shadow shadow = shadows.get(target.type);
+        if (shadow != null) {
+            if (!entities.isEmpty()) {
+                elasticsearchOperations.save(entities, shadow.index);
+            }
+            shadow.deleted.addAll(deleted);
+            deleted.forEach(id -> elasticsearchOperations.delete(id.toString(), shadow.index));
+        }
+        Shadow topologyShadow = shadows.get(ComponentTopology.class);
+        componentTopologyIndexer.refresh(target.type, entities, deleted, topologyShadow != null ? topologyShadow.index : null);
+        indexedCounter.increment(entities.size());
+        deletedCounter.increment(deleted.size());
+        long now = clock.monotonicTime();
+        changes.values().forEach(change -> lagTimer.record(now - change.enqueuedAt, TimeUnit.NANOSECONDS));
+        log.debug("Indexed {} and deleted {} {} documents", entities.size(), deleted.size(), target.type.getSimpleName());
+    }
+
+    private void requeue(Map<IndexKey, Change> changes) {
+        int dropped = 0;
+        long now = clock.monotonicTime();
+        synchronized (pending) {
+            for (Map.Entry<IndexKey, Change> entry : changes.entrySet()) {
+                if (pending.containsKey(entry.getKey())) {
+                    // A newer change has been queued meanwhile
+                    continue;
+                }
+                if (pending.size() < properties.getQueueCapacity()) {
+                    pending.put(entry.getKey(), entry.getValue().failed(now, properties));
+                } else {
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.error("Search indexing queue is full, dropped {} documents", dropped);
+        }
+    }
+
+    private enum Action {
+        INDEX,
+        DELETE,
+        REINDEX,
+    }
+
+    /**
+     * Event published for each document to write, and queued once the transaction is committed.
+     */
+    public static final class IndexRequest {
+
+        private final Class<?> type;
+
+        private final Long id;
+
+        private final Action action;
+
+        private final Object entity;
+
+        private IndexRequest(Class<?> type, Long id, Action action, Object entity) {
+            this.type = type;
+            this.id = id;
+            this.action = action;
+            this.entity = entity;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        private Action getAction() {
+            return action;
+        }
+
+        private Object getEntity() {
+            return entity;
+        }
+    }
+
+    /**
+     * Event published for documents that their writer indexes itself, and deleted once the transaction is committed.
+     */
+    public static final class DeleteRequest {
+
+        private final Class<?> type;
+
+        private final Collection<Long> ids;
+
+        private DeleteRequest(Class<?> type, Collection<Long> ids) {
+            this.type = type;
+            this.ids = ids;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Collection<Long> getIds() {
+            return ids;
+        }
+    }
+
+    /**
+     * An index being rebuilt, and the ids of the documents deleted since.
+     */
+    private static final class Shadow {
+
+        private final IndexCoordinates index;
+
+        private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+
+        private Shadow(IndexCoordinates index) {
+            this.index = index;
+        }
+    }
+
+    private static final class Change {
+
+        private final Action action;
+
+        private final Object entity;
+
+        private final long enqueuedAt;
+
+        /**
+         * Times the document failed to be written.
+         */
+        private final int failures;
+
+        /**
+         * Monotonic time before which the document is not written again, once it failed.
+         */
+        private final long retryAt;
+
+        private Change(Action action, Object entity, long enqueuedAt) {
+            this(action, entity, enqueuedAt, 0, enqueuedAt);
+        }
+
+        private Change(Action action, Object entity, long enqueuedAt, int failures, long retryAt) {
+            this.action = action;
+            this.entity = entity;
+            this.enqueuedAt = enqueuedAt;
+            this.failures = failures;
+            this.retryAt = retryAt;
+        }
+
+        private Change failed(long now, ApplicationProperties.SearchIndexing properties) {
+            long backoffMs = Math.min(properties.getMaxBackoffMs(), properties.getInitialBackoffMs() << Math.min(failures, 20));
+            return new Change(action, entity, enqueuedAt, failures + 1, now + TimeUnit.MILLISECONDS.toNanos(backoffMs));
+        }
+
+        private boolean isDue(long now) {
+            return now - retryAt >= 0;
+        }
+    }
+
+    private static final class IndexKey {
+
+        private final Class<?> type;
+
+        private final Long id;
+
+        private IndexKey(Class<?> type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof IndexKey)) {
+                return false;
+            }
+            IndexKey other = (IndexKey) o;
+            return type.equals(other.type) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+
+    private static final class Target<T> {
+
+        private final Class<T> type;
+
+        private final JpaRepository<T, Long> repository;
+
+        private final ElasticsearchRepository<T, Long> searchRepository;
+
+        private final Function<T, Long> idExtractor;
+
+        private Target(
+            Class<T> type,
+            JpaRepository<T, Long> repository,
+            ElasticsearchRepository<T, Long> searchRepository,
+            Function<T, Long> idExtractor
+        ) {
+            this.type = type;
+            this.repository = repository;
+            this.searchRepository = searchRepository;
+            this.idExtractor = idExtractor;
+        }
+
+        private Long getId(Object entity) {
+            return idExtractor.apply(type.cast(entity));
+        }
+    }
+}
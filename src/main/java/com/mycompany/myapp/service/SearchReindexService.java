@@ -0,0 +1,449 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.service.dto.ReindexProgressDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service rebuilding the search indices from the database without interrupting search.
+ * <p>
+ * Each search repository reads and writes through an alias named after its index, for example {@code instance}. A
+ * rebuild streams the table with keyset pagination into a new versioned index, for example {@code instance_v2}, then
+ * moves the alias to it with one atomic request and deletes the previous index. Searches keep being served by the
+ * previous index until then. Writes made meanwhile are copied to the new index by the {@link SearchIndexingService};
+ * users, which it only deletes, are caught up from their last modified date instead. The documents deleted meanwhile
+ * are deleted again once the new index is live, in case the copy read their row before the deletion. The rows are
+ * read from the primary database, which replicas may lag behind.
+ * <p>
+ * The indices are rebuilt in parallel, up to {@code application.reindex.parallelism} at a time, and together read at
+ * most {@code application.reindex.max-rows-per-second} rows per second.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final String CONFLICT_ERROR = "version_conflict_engine_exception";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final SearchIndexingService searchIndexingService;
+
+    private final ApplicationProperties.Reindex properties;
+
+    private final Map<String, Target<?>> targets = new LinkedHashMap<>();
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public SearchReindexService(
+        ElasticsearchOperations elasticsearchOperations,
+        PlatformTransactionManager transactionManager,
+        SearchIndexingService searchIndexingService,
+        ApplicationProperties applicationProperties,
+        ApplicationRepository applicationRepository,
+        InstanceRepository instanceRepository,
+        WMISComponentRepository wMISComponentRepository,
+        UserRepository userRepository
+    ) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.readOnlyTransactionTemplate.setName(Constants.PRIMARY_READ_ONLY_TRANSACTION);
+        this.searchIndexingService = searchIndexingService;
+        this.properties = applicationProperties.getReindex();
+        register(Application.class, applicationRepository::findAllByIdGreaterThan, applicationRepository::count, Application::getId, null);
+        register(Instance.class, instanceRepository::findAllByIdGreaterThan, instanceRepository::count, Instance::getId, null);
+        register(
+            WMISComponent.class,
+            wMISComponentRepository::findAllByIdGreaterThan,
+            wMISComponentRepository::count,
+            WMISComponent::getId,
+            null
+        );
+        register(
+            ComponentTopology.class,
+            (id, pageable) ->
+                wMISComponentRepository.scanTopologyByComponentIdGreaterThan(id, pageable).map(ComponentTopologyIndexer::toDocument),
+            wMISComponentRepository::count,
+            ComponentTopology::getId,
+            null
+        );
+        register(
+            User.class,
+            userRepository::findAllByIdGreaterThan,
+            userRepository::count,
+            User::getId,
+            userRepository::findAllByLastModifiedDateGreaterThanEqual
+        );
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-reindex-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), threadFactory);
+    }
+
+    private <T> void register(
+        Class<T> type,
+        BiFunction<Long, Pageable, Slice<T>> reader,
+        LongSupplier counter,
+        Function<T, Long> idExtractor,
+        Function<Instant, List<T>> modifiedSince
+    ) {
+        String alias = elasticsearchOperations.getIndexCoordinatesFor(type).getIndexName();
+        targets.put(alias, new Target<>(type, alias, reader, counter, idExtractor, modifiedSince));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the names of the indices that can be rebuilt.
+     */
+    public Set<String> getIndices() {
+        return targets.keySet();
+    }
+
+    /**
+     * Start rebuilding indices in the background. Indices that are already being rebuilt are left alone.
+     *
+     * @param indices the names of the indices to rebuild.
+     * @return the progress of the rebuild of each index.
+     * @throws IllegalArgumentException if an index is unknown.
+     */
+    public List<ReindexProgressDTO> reindex(Collection<String> indices) {
+        for (String index : indices) {
+            if (!targets.containsKey(index)) {
+                throw new IllegalArgumentException("Unknown search index " + index);
+            }
+        }
+        Throttle throttle = new Throttle(properties.getMaxRowsPerSecond());
+        List<ReindexProgressDTO> progress = new ArrayList<>();
+        for (String index : indices) {
+            Job job = jobs.compute(index, (name, existing) -> existing != null && !existing.isFinished() ? existing : new Job(name));
+            if (job.status == ReindexProgressDTO.Status.PENDING && job.submitted.compareAndSet(false, true)) {
+                Target<?> target = targets.get(index);
+                executor.execute(() -> run(target, job, throttle));
+            }
+            progress.add(job.toDTO());
+        }
+        return progress;
+    }
+
+    /**
+     * @return the progress of the last rebuild of each index.
+     */
+    public List<ReindexProgressDTO> getProgress() {
+        return targets.keySet().stream().map(jobs::get).filter(Objects::nonNull).map(Job::toDTO).collect(Collectors.toList());
+    }
+
+    private <T> void run(Target<T> target, Job job, Throttle throttle) {
+        job.start();
+        IndexOperations aliasOperations = elasticsearchOperations.indexOps(target.type);
+        Set<String> liveIndices = aliasOperations.getAliases(target.alias).keySet();
+        boolean unversioned = liveIndices.isEmpty() && aliasOperations.exists();
+        String newIndex = nextIndexName(target.alias, unversioned ? Set.of(target.alias) : liveIndices);
+        IndexCoordinates newCoordinates = IndexCoordinates.of(newIndex);
+        job.targetIndex = newIndex;
+        log.info("Rebuilding search index {} into {}", target.alias, newIndex);
+
+        Instant startedAt = Instant.now();
+        Set<Long> deleted = Set.of();
+        try {
+            elasticsearchOperations.indexOps(newCoordinates).create(aliasOperations.createSettings(), aliasOperations.createMapping());
+            searchIndexingService.startShadowing(target.type, newCoordinates);
+            job.total = target.counter.getAsLong();
+            copy(target, newCoordinates, job, throttle);
+            elasticsearchOperations.indexOps(newCoordinates).refresh();
+
+            AliasActions actions = new AliasActions(
+                new AliasAction.Add(AliasActionParameters.builder().withIndices(newIndex).withAliases(target.alias).build())
+            );
+            if (unversioned) {
+                // The previous index was created under the alias name itself: it must go in the same request
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(target.alias).build()));
+            } else if (!liveIndices.isEmpty()) {
+                actions.add(
+                    new AliasAction.Remove(
+                        AliasActionParameters.builder().withIndices(liveIndices.toArray(new String[0])).withAliases(target.alias).build()
+                    )
+                );
+            }
+            aliasOperations.alias(actions);
+        } catch (RuntimeException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Rebuilding search index {} failed", target.alias, e);
+            elasticsearchOperations.indexOps(newCoordinates).delete();
+            job.fail(e);
+            return;
+        } finally {
+            deleted = searchIndexingService.stopShadowing(target.type);
+        }
+
+        try {
+            if (target.modifiedSince != null) {
+                readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                    List<T> modified = target.modifiedSince.apply(startedAt);
+                    if (!modified.isEmpty()) {
+                        elasticsearchOperations.save(modified, IndexCoordinates.of(target.alias));
+                    }
+                });
+            }
+            for (Long id : deleted) {
+                elasticsearchOperations.delete(id.toString(), IndexCoordinates.of(target.alias));
+            }
+            for (String liveIndex : liveIndices) {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(liveIndex)).delete();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search index {} was rebuilt, but its cleanup failed", target.alias, e);
+        }
+        job.complete();
+        log.info("Rebuilt search index {} into {} with {} documents in {}", target.alias, newIndex, job.processed, job.elapsed());
+    }
+
+    private <T> void copy(Target<T> target, IndexCoordinates index, Job job, Throttle throttle) throws InterruptedException {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        Pageable pageable = PageRequest.of(0, batchSize, Sort.by(Sort.Direction.ASC, "id"));
+        long cursor = Long.MIN_VALUE;
+        boolean hasNext = true;
+        while (hasNext) {
+            long after = cursor;
+            // Lazy associations are read while the documents are written, so the batch is written in the transaction
+            Slice<T> slice = readOnlyTransactionTemplate.execute(status -> {
+                Slice<T> rows = target.reader.apply(after, pageable);
+                bulkCreate(target, rows.getContent(), index);
+                return rows;
+            });
+            List<T> rows = slice.getContent();
+            if (!rows.isEmpty()) {
+                cursor = target.idExtractor.apply(rows.get(rows.size() - 1));
+            }
+            job.processed += rows.size();
+            hasNext = slice.hasNext();
+            throttle.acquire(rows.size());
+        }
+    }
+
+    private <T> void bulkCreate(Target<T> target, List<T> rows, IndexCoordinates index) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<IndexQuery> queries = rows
+            .stream()
+            .map(row ->
+                new IndexQueryBuilder()
+                    .withId(target.idExtractor.apply(row).toString())
+                    .withObject(row)
+                    // A document already written by a concurrent change is more recent than this row
+                    .withOpType(IndexQuery.OpType.CREATE)
+                    .build()
+            )
+            .collect(Collectors.toList());
+        try {
+            elasticsearchOperations.bulkIndex(queries, index);
+        } catch (BulkFailureException e) {
+            if (!e.getFailedDocuments().values().stream().allMatch(error -> error.contains(CONFLICT_ERROR))) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Name of the next version of an index, one above the highest version among the current indices. An index
+     * without version, named after the alias, counts as version 1.
+     */
+    static String nextIndexName(String alias, Collection<String> currentIndices) {
+        Pattern versioned = Pattern.compile(Pattern.quote(alias) + "_v(\\d+)");
+        int version = 1;
+        for (String index : currentIndices) {
+            Matcher matcher = versioned.matcher(index);
+            if (matcher.matches()) {
+                version = Math.max(version, Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return alias + "_v" + (version + 1);
+    }
+
+    /**
+     * Limits the number of rows read per second, shared by the indices rebuilt together.
+     */
+    static final class Throttle {
+
+        private final long nanosPerRow;
+
+        private long next = System.nanoTime();
+
+        Throttle(int maxRowsPerSecond) {
+            this.nanosPerRow = maxRowsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxRowsPerSecond : 0;
+        }
+
+        void acquire(int rows) throws InterruptedException {
+            if (nanosPerRow == 0 || rows == 0) {
+                return;
+            }
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                next = Math.max(next, now) + rows * nanosPerRow;
+                wait = next - now - rows * nanosPerRow;
+            }
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+
+    private static final class Job {
+
+        private final String index;
+
+        private final AtomicBoolean submitted = new AtomicBoolean();
+
+        private volatile ReindexProgressDTO.Status status = ReindexProgressDTO.Status.PENDING;
+
+        private volatile String targetIndex;
+
+        private volatile long total;
+
+        private volatile long processed;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private volatile String error;
+
+        private Job(String index) {
+            this.index = index;
+        }
+
+        private void start() {
+            startedAt = Instant.now();
+            status = ReindexProgressDTO.Status.RUNNING;
+        }
+
+        private void complete() {
+            finishedAt = Instant.now();
+            status = ReindexProgressDTO.Status.COMPLETED;
+        }
+
+        private void fail(Exception e) {
+            finishedAt = Instant.now();
+            error = e.getMessage();
+            status = ReindexProgressDTO.Status.FAILED;
+        }
+
+        private boolean isFinished() {
+            return status == ReindexProgressDTO.Status.COMPLETED || status == ReindexProgressDTO.Status.FAILED;
+        }
+
+        private Duration elapsed() {
+            if (startedAt == null) {
+                return Duration.ZERO;
+            }
+            return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+        }
+
+        private ReindexProgressDTO toDTO() {
+            ReindexProgressDTO dto = new ReindexProgressDTO();
+            dto.setIndex(index);
+            dto.setTargetIndex(targetIndex);
+            dto.setStatus(status);
+            dto.setTotal(total);
+            dto.setProcessed(processed);
+            long elapsedMillis = elapsed().toMillis();
+            dto.setRowsPerSecond(elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+
+    private static final class Target<T> {
+
+        private final Class<T> type;
+
+        private final String alias;
+
+        private final BiFunction<Long, Pageable, Slice<T>> reader;
+
+        private final LongSupplier counter;
+
+        private final Function<T, Long> idExtractor;
+
+        private final Function<Instant, List<T>> modifiedSince;
+
+        private Target(
+            Class<T> type,
+            String alias,
+            BiFunction<Long, Pageable, Slice<T>> reader,
+            LongSupplier counter,
+            Function<T, Long> idExtractor,
+            Function<Instant, List<T>> modifiedSince
+        ) {
+            this.type = type;
+            this.alias = alias;
+            this.reader = reader;
+            this.counter = counter;
+            this.idExtractor = idExtractor;
+            this.modifiedSince = modifiedSince;
+        }
+    }
+}
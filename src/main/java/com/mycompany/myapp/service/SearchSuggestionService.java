@@ -0,0 +1,98 @@
+package com.mycompany.myapp.service;
+
+import static org.elasticsearch.index.query.QueryBuilders.multiMatchQuery;
+
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.service.dto.SuggestionDTO;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service suggesting the entities whose name starts with a prefix, for the typeahead of the entity pickers.
+ * <p>
+ * The names are indexed a second time in a {@code search_as_you_type} {@code suggest} sub-field, whose edge n-grams
+ * make a prefix query as cheap as a term query. The suggestions of the hot prefixes are kept in the
+ * {@link #SUGGESTIONS_CACHE} cache, bounded to {@code application.suggest.cache-max-entries} and expiring after
+ * {@code application.suggest.cache-ttl-seconds}.
+ */
+@Service
+public class SearchSuggestionService {
+
+    public static final String SUGGESTIONS_CACHE = "searchSuggestions";
+
+    /**
+     * The entities that can be suggested, with their name field.
+     */
+    public enum Target {
+        APPLICATION("applicationName"),
+        INSTANCE("countryName"),
+        WMIS_COMPONENT("componentName");
+
+        private final String field;
+
+        Target(String field) {
+            this.field = field;
+        }
+    }
+
+    private final ElasticsearchOperations elasticsearchOperations;
+
+    public SearchSuggestionService(ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    /**
+     * Suggest the entities whose name contains a word starting with the prefix, best matches first.
+     *
+     * @param target the entities to suggest.
+     * @param prefix the prefix typed so far, trimmed and lower-cased so that it is cached once.
+     * @param size the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    @Cacheable(cacheNames = SUGGESTIONS_CACHE, key = "#target + ':' + #size + ':' + #prefix")
+    public List<SuggestionDTO> suggest(Target target, String prefix, int size) {
+        switch (target) {
+            case APPLICATION:
+                return suggest(Application.class, target.field, prefix, size, Application::getId, Application::getApplicationName);
+            case INSTANCE:
+                return suggest(Instance.class, target.field, prefix, size, Instance::getId, Instance::getCountryName);
+            default:
+                return suggest(WMISComponent.class, target.field, prefix, size, WMISComponent::getId, WMISComponent::getComponentName);
+        }
+    }
+
+    private <T> List<SuggestionDTO> suggest(
+        Class<T> type,
+        String field,
+        String prefix,
+        int size,
+        Function<T, Long> id,
+        Function<T, String> text
+    ) {
+        String suggestField = field + ".suggest";
+        NativeSearchQuery query = new NativeSearchQueryBuilder()
+            .withQuery(
+                multiMatchQuery(prefix, suggestField, suggestField + "._2gram", suggestField + "._3gram")
+                    .type(MultiMatchQueryBuilder.Type.BOOL_PREFIX)
+            )
+            .withSourceFilter(new FetchSourceFilter(new String[] { "id", field }, null))
+            .withMaxResults(size)
+            .withTrackTotalHits(false)
+            .build();
+        return elasticsearchOperations
+            .search(query, type)
+            .stream()
+            .map(hit -> new SuggestionDTO(id.apply(hit.getContent()), text.apply(hit.getContent())))
+            .collect(Collectors.toList());
+    }
+}
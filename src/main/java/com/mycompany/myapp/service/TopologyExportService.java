@@ -0,0 +1,190 @@
+package com.mycompany.myapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.TopologyRow;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service streaming the Application → Instance → WMISComponent topology as newline-delimited JSON.
+ * <p>
+ * Rows are read through forward-only JDBC cursors and written through a Jackson {@link JsonGenerator}, so memory
+ * use does not depend on the size of the inventory: each line holds one application with its instances and
+ * components. Instances without an application, and components without an instance, are written last, in a line
+ * whose application {@code id} is {@code null}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TopologyExportService {
+
+    private static final int FLUSH_EVERY_LINES = 100;
+
+    private final Logger log = LoggerFactory.getLogger(TopologyExportService.class);
+
+    private final ApplicationRepository applicationRepository;
+
+    private final InstanceRepository instanceRepository;
+
+    private final WMISComponentRepository wMISComponentRepository;
+
+    private final JsonFactory jsonFactory;
+
+    public TopologyExportService(
+        ApplicationRepository applicationRepository,
+        InstanceRepository instanceRepository,
+        WMISComponentRepository wMISComponentRepository,
+        ObjectMapper objectMapper
+    ) {
+        this.applicationRepository = applicationRepository;
+        this.instanceRepository = instanceRepository;
+        this.wMISComponentRepository = wMISComponentRepository;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Write the whole topology to the given stream, one application per line.
+     *
+     * @param outputStream the stream to write to, which is flushed but not closed.
+     * @return the number of lines written.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportTopology(OutputStream outputStream) throws IOException {
+        log.debug("Request to export the topology");
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are terminated explicitly, see TopologyWriter#closeApplication
+            generator.setRootValueSeparator(null);
+            TopologyWriter writer = new TopologyWriter(generator);
+            try {
+                write(applicationRepository.streamTopology(), writer);
+                write(instanceRepository.streamTopologyWithoutApplication(), writer);
+                write(wMISComponentRepository.streamTopologyWithoutInstance(), writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+            log.debug("Exported {} topology lines", writer.lines);
+            return writer.lines;
+        }
+    }
+
+    private void write(Stream<TopologyRow> rows, TopologyWriter writer) {
+        try (rows) {
+            rows.forEach(writer::write);
+        }
+    }
+
+    /**
+     * Groups consecutive rows by application and instance, and writes them as nested JSON objects.
+     */
+    private static final class TopologyWriter {
+
+        private final JsonGenerator generator;
+
+        private boolean applicationOpen;
+
+        private Long applicationId;
+
+        private boolean instanceOpen;
+
+        private Long instanceId;
+
+        private long lines;
+
+        TopologyWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void write(TopologyRow row) {
+            try {
+                if (!applicationOpen || !Objects.equals(applicationId, row.getApplicationId())) {
+                    closeApplication();
+                    openApplication(row);
+                }
+                if (row.getInstanceId() == null && row.getComponentId() == null) {
+                    return;
+                }
+                if (!instanceOpen || !Objects.equals(instanceId, row.getInstanceId())) {
+                    closeInstance();
+                    openInstance(row);
+                }
+                if (row.getComponentId() != null) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", row.getComponentId());
+                    generator.writeStringField("componentName", row.getComponentName());
+                    generator.writeStringField("description", row.getDescription());
+                    generator.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            closeApplication();
+            generator.flush();
+        }
+
+        private void openApplication(TopologyRow row) throws IOException {
+            applicationOpen = true;
+            applicationId = row.getApplicationId();
+            generator.writeStartObject();
+            writeNullableNumberField("id", applicationId);
+            generator.writeStringField("applicationName", row.getApplicationName());
+            generator.writeArrayFieldStart("instances");
+        }
+
+        private void closeApplication() throws IOException {
+            if (!applicationOpen) {
+                return;
+            }
+            closeInstance();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            applicationOpen = false;
+            lines++;
+            if (lines == 1 || lines % FLUSH_EVERY_LINES == 0) {
+                generator.flush();
+            }
+        }
+
+        private void openInstance(TopologyRow row) throws IOException {
+            instanceOpen = true;
+            instanceId = row.getInstanceId();
+            generator.writeStartObject();
+            writeNullableNumberField("id", instanceId);
+            generator.writeStringField("countryName", row.getCountryName());
+            generator.writeArrayFieldStart("components");
+        }
+
+        private void closeInstance() throws IOException {
+            if (!instanceOpen) {
+                return;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            instanceOpen = false;
+        }
+
+        private void writeNullableNumberField(String name, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        }
+    }
+}
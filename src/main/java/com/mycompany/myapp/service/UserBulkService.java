@@ -0,0 +1,302 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.search.UserSearchRepository;
+import com.mycompany.myapp.security.BoundedPasswordEncoder;
+import com.mycompany.myapp.security.PasswordEncoderBusyException;
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.BulkAction;
+import com.mycompany.myapp.service.dto.BulkOperationResultDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Service provisioning users in bulk, as {@link UserService#createUser(AdminUserDTO)} does one by one.
+ * <p>
+ * The users are read lazily and created by chunks of {@code application.bulk.chunk-size}. The authorities are read
+ * once per bulk, and their entities shared by the users of every chunk. The generated passwords of a chunk are hashed
+ * in parallel on the password encoder threads before its transaction starts, so that no connection is held meanwhile.
+ * The logins and emails already used are then checked with one query each, and the users and their
+ * {@code jhi_user_authority} rows written with JDBC batching at flush time, along with their queued creation emails,
+ * which are only sent once the chunk is committed. Then its users are indexed with one Elasticsearch bulk request. A
+ * chunk that fails to commit is rolled back as a whole, without affecting the previous ones.
+ */
+@Service
+public class UserBulkService {
+
+    private final Logger log = LoggerFactory.getLogger(UserBulkService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserSearchRepository userSearchRepository;
+
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    private final MailService mailService;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    public UserBulkService(
+        UserRepository userRepository,
+        AuthorityRepository authorityRepository,
+        UserSearchRepository userSearchRepository,
+        BoundedPasswordEncoder passwordEncoder,
+        MailService mailService,
+        Validator validator,
+        TransactionTemplate transactionTemplate,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.userSearchRepository = userSearchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.mailService = mailService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Create a sequence of users.
+     * <p>
+     * Reading stops at the first user that cannot be read, which is reported as a {@code 400 (Bad Request)} result: the
+     * users read before it are still created.
+     *
+     * @param users the users, which may be read lazily from the request body.
+     * @param results called with the results of each chunk once it is committed, in the order of the users.
+     */
+    public void createUsers(Iterator<AdminUserDTO> users, Consumer<List<BulkOperationResultDTO>> results) {
+        int chunkSize = Math.max(1, applicationProperties.getBulk().getChunkSize());
+        Map<String, Authority> authorities = authorityRepository
+            .findAll()
+            .stream()
+            .collect(Collectors.toMap(Authority::getName, Function.identity()));
+        Set<String> requestedLogins = new HashSet<>();
+        Set<String> requestedEmails = new HashSet<>();
+        List<AdminUserDTO> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (true) {
+            AdminUserDTO user;
+            try {
+                if (!users.hasNext()) {
+                    break;
+                }
+                user = users.next();
+            } catch (RuntimeException e) {
+                log.debug("Stopping bulk of users at malformed user {}", index, e);
+                results.accept(createChunk(chunk, index - chunk.size(), authorities, requestedLogins, requestedEmails));
+                results.accept(List.of(error(index, HttpStatus.BAD_REQUEST, "Malformed user")));
+                return;
+            }
+            chunk.add(user);
+            index++;
+            if (chunk.size() == chunkSize) {
+                results.accept(createChunk(chunk, index - chunk.size(), authorities, requestedLogins, requestedEmails));
+                chunk.clear();
+            }
+        }
+        results.accept(createChunk(chunk, index - chunk.size(), authorities, requestedLogins, requestedEmails));
+        log.debug("Created a bulk of {} users", index);
+    }
+
+    private List<BulkOperationResultDTO> createChunk(
+        List<AdminUserDTO> chunk,
+        int firstIndex,
+        Map<String, Authority> authorities,
+        Set<String> requestedLogins,
+        Set<String> requestedEmails
+    ) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        BulkOperationResultDTO[] results = new BulkOperationResultDTO[chunk.size()];
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validate(chunk.get(i), requestedLogins, requestedEmails);
+            if (error != null) {
+                results[i] = error(firstIndex + i, HttpStatus.BAD_REQUEST, error);
+            } else {
+                valid.add(i);
+            }
+        }
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        List<String> passwords;
+        try {
+            passwords =
+                passwordEncoder.encodeAll(
+                    valid.stream().map(i -> RandomUtil.generatePassword()).collect(Collectors.toList()),
+                    passwordEncoder.getThreads()
+                );
+        } catch (PasswordEncoderBusyException e) {
+            log.warn("Bulk chunk of {} users starting at {} could not be hashed: {}", chunk.size(), firstIndex, e.getMessage());
+            valid.forEach(i -> results[i] = error(firstIndex + i, HttpStatus.SERVICE_UNAVAILABLE, "Password encoder busy"));
+            return Arrays.asList(results);
+        }
+
+        List<User> created = new ArrayList<>(valid.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                writeChunk(chunk, firstIndex, valid, passwords, authorities, results, created)
+            );
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk chunk of {} users starting at {} was rolled back", chunk.size(), firstIndex, e);
+            created.clear();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].getStatus() < HttpStatus.BAD_REQUEST.value()) {
+                    results[i] = error(firstIndex + i, HttpStatus.INTERNAL_SERVER_ERROR, "Chunk rolled back");
+                }
+            }
+        }
+        index(created);
+        return Arrays.asList(results);
+    }
+
+    private void writeChunk(
+        List<AdminUserDTO> chunk,
+        int firstIndex,
+        List<Integer> valid,
+        List<String> passwords,
+        Map<String, Authority> authorities,
+        BulkOperationResultDTO[] results,
+        List<User> created
+    ) {
+        Set<String> usedLogins = new HashSet<>(
+            userRepository.findAllLoginsIn(valid.stream().map(i -> login(chunk.get(i))).collect(Collectors.toSet()))
+        );
+        Set<String> emails = valid.stream().map(i -> email(chunk.get(i))).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> usedEmails = emails.isEmpty() ? Set.of() : new HashSet<>(userRepository.findAllEmailsIgnoreCaseIn(emails));
+        List<Integer> written = new ArrayList<>(valid.size());
+        for (int v = 0; v < valid.size(); v++) {
+            int i = valid.get(v);
+            AdminUserDTO userDTO = chunk.get(i);
+            if (usedLogins.contains(login(userDTO))) {
+                results[i] = error(firstIndex + i, HttpStatus.BAD_REQUEST, "Login name already used");
+                continue;
+            }
+            if (usedEmails.contains(email(userDTO))) {
+                results[i] = error(firstIndex + i, HttpStatus.BAD_REQUEST, "Email is already in use");
+                continue;
+            }
+            created.add(newUser(userDTO, passwords.get(v), authorities));
+            written.add(i);
+        }
+        userRepository.saveAll(created);
+        userRepository.flush();
+        created.forEach(mailService::sendCreationEmail);
+        for (int w = 0; w < written.size(); w++) {
+            int i = written.get(w);
+            Long id = created.get(w).getId();
+            results[i] = new BulkOperationResultDTO(firstIndex + i, BulkAction.CREATE, id, HttpStatus.CREATED.value(), null);
+        }
+    }
+
+    private void index(List<User> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        try {
+            userSearchRepository.saveAll(created);
+        } catch (RuntimeException e) {
+            log.warn("Could not index a bulk of {} created users: {}", created.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Check a user on its own and against the previous users of the bulk.
+     *
+     * @return the error, or {@code null} if the user can be created.
+     */
+    private String validate(AdminUserDTO userDTO, Set<String> requestedLogins, Set<String> requestedEmails) {
+        if (userDTO == null) {
+            return "Missing user";
+        }
+        if (userDTO.getId() != null) {
+            return "A new user cannot already have an ID";
+        }
+        Set<ConstraintViolation<AdminUserDTO>> violations = validator.validate(userDTO);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<AdminUserDTO> violation = violations.iterator().next();
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        if (!requestedLogins.add(login(userDTO))) {
+            return "Login name already used";
+        }
+        String email = email(userDTO);
+        if (email != null && !requestedEmails.add(email)) {
+            return "Email is already in use";
+        }
+        return null;
+    }
+
+    private User newUser(AdminUserDTO userDTO, String password, Map<String, Authority> authorities) {
+        User user = new User();
+        user.setLogin(login(userDTO));
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setEmail(email(userDTO));
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+        user.setPassword(password);
+        user.setResetKey(RandomUtil.generateResetKey());
+        user.setResetDate(Instant.now());
+        user.setActivated(true);
+        if (userDTO.getAuthorities() != null) {
+            user.setAuthorities(
+                userDTO
+                    .getAuthorities()
+                    .stream()
+                    .map(authorities::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet())
+            );
+        }
+        return user;
+    }
+
+    private static String login(AdminUserDTO userDTO) {
+        return userDTO.getLogin().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String email(AdminUserDTO userDTO) {
+        return userDTO.getEmail() == null ? null : userDTO.getEmail().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static BulkOperationResultDTO error(int index, HttpStatus status, String message) {
+        return new BulkOperationResultDTO(index, BulkAction.CREATE, null, status.value(), message);
+    }
+}
@@ -0,0 +1,215 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.service.dto.BulkAction;
+import com.mycompany.myapp.service.dto.BulkOperationResultDTO;
+import com.mycompany.myapp.service.dto.WMISComponentBulkOperationDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service applying bulk create/update/delete operations on {@link WMISComponent}.
+ * <p>
+ * Operations are read lazily and applied by chunks of {@code application.bulk.chunk-size}, each chunk in its own
+ * transaction: the entities it touches are loaded with one query, written with JDBC batching at flush time, and
+ * handed to the {@link SearchIndexingService} once the transaction is committed. A chunk that fails to commit is
+ * rolled back as a whole, without affecting the previous ones.
+ */
+@Service
+public class WMISComponentBulkService {
+
+    private static final String ENTITY_NAME = "wMISComponent";
+
+    private final Logger log = LoggerFactory.getLogger(WMISComponentBulkService.class);
+
+    private final WMISComponentRepository wMISComponentRepository;
+
+    private final InstanceRepository instanceRepository;
+
+    private final SearchIndexingService searchIndexingService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    public WMISComponentBulkService(
+        WMISComponentRepository wMISComponentRepository,
+        InstanceRepository instanceRepository,
+        SearchIndexingService searchIndexingService,
+        TransactionTemplate transactionTemplate,
+        ApplicationProperties applicationProperties
+    ) {
+        this.wMISComponentRepository = wMISComponentRepository;
+        this.instanceRepository = instanceRepository;
+        this.searchIndexingService = searchIndexingService;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Apply a sequence of operations.
+     * <p>
+     * Reading stops at the first operation that cannot be read, which is reported as a {@code 400 (Bad Request)}
+     * result: the operations read before it are still applied.
+     *
+     * @param operations the operations, which may be read lazily from the request body.
+     * @return the result of each operation, in the order of the operations.
+     */
+    public List<BulkOperationResultDTO> apply(Iterator<WMISComponentBulkOperationDTO> operations) {
+        int chunkSize = Math.max(1, applicationProperties.getBulk().getChunkSize());
+        List<BulkOperationResultDTO> results = new ArrayList<>();
+        List<WMISComponentBulkOperationDTO> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (true) {
+            WMISComponentBulkOperationDTO operation;
+            try {
+                if (!operations.hasNext()) {
+                    break;
+                }
+                operation = operations.next();
+            } catch (RuntimeException e) {
+                log.debug("Stopping bulk of {} at malformed operation {}", ENTITY_NAME, index, e);
+                results.addAll(applyChunk(chunk, index - chunk.size()));
+                results.add(new BulkOperationResultDTO(index, null, null, HttpStatus.BAD_REQUEST.value(), "Malformed operation"));
+                return results;
+            }
+            chunk.add(operation);
+            index++;
+            if (chunk.size() == chunkSize) {
+                results.addAll(applyChunk(chunk, index - chunk.size()));
+                chunk.clear();
+            }
+        }
+        results.addAll(applyChunk(chunk, index - chunk.size()));
+        log.debug("Applied a bulk of {} {} operations", index, ENTITY_NAME);
+        return results;
+    }
+
+    private List<BulkOperationResultDTO> applyChunk(List<WMISComponentBulkOperationDTO> chunk, int firstIndex) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        BulkOperationResultDTO[] results = new BulkOperationResultDTO[chunk.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeChunk(chunk, firstIndex, results));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Bulk chunk of {} operations starting at {} was rolled back", chunk.size(), firstIndex, e);
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].getStatus() < HttpStatus.BAD_REQUEST.value()) {
+                    results[i] = error(firstIndex + i, chunk.get(i), HttpStatus.INTERNAL_SERVER_ERROR, "Chunk rolled back");
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void writeChunk(List<WMISComponentBulkOperationDTO> chunk, int firstIndex, BulkOperationResultDTO[] results) {
+        Map<Long, WMISComponent> existingComponents = loadById(
+            chunk.stream().filter(operation -> operation.getAction() != BulkAction.CREATE),
+            WMISComponentBulkOperationDTO::getId,
+            wMISComponentRepository::findAllById,
+            WMISComponent::getId
+        );
+        Map<Long, Instance> instances = loadById(
+            chunk.stream().filter(operation -> operation.getAction() != BulkAction.DELETE),
+            WMISComponentBulkOperationDTO::getInstanceId,
+            instanceRepository::findAllById,
+            Instance::getId
+        );
+        List<WMISComponent> toDelete = new ArrayList<>();
+        List<WMISComponent> saved = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            WMISComponentBulkOperationDTO operation = chunk.get(i);
+            int index = firstIndex + i;
+            if (operation.getAction() == null) {
+                results[i] = error(index, operation, HttpStatus.BAD_REQUEST, "Missing action");
+                continue;
+            }
+            if (operation.getAction() == BulkAction.CREATE && operation.getId() != null) {
+                results[i] = error(index, operation, HttpStatus.BAD_REQUEST, "A new wMISComponent cannot already have an ID");
+                continue;
+            }
+            if (operation.getAction() != BulkAction.CREATE && operation.getId() == null) {
+                results[i] = error(index, operation, HttpStatus.BAD_REQUEST, "Invalid id");
+                continue;
+            }
+            if (operation.getAction() != BulkAction.DELETE && operation.getInstanceId() != null && !instances.containsKey(operation.getInstanceId())) {
+                results[i] = error(index, operation, HttpStatus.BAD_REQUEST, "Instance not found");
+                continue;
+            }
+            WMISComponent component = operation.getAction() == BulkAction.CREATE
+                ? new WMISComponent()
+                : existingComponents.get(operation.getId());
+            if (component == null) {
+                results[i] = error(index, operation, HttpStatus.NOT_FOUND, "Entity not found");
+                continue;
+            }
+            switch (operation.getAction()) {
+                case CREATE:
+                    apply(operation, component, instances);
+                    wMISComponentRepository.save(component);
+                    saved.add(component);
+                    results[i] = new BulkOperationResultDTO(index, BulkAction.CREATE, component.getId(), HttpStatus.CREATED.value(), null);
+                    break;
+                case UPDATE:
+                    apply(operation, component, instances);
+                    saved.add(component);
+                    results[i] = new BulkOperationResultDTO(index, BulkAction.UPDATE, component.getId(), HttpStatus.OK.value(), null);
+                    break;
+                default:
+                    toDelete.add(component);
+                    existingComponents.remove(component.getId());
+                    results[i] = new BulkOperationResultDTO(index, BulkAction.DELETE, component.getId(), HttpStatus.NO_CONTENT.value(), null);
+            }
+        }
+        wMISComponentRepository.deleteAll(toDelete);
+        wMISComponentRepository.flush();
+        saved.removeAll(toDelete);
+        searchIndexingService.index(saved);
+        searchIndexingService.delete(WMISComponent.class, toDelete.stream().map(WMISComponent::getId).collect(Collectors.toList()));
+    }
+
+    private void apply(WMISComponentBulkOperationDTO operation, WMISComponent component, Map<Long, Instance> instances) {
+        component.setComponentName(operation.getComponentName());
+        component.setDescription(operation.getDescription());
+        component.setInstance(operation.getInstanceId() == null ? null : instances.get(operation.getInstanceId()));
+    }
+
+    private static <T> Map<Long, T> loadById(
+        Stream<WMISComponentBulkOperationDTO> operations,
+        Function<WMISComponentBulkOperationDTO, Long> idExtractor,
+        Function<Set<Long>, List<T>> loader,
+        Function<T, Long> entityId
+    ) {
+        Set<Long> ids = operations.map(idExtractor).filter(Objects::nonNull).collect(Collectors.toCollection(HashSet::new));
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return loader.apply(ids).stream().collect(Collectors.toMap(entityId, Function.identity()));
+    }
+
+    private static BulkOperationResultDTO error(int index, WMISComponentBulkOperationDTO operation, HttpStatus status, String message) {
+        return new BulkOperationResultDTO(index, operation.getAction(), operation.getId(), status.value(), message);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.service.dto.WMISComponentDTO;
+import com.mycompany.myapp.service.mapper.WMISComponentMapper;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link WMISComponent}.
+ */
+@Service
+@Transactional
+public class WMISComponentService {
+
+    private final Logger log = LoggerFactory.getLogger(WMISComponentService.class);
+
+    private final WMISComponentRepository wMISComponentRepository;
+
+    private final SearchIndexingService searchIndexingService;
+
+    private final WMISComponentMapper wMISComponentMapper;
+
+    public WMISComponentService(
+        WMISComponentRepository wMISComponentRepository,
+        SearchIndexingService searchIndexingService,
+        WMISComponentMapper wMISComponentMapper
+    ) {
+        this.wMISComponentRepository = wMISComponentRepository;
+        this.searchIndexingService = searchIndexingService;
+        this.wMISComponentMapper = wMISComponentMapper;
+    }
+
+    /**
+     * Save a wMISComponent.
+     *
+     * @param wMISComponentDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public WMISComponentDTO save(WMISComponentDTO wMISComponentDTO) {
+        log.debug("Request to save WMISComponent : {}", wMISComponentDTO);
+        WMISComponent wMISComponent = wMISComponentRepository.save(wMISComponentMapper.toEntity(wMISComponentDTO));
+        searchIndexingService.index(wMISComponent);
+        return wMISComponentMapper.toDto(wMISComponent);
+    }
+
+    /**
+     * Update a wMISComponent.
+     *
+     * @param wMISComponentDTO the entity to save.
+     * @return the persisted entity.
+     */
+    public WMISComponentDTO update(WMISComponentDTO wMISComponentDTO) {
+        log.debug("Request to update WMISComponent : {}", wMISComponentDTO);
+        WMISComponent wMISComponent = wMISComponentRepository.save(wMISComponentMapper.toEntity(wMISComponentDTO));
+        searchIndexingService.index(wMISComponent);
+        return wMISComponentMapper.toDto(wMISComponent);
+    }
+
+    /**
+     * Partially update a wMISComponent.
+     *
+     * @param wMISComponentDTO the entity to update partially.
+     * @return the persisted entity.
+     */
+    public Optional<WMISComponentDTO> partialUpdate(WMISComponentDTO wMISComponentDTO) {
+        log.debug("Request to partially update WMISComponent : {}", wMISComponentDTO);
+
+        return wMISComponentRepository
+            .findById(wMISComponentDTO.getId())
+            .map(existingWMISComponent -> {
+                wMISComponentMapper.partialUpdate(existingWMISComponent, wMISComponentDTO);
+
+                return existingWMISComponent;
+            })
+            .map(wMISComponentRepository::save)
+            .map(savedWMISComponent -> {
+                searchIndexingService.index(savedWMISComponent);
+
+                return savedWMISComponent;
+            })
+            .map(wMISComponentMapper::toDto);
+    }
+
+    /**
+     * Get a slice of the wMISComponents whose id is greater than the given one, with the country of their instance.
+     *
+     * @param id the id after which the slice starts.
+     * @param pageable the size of the slice, sorted by id.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<WMISComponentDTO> findAll(Long id, Pageable pageable) {
+        log.debug("Request to get a slice of WMISComponents after {}", id);
+        return wMISComponentRepository.findTopologyByComponentIdGreaterThan(id, pageable).map(wMISComponentMapper::toDto);
+    }
+
+    /**
+     * Count the wMISComponents.
+     *
+     * @return the number of entities.
+     */
+    @Transactional(readOnly = true)
+    public long count() {
+        log.debug("Request to count WMISComponents");
+        return wMISComponentRepository.count();
+    }
+
+    /**
+     * Get one wMISComponent by id.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<WMISComponentDTO> findOne(Long id) {
+        log.debug("Request to get WMISComponent : {}", id);
+        return wMISComponentRepository.findById(id).map(wMISComponentMapper::toDto);
+    }
+
+    /**
+     * Delete the wMISComponent by id.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete WMISComponent : {}", id);
+        wMISComponentRepository.deleteById(id);
+        searchIndexingService.delete(WMISComponent.class, id);
+    }
+}
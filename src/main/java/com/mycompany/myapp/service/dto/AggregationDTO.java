@@ -0,0 +1,102 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the buckets of an aggregation, without the documents they count.
+ */
+public class AggregationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Source {
+        ELASTICSEARCH,
+        DATABASE,
+    }
+
+    private Source source;
+
+    private List<Bucket> buckets = new ArrayList<>();
+
+    public AggregationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AggregationDTO(Source source, List<Bucket> buckets) {
+        this.source = source;
+        this.buckets = buckets;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public void setSource(Source source) {
+        this.source = source;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AggregationDTO{" +
+            "source=" + source +
+            ", buckets=" + buckets +
+            "}";
+    }
+
+    /**
+     * One bucket: the value the documents are grouped on, and how many there are.
+     */
+    public static class Bucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String key;
+
+        private long count;
+
+        public Bucket() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Bucket(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Bucket{" +
+                "key='" + key + "'" +
+                ", count=" + count +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.mycompany.myapp.domain.Application} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ApplicationDTO implements Serializable {
+
+    private Long id;
+
+    private String applicationName;
+
+    private List<InstanceDTO> applications;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public void setApplicationName(String applicationName) {
+        this.applicationName = applicationName;
+    }
+
+    /**
+     * The instances of the application, only when they were asked for with {@code include=instances}.
+     */
+    public List<InstanceDTO> getApplications() {
+        return applications;
+    }
+
+    public void setApplications(List<InstanceDTO> applications) {
+        this.applications = applications;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ApplicationDTO)) {
+            return false;
+        }
+
+        ApplicationDTO applicationDTO = (ApplicationDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, applicationDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ApplicationDTO{" +
+            "id=" + getId() +
+            ", applicationName='" + getApplicationName() + "'" +
+            "}";
+    }
+}
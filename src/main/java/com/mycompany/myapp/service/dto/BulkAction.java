@@ -0,0 +1,10 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * The action of one operation of a bulk request.
+ */
+public enum BulkAction {
+    CREATE,
+    UPDATE,
+    DELETE,
+}
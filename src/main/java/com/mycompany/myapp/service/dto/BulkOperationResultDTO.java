@@ -0,0 +1,87 @@
+package com.mycompany.myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of one operation of a bulk request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+
+    private BulkAction action;
+
+    private Long id;
+
+    private int status;
+
+    private String error;
+
+    public BulkOperationResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkOperationResultDTO(int index, BulkAction action, Long id, int status, String error) {
+        this.index = index;
+        this.action = action;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public BulkAction getAction() {
+        return action;
+    }
+
+    public void setAction(BulkAction action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkOperationResultDTO{" +
+            "index=" + index +
+            ", action=" + action +
+            ", id=" + id +
+            ", status=" + status +
+            ", error='" + error + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,86 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.mycompany.myapp.domain.Instance} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class InstanceDTO implements Serializable {
+
+    private Long id;
+
+    private String countryName;
+
+    private ApplicationDTO application;
+
+    private List<WMISComponentDTO> instances;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+
+    public void setCountryName(String countryName) {
+        this.countryName = countryName;
+    }
+
+    public ApplicationDTO getApplication() {
+        return application;
+    }
+
+    public void setApplication(ApplicationDTO application) {
+        this.application = application;
+    }
+
+    /**
+     * The components of the instance, only when they were asked for with {@code include=components}.
+     */
+    public List<WMISComponentDTO> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<WMISComponentDTO> instances) {
+        this.instances = instances;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceDTO)) {
+            return false;
+        }
+
+        InstanceDTO instanceDTO = (InstanceDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, instanceDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "InstanceDTO{" +
+            "id=" + getId() +
+            ", countryName='" + getCountryName() + "'" +
+            ", application=" + getApplication() +
+            "}";
+    }
+}
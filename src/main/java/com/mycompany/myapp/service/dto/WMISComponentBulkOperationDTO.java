@@ -0,0 +1,75 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing one operation of a {@link com.mycompany.myapp.domain.WMISComponent} bulk request.
+ * <p>
+ * {@code CREATE} and {@code UPDATE} use all the fields, as a {@code PUT} would. {@code DELETE} only uses the id.
+ */
+public class WMISComponentBulkOperationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private BulkAction action;
+
+    private Long id;
+
+    private String componentName;
+
+    private String description;
+
+    private Long instanceId;
+
+    public BulkAction getAction() {
+        return action;
+    }
+
+    public void setAction(BulkAction action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getComponentName() {
+        return componentName;
+    }
+
+    public void setComponentName(String componentName) {
+        this.componentName = componentName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(Long instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WMISComponentBulkOperationDTO{" +
+            "action=" + action +
+            ", id=" + id +
+            ", componentName='" + componentName + '\'' +
+            ", description='" + description + '\'' +
+            ", instanceId=" + instanceId +
+            "}";
+    }
+}
@@ -0,0 +1,83 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.mycompany.myapp.domain.WMISComponent} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class WMISComponentDTO implements Serializable {
+
+    private Long id;
+
+    private String componentName;
+
+    private String description;
+
+    private InstanceDTO instance;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getComponentName() {
+        return componentName;
+    }
+
+    public void setComponentName(String componentName) {
+        this.componentName = componentName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public InstanceDTO getInstance() {
+        return instance;
+    }
+
+    public void setInstance(InstanceDTO instance) {
+        this.instance = instance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WMISComponentDTO)) {
+            return false;
+        }
+
+        WMISComponentDTO wMISComponentDTO = (WMISComponentDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, wMISComponentDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WMISComponentDTO{" +
+            "id=" + getId() +
+            ", componentName='" + getComponentName() + "'" +
+            ", description='" + getDescription() + "'" +
+            ", instance=" + getInstance() +
+            "}";
+    }
+}
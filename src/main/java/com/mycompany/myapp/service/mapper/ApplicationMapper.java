@@ -0,0 +1,57 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.ApplicationRow;
+import com.mycompany.myapp.service.dto.ApplicationDTO;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import com.mycompany.myapp.service.dto.WMISComponentDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Application} and its DTO {@link ApplicationDTO}.
+ * <p>
+ * The instances of an application are only mapped by {@link #toDtoWithInstances(Application)} and
+ * {@link #toDtoWithInstancesAndComponents(Application)}, for applications read with these children fetched.
+ */
+@Mapper(componentModel = "spring")
+public interface ApplicationMapper extends EntityMapper<ApplicationDTO, Application> {
+    @Mapping(target = "applications", ignore = true)
+    ApplicationDTO toDto(Application s);
+
+    @Mapping(target = "applications", ignore = true)
+    ApplicationDTO toDto(ApplicationRow s);
+
+    @Mapping(target = "applications", ignore = true)
+    @Mapping(target = "removeApplication", ignore = true)
+    Application toEntity(ApplicationDTO applicationDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "applications", ignore = true)
+    @Mapping(target = "removeApplication", ignore = true)
+    void partialUpdate(@MappingTarget Application entity, ApplicationDTO dto);
+
+    @Named("withInstances")
+    @Mapping(target = "applications", source = "applications", qualifiedByName = "instance")
+    ApplicationDTO toDtoWithInstances(Application s);
+
+    @Named("withInstancesAndComponents")
+    @Mapping(target = "applications", source = "applications", qualifiedByName = "instanceWithComponents")
+    ApplicationDTO toDtoWithInstancesAndComponents(Application s);
+
+    @Named("instance")
+    @Mapping(target = "application", ignore = true)
+    @Mapping(target = "instances", ignore = true)
+    InstanceDTO toDtoInstance(Instance instance);
+
+    @Named("instanceWithComponents")
+    @Mapping(target = "application", ignore = true)
+    @Mapping(target = "instances", source = "instances", qualifiedByName = "component")
+    InstanceDTO toDtoInstanceWithComponents(Instance instance);
+
+    @Named("component")
+    @Mapping(target = "instance", ignore = true)
+    WMISComponentDTO toDtoComponent(WMISComponent component);
+}
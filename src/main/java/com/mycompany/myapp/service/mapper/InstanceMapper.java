@@ -0,0 +1,70 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.InstanceRow;
+import com.mycompany.myapp.service.dto.ApplicationDTO;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import com.mycompany.myapp.service.dto.WMISComponentDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link Instance} and its DTO {@link InstanceDTO}.
+ * <p>
+ * The components of an instance are only mapped by {@link #toDtoWithComponents(Instance)}, for instances read with
+ * their components fetched.
+ */
+@Mapper(componentModel = "spring")
+public interface InstanceMapper extends EntityMapper<InstanceDTO, Instance> {
+    @Mapping(target = "application", source = "application", qualifiedByName = "applicationName")
+    @Mapping(target = "instances", ignore = true)
+    InstanceDTO toDto(Instance s);
+
+    @Mapping(target = "application", source = ".", qualifiedByName = "applicationOfRow")
+    @Mapping(target = "instances", ignore = true)
+    InstanceDTO toDto(InstanceRow s);
+
+    @Mapping(target = "application", source = "application", qualifiedByName = "applicationId")
+    @Mapping(target = "instances", ignore = true)
+    @Mapping(target = "removeInstance", ignore = true)
+    Instance toEntity(InstanceDTO instanceDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "application", ignore = true)
+    @Mapping(target = "instances", ignore = true)
+    @Mapping(target = "removeInstance", ignore = true)
+    void partialUpdate(@MappingTarget Instance entity, InstanceDTO dto);
+
+    @Named("withComponents")
+    @Mapping(target = "application", source = "application", qualifiedByName = "applicationName")
+    @Mapping(target = "instances", source = "instances", qualifiedByName = "component")
+    InstanceDTO toDtoWithComponents(Instance s);
+
+    @Named("applicationName")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "applicationName", source = "applicationName")
+    ApplicationDTO toDtoApplicationName(Application application);
+
+    @Named("applicationId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    Application toEntityApplicationId(ApplicationDTO applicationDTO);
+
+    @Named("component")
+    @Mapping(target = "instance", ignore = true)
+    WMISComponentDTO toDtoComponent(WMISComponent component);
+
+    @Named("applicationOfRow")
+    default ApplicationDTO toDtoApplicationOfRow(InstanceRow row) {
+        if (row.getApplicationId() == null) {
+            return null;
+        }
+        ApplicationDTO application = new ApplicationDTO();
+        application.setId(row.getApplicationId());
+        application.setApplicationName(row.getApplicationName());
+        return application;
+    }
+}
@@ -0,0 +1,51 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.TopologyRow;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import com.mycompany.myapp.service.dto.WMISComponentDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link WMISComponent} and its DTO {@link WMISComponentDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface WMISComponentMapper extends EntityMapper<WMISComponentDTO, WMISComponent> {
+    @Mapping(target = "instance", source = "instance", qualifiedByName = "instanceCountryName")
+    WMISComponentDTO toDto(WMISComponent s);
+
+    @Mapping(target = "id", source = "componentId")
+    @Mapping(target = "instance", source = ".", qualifiedByName = "instanceOfRow")
+    WMISComponentDTO toDto(TopologyRow s);
+
+    @Mapping(target = "instance", source = "instance", qualifiedByName = "instanceId")
+    WMISComponent toEntity(WMISComponentDTO wMISComponentDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "instance", ignore = true)
+    void partialUpdate(@MappingTarget WMISComponent entity, WMISComponentDTO dto);
+
+    @Named("instanceCountryName")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "countryName", source = "countryName")
+    InstanceDTO toDtoInstanceCountryName(Instance instance);
+
+    @Named("instanceId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    Instance toEntityInstanceId(InstanceDTO instanceDTO);
+
+    @Named("instanceOfRow")
+    default InstanceDTO toDtoInstanceOfRow(TopologyRow row) {
+        if (row.getInstanceId() == null) {
+            return null;
+        }
+        InstanceDTO instance = new InstanceDTO();
+        instance.setId(row.getInstanceId());
+        instance.setCountryName(row.getCountryName());
+        return instance;
+    }
+}
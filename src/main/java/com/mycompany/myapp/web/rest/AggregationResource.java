@@ -0,0 +1,100 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.service.SearchAggregationService;
+import com.mycompany.myapp.service.dto.AggregationDTO;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller returning the facet counts of the dashboards: only the buckets, never the documents behind them.
+ */
+@RestController
+@RequestMapping("/api/_aggregations")
+public class AggregationResource {
+
+    private final Logger log = LoggerFactory.getLogger(AggregationResource.class);
+
+    private static final String ENTITY_NAME = "aggregation";
+
+    private static final String DEFAULT_SIZE = "10";
+
+    private final SearchAggregationService searchAggregationService;
+
+    public AggregationResource(SearchAggregationService searchAggregationService) {
+        this.searchAggregationService = searchAggregationService;
+    }
+
+    /**
+     * {@code GET  /_aggregations/components?groupBy=:groupBy} : count the components per country or per application.
+     *
+     * @param groupBy the field to group the components on, {@code countryName} or {@code applicationName}.
+     * @param size the maximum number of buckets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the buckets in body,
+     * or with status {@code 400 (Bad Request)} if the field is not valid.
+     */
+    @GetMapping("/components")
+    public ResponseEntity<AggregationDTO> countComponents(
+        @RequestParam String groupBy,
+        @RequestParam(defaultValue = DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to count WMISComponents per {}", groupBy);
+        switch (groupBy) {
+            case "countryName":
+                return ResponseEntity.ok(searchAggregationService.countComponentsPerCountryName(size));
+            case "applicationName":
+                return ResponseEntity.ok(searchAggregationService.countComponentsPerApplicationName(size));
+            default:
+                throw new BadRequestAlertException("Invalid groupBy field " + groupBy, ENTITY_NAME, "groupbyinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /_aggregations/instances?groupBy=applicationName} : count the distinct instances running components
+     * of each application.
+     *
+     * @param groupBy the field to group the instances on, only {@code applicationName}.
+     * @param size the maximum number of buckets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the buckets in body,
+     * or with status {@code 400 (Bad Request)} if the field is not valid.
+     */
+    @GetMapping("/instances")
+    public ResponseEntity<AggregationDTO> countInstances(
+        @RequestParam String groupBy,
+        @RequestParam(defaultValue = DEFAULT_SIZE) int size
+    ) {
+        log.debug("REST request to count Instances per {}", groupBy);
+        if (!"applicationName".equals(groupBy)) {
+            throw new BadRequestAlertException("Invalid groupBy field " + groupBy, ENTITY_NAME, "groupbyinvalid");
+        }
+        return ResponseEntity.ok(searchAggregationService.countInstancesPerApplicationName(size));
+    }
+
+    /**
+     * {@code GET  /_aggregations/users/created?interval=:interval} : count the users created per year, month or day.
+     *
+     * @param interval the calendar interval, {@code year}, {@code month} or {@code day}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the buckets in body,
+     * or with status {@code 400 (Bad Request)} if the interval is not valid.
+     */
+    @GetMapping("/users/created")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<AggregationDTO> countUsersCreated(@RequestParam(defaultValue = "day") String interval) {
+        log.debug("REST request to count Users created per {}", interval);
+        SearchAggregationService.Interval calendarInterval;
+        try {
+            calendarInterval = SearchAggregationService.Interval.valueOf(interval.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid interval " + interval, ENTITY_NAME, "intervalinvalid");
+        }
+        return ResponseEntity.ok(searchAggregationService.countUsersCreated(calendarInterval));
+    }
+}
@@ -2,23 +2,35 @@ package com.mycompany.myapp.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Application;
 import com.mycompany.myapp.repository.ApplicationRepository;
 import com.mycompany.myapp.repository.search.ApplicationSearchRepository;
+import com.mycompany.myapp.service.ApplicationService;
+import com.mycompany.myapp.service.dto.ApplicationDTO;
+import com.mycompany.myapp.service.mapper.ApplicationMapper;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -27,40 +39,57 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class ApplicationResource {
 
     private final Logger log = LoggerFactory.getLogger(ApplicationResource.class);
 
     private static final String ENTITY_NAME = "application";
 
+    private static final Set<String> INCLUDES = Set.of("instances", "components");
+
+    private static final List<String> SEARCH_TEXT_FIELDS = List.of("applicationName");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private final ApplicationService applicationService;
+
     private final ApplicationRepository applicationRepository;
 
     private final ApplicationSearchRepository applicationSearchRepository;
 
-    public ApplicationResource(ApplicationRepository applicationRepository, ApplicationSearchRepository applicationSearchRepository) {
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationMapper applicationMapper;
+
+    public ApplicationResource(
+        ApplicationService applicationService,
+        ApplicationRepository applicationRepository,
+        ApplicationSearchRepository applicationSearchRepository,
+        ApplicationProperties applicationProperties,
+        ApplicationMapper applicationMapper
+    ) {
+        this.applicationService = applicationService;
         this.applicationRepository = applicationRepository;
         this.applicationSearchRepository = applicationSearchRepository;
+        this.applicationProperties = applicationProperties;
+        this.applicationMapper = applicationMapper;
     }
 
     /**
      * {@code POST  /applications} : Create a new application.
      *
-     * @param application the application to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new application, or with status {@code 400 (Bad Request)} if the application has already an ID.
+     * @param applicationDTO the applicationDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new applicationDTO, or with status {@code 400 (Bad Request)} if the applicationDTO has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/applications")
-    public ResponseEntity<Application> createApplication(@RequestBody Application application) throws URISyntaxException {
-        log.debug("REST request to save Application : {}", application);
-        if (application.getId() != null) {
+    public ResponseEntity<ApplicationDTO> createApplication(@RequestBody ApplicationDTO applicationDTO) throws URISyntaxException {
+        log.debug("REST request to save Application : {}", applicationDTO);
+        if (applicationDTO.getId() != null) {
             throw new BadRequestAlertException("A new application cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Application result = applicationRepository.save(application);
-        applicationSearchRepository.index(result);
+        ApplicationDTO result = applicationService.save(applicationDTO);
         return ResponseEntity
             .created(new URI("/api/applications/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -71,22 +100,22 @@ public class ApplicationResource {
      * {@code PUT  /applications/:id} : Updates an existing application.
      *
      * @param id the id of the application to save.
-     * @param application the application to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated application,
-     * or with status {@code 400 (Bad Request)} if the application is not valid,
-     * or with status {@code 500 (Internal Server Error)} if the application couldn't be updated.
+     * @param applicationDTO the applicationDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated applicationDTO,
+     * or with status {@code 400 (Bad Request)} if the applicationDTO is not valid,
+     * or with status {@code 500 (Internal Server Error)} if the applicationDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/applications/{id}")
-    public ResponseEntity<Application> updateApplication(
+    public ResponseEntity<ApplicationDTO> updateApplication(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Application application
+        @RequestBody ApplicationDTO applicationDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update Application : {}, {}", id, application);
-        if (application.getId() == null) {
+        log.debug("REST request to update Application : {}, {}", id, applicationDTO);
+        if (applicationDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, application.getId())) {
+        if (!Objects.equals(id, applicationDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -94,11 +123,10 @@ public class ApplicationResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Application result = applicationRepository.save(application);
-        applicationSearchRepository.index(result);
+        ApplicationDTO result = applicationService.update(applicationDTO);
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, application.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, applicationDTO.getId().toString()))
             .body(result);
     }
 
@@ -106,23 +134,23 @@ public class ApplicationResource {
      * {@code PATCH  /applications/:id} : Partial updates given fields of an existing application, field will ignore if it is null
      *
      * @param id the id of the application to save.
-     * @param application the application to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated application,
-     * or with status {@code 400 (Bad Request)} if the application is not valid,
-     * or with status {@code 404 (Not Found)} if the application is not found,
-     * or with status {@code 500 (Internal Server Error)} if the application couldn't be updated.
+     * @param applicationDTO the applicationDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated applicationDTO,
+     * or with status {@code 400 (Bad Request)} if the applicationDTO is not valid,
+     * or with status {@code 404 (Not Found)} if the applicationDTO is not found,
+     * or with status {@code 500 (Internal Server Error)} if the applicationDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/applications/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Application> partialUpdateApplication(
+    public ResponseEntity<ApplicationDTO> partialUpdateApplication(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Application application
+        @RequestBody ApplicationDTO applicationDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update Application partially : {}, {}", id, application);
-        if (application.getId() == null) {
+        log.debug("REST request to partial update Application partially : {}, {}", id, applicationDTO);
+        if (applicationDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, application.getId())) {
+        if (!Objects.equals(id, applicationDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -130,50 +158,63 @@ public class ApplicationResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Application> result = applicationRepository
-            .findById(application.getId())
-            .map(existingApplication -> {
-                if (application.getApplicationName() != null) {
-                    existingApplication.setApplicationName(application.getApplicationName());
-                }
-
-                return existingApplication;
-            })
-            .map(applicationRepository::save)
-            .map(savedApplication -> {
-                applicationSearchRepository.save(savedApplication);
-
-                return savedApplication;
-            });
+        Optional<ApplicationDTO> result = applicationService.partialUpdate(applicationDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, application.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, applicationDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /applications} : get all the applications.
+     * {@code GET  /applications} : get a slice of the applications, using keyset pagination on the id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of applications in body.
+     * @param cursor the opaque cursor returned in the {@code Link} header of the previous slice, or {@code null} for the first one.
+     * @param size the number of applications to return, capped at {@code application.pagination.max-page-size}.
+     * @param totalCount whether to compute the {@code X-Total-Count} header, defaults to {@code application.pagination.total-count-header}.
+     * @param include the children to return with each application: {@code instances}, and {@code components} of these instances.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of applications in body,
+     * or with status {@code 400 (Bad Request)} if a child to include is not valid.
      */
     @GetMapping("/applications")
-    public List<Application> getAllApplications() {
-        log.debug("REST request to get all Applications");
-        return applicationRepository.findAll();
+    public ResponseEntity<List<ApplicationDTO>> getAllApplications(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAM, required = false) Integer size,
+        @RequestParam(value = "totalCount", required = false) Boolean totalCount,
+        @RequestParam(value = "include", required = false) List<String> include
+    ) {
+        log.debug("REST request to get a slice of Applications after cursor {}", cursor);
+        if (include != null && !INCLUDES.containsAll(include)) {
+            throw new BadRequestAlertException("Invalid include " + include, ENTITY_NAME, "includeinvalid");
+        }
+        ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+        Slice<ApplicationDTO> slice = applicationService.findAll(
+            KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME),
+            KeysetPaginationUtil.pageable(size, pagination),
+            include != null && include.contains("instances"),
+            include != null && include.contains("components")
+        );
+        boolean withTotalCount = totalCount != null ? totalCount : pagination.isTotalCountHeader();
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            ApplicationDTO::getId,
+            withTotalCount ? applicationService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /applications/:id} : get the "id" application.
      *
      * @param id the id of the application to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the application, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the applicationDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/applications/{id}")
-    public ResponseEntity<Application> getApplication(@PathVariable Long id) {
+    public ResponseEntity<ApplicationDTO> getApplication(@PathVariable Long id) {
         log.debug("REST request to get Application : {}", id);
-        Optional<Application> application = applicationRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(application);
+        Optional<ApplicationDTO> applicationDTO = applicationService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(applicationDTO);
     }
 
     /**
@@ -185,8 +226,7 @@ public class ApplicationResource {
     @DeleteMapping("/applications/{id}")
     public ResponseEntity<Void> deleteApplication(@PathVariable Long id) {
         log.debug("REST request to delete Application : {}", id);
-        applicationRepository.deleteById(id);
-        applicationSearchRepository.deleteById(id);
+        applicationService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -196,13 +236,88 @@ public class ApplicationResource {
     /**
      * {@code SEARCH  /_search/applications?query=:query} : search for the application corresponding
      * to the query.
+     * <p>
+     * Hits are paged and sorted by relevance, then by id. Pages beyond the result window are reached by following the
+     * cursor of the {@code Link} header, which continues the search after the last hit returned.
      *
      * @param query the query of the application search.
-     * @return the result of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
      */
     @GetMapping("/_search/applications")
-    public List<Application> searchApplications(@RequestParam String query) {
-        log.debug("REST request to search Applications for query {}", query);
-        return StreamSupport.stream(applicationSearchRepository.search(query).spliterator(), false).collect(Collectors.toList());
+    public ResponseEntity<List<ApplicationDTO>> searchApplications(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Applications for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            false,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.contents(searchHits, applicationMapper::toDto)
+        );
+    }
+
+    /**
+     * {@code SEARCH  /_search/applications/highlight?query=:query} : search for the application corresponding
+     * to the query, returning each hit with its highlighted matches.
+     *
+     * @param query the query of the application search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of highlighted hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/applications/highlight")
+    public ResponseEntity<List<SearchHitVM<ApplicationDTO>>> searchApplicationsWithHighlights(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of highlighted Applications for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            true,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.highlightedContents(searchHits, applicationMapper::toDto)
+        );
+    }
+
+    private <R> ResponseEntity<List<R>> searchPage(
+        String query,
+        String cursor,
+        boolean highlight,
+        List<String> fields,
+        Pageable pageable,
+        Function<SearchHits<Application>, List<R>> body
+    ) {
+        NativeSearchQuery searchQuery = SearchPaginationUtil.buildQuery(
+            query,
+            pageable,
+            cursor,
+            SEARCH_TEXT_FIELDS,
+            highlight,
+            fields,
+            applicationProperties.getSearch(),
+            ENTITY_NAME
+        );
+        SearchHits<Application> searchHits = applicationSearchRepository.searchHits(searchQuery);
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            searchHits,
+            searchQuery
+        );
+        return ResponseEntity.ok().headers(headers).body(body.apply(searchHits));
     }
 }
@@ -0,0 +1,134 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.repository.search.ComponentTopologySearchRepository;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
+import java.util.List;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller searching the denormalized {@link ComponentTopology} documents, one per WMISComponent with the
+ * country name of its instance and the name of its application.
+ */
+@RestController
+@RequestMapping("/api")
+public class ComponentTopologyResource {
+
+    private final Logger log = LoggerFactory.getLogger(ComponentTopologyResource.class);
+
+    private static final String ENTITY_NAME = "componentTopology";
+
+    private static final List<String> SEARCH_TEXT_FIELDS = List.of("componentName", "description", "countryName", "applicationName");
+
+    private final ComponentTopologySearchRepository componentTopologySearchRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ComponentTopologyResource(
+        ComponentTopologySearchRepository componentTopologySearchRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.componentTopologySearchRepository = componentTopologySearchRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code SEARCH  /_search/component-topologies?query=:query} : search for the components corresponding to the
+     * query, which may match on the component, its instance and its application at once, for example
+     * {@code componentName:X AND countryName:Y}.
+     *
+     * @param query the query of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/component-topologies")
+    public ResponseEntity<List<ComponentTopology>> searchComponentTopologies(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of ComponentTopologies for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            false,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.contents(searchHits, Function.identity())
+        );
+    }
+
+    /**
+     * {@code SEARCH  /_search/component-topologies/highlight?query=:query} : search for the components corresponding
+     * to the query, returning each hit with its highlighted matches.
+     *
+     * @param query the query of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of highlighted hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/component-topologies/highlight")
+    public ResponseEntity<List<SearchHitVM<ComponentTopology>>> searchComponentTopologiesWithHighlights(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of highlighted ComponentTopologies for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            true,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.highlightedContents(searchHits, Function.identity())
+        );
+    }
+
+    private <R> ResponseEntity<List<R>> searchPage(
+        String query,
+        String cursor,
+        boolean highlight,
+        List<String> fields,
+        Pageable pageable,
+        Function<SearchHits<ComponentTopology>, List<R>> body
+    ) {
+        NativeSearchQuery searchQuery = SearchPaginationUtil.buildQuery(
+            query,
+            pageable,
+            cursor,
+            SEARCH_TEXT_FIELDS,
+            highlight,
+            fields,
+            applicationProperties.getSearch(),
+            ENTITY_NAME
+        );
+        SearchHits<ComponentTopology> searchHits = componentTopologySearchRepository.searchHits(searchQuery);
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            searchHits,
+            searchQuery
+        );
+        return ResponseEntity.ok().headers(headers).body(body.apply(searchHits));
+    }
+}
@@ -2,23 +2,35 @@ package com.mycompany.myapp.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.Instance;
 import com.mycompany.myapp.repository.InstanceRepository;
 import com.mycompany.myapp.repository.search.InstanceSearchRepository;
+import com.mycompany.myapp.service.InstanceService;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import com.mycompany.myapp.service.mapper.InstanceMapper;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -27,40 +39,57 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class InstanceResource {
 
     private final Logger log = LoggerFactory.getLogger(InstanceResource.class);
 
     private static final String ENTITY_NAME = "instance";
 
+    private static final Set<String> INCLUDES = Set.of("components");
+
+    private static final List<String> SEARCH_TEXT_FIELDS = List.of("countryName");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private final InstanceService instanceService;
+
     private final InstanceRepository instanceRepository;
 
     private final InstanceSearchRepository instanceSearchRepository;
 
-    public InstanceResource(InstanceRepository instanceRepository, InstanceSearchRepository instanceSearchRepository) {
+    private final ApplicationProperties applicationProperties;
+
+    private final InstanceMapper instanceMapper;
+
+    public InstanceResource(
+        InstanceService instanceService,
+        InstanceRepository instanceRepository,
+        InstanceSearchRepository instanceSearchRepository,
+        ApplicationProperties applicationProperties,
+        InstanceMapper instanceMapper
+    ) {
+        this.instanceService = instanceService;
         this.instanceRepository = instanceRepository;
         this.instanceSearchRepository = instanceSearchRepository;
+        this.applicationProperties = applicationProperties;
+        this.instanceMapper = instanceMapper;
     }
 
     /**
      * {@code POST  /instances} : Create a new instance.
      *
-     * @param instance the instance to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new instance, or with status {@code 400 (Bad Request)} if the instance has already an ID.
+     * @param instanceDTO the instanceDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new instanceDTO, or with status {@code 400 (Bad Request)} if the instanceDTO has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/instances")
-    public ResponseEntity<Instance> createInstance(@RequestBody Instance instance) throws URISyntaxException {
-        log.debug("REST request to save Instance : {}", instance);
-        if (instance.getId() != null) {
+    public ResponseEntity<InstanceDTO> createInstance(@RequestBody InstanceDTO instanceDTO) throws URISyntaxException {
+        log.debug("REST request to save Instance : {}", instanceDTO);
+        if (instanceDTO.getId() != null) {
             throw new BadRequestAlertException("A new instance cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Instance result = instanceRepository.save(instance);
-        instanceSearchRepository.index(result);
+        InstanceDTO result = instanceService.save(instanceDTO);
         return ResponseEntity
             .created(new URI("/api/instances/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -71,22 +100,22 @@ public class InstanceResource {
      * {@code PUT  /instances/:id} : Updates an existing instance.
      *
      * @param id the id of the instance to save.
-     * @param instance the instance to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated instance,
-     * or with status {@code 400 (Bad Request)} if the instance is not valid,
-     * or with status {@code 500 (Internal Server Error)} if the instance couldn't be updated.
+     * @param instanceDTO the instanceDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated instanceDTO,
+     * or with status {@code 400 (Bad Request)} if the instanceDTO is not valid,
+     * or with status {@code 500 (Internal Server Error)} if the instanceDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/instances/{id}")
-    public ResponseEntity<Instance> updateInstance(
+    public ResponseEntity<InstanceDTO> updateInstance(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Instance instance
+        @RequestBody InstanceDTO instanceDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update Instance : {}, {}", id, instance);
-        if (instance.getId() == null) {
+        log.debug("REST request to update Instance : {}, {}", id, instanceDTO);
+        if (instanceDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, instance.getId())) {
+        if (!Objects.equals(id, instanceDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -94,11 +123,10 @@ public class InstanceResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Instance result = instanceRepository.save(instance);
-        instanceSearchRepository.index(result);
+        InstanceDTO result = instanceService.update(instanceDTO);
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, instance.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, instanceDTO.getId().toString()))
             .body(result);
     }
 
@@ -106,23 +134,23 @@ public class InstanceResource {
      * {@code PATCH  /instances/:id} : Partial updates given fields of an existing instance, field will ignore if it is null
      *
      * @param id the id of the instance to save.
-     * @param instance the instance to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated instance,
-     * or with status {@code 400 (Bad Request)} if the instance is not valid,
-     * or with status {@code 404 (Not Found)} if the instance is not found,
-     * or with status {@code 500 (Internal Server Error)} if the instance couldn't be updated.
+     * @param instanceDTO the instanceDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated instanceDTO,
+     * or with status {@code 400 (Bad Request)} if the instanceDTO is not valid,
+     * or with status {@code 404 (Not Found)} if the instanceDTO is not found,
+     * or with status {@code 500 (Internal Server Error)} if the instanceDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/instances/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Instance> partialUpdateInstance(
+    public ResponseEntity<InstanceDTO> partialUpdateInstance(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody Instance instance
+        @RequestBody InstanceDTO instanceDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update Instance partially : {}, {}", id, instance);
-        if (instance.getId() == null) {
+        log.debug("REST request to partial update Instance partially : {}, {}", id, instanceDTO);
+        if (instanceDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, instance.getId())) {
+        if (!Objects.equals(id, instanceDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -130,50 +158,62 @@ public class InstanceResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Instance> result = instanceRepository
-            .findById(instance.getId())
-            .map(existingInstance -> {
-                if (instance.getCountryName() != null) {
-                    existingInstance.setCountryName(instance.getCountryName());
-                }
-
-                return existingInstance;
-            })
-            .map(instanceRepository::save)
-            .map(savedInstance -> {
-                instanceSearchRepository.save(savedInstance);
-
-                return savedInstance;
-            });
+        Optional<InstanceDTO> result = instanceService.partialUpdate(instanceDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, instance.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, instanceDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /instances} : get all the instances.
+     * {@code GET  /instances} : get a slice of the instances, using keyset pagination on the id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of instances in body.
+     * @param cursor the opaque cursor returned in the {@code Link} header of the previous slice, or {@code null} for the first one.
+     * @param size the number of instances to return, capped at {@code application.pagination.max-page-size}.
+     * @param totalCount whether to compute the {@code X-Total-Count} header, defaults to {@code application.pagination.total-count-header}.
+     * @param include the children to return with each instance: {@code components}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of instances in body,
+     * or with status {@code 400 (Bad Request)} if a child to include is not valid.
      */
     @GetMapping("/instances")
-    public List<Instance> getAllInstances() {
-        log.debug("REST request to get all Instances");
-        return instanceRepository.findAll();
+    public ResponseEntity<List<InstanceDTO>> getAllInstances(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAM, required = false) Integer size,
+        @RequestParam(value = "totalCount", required = false) Boolean totalCount,
+        @RequestParam(value = "include", required = false) List<String> include
+    ) {
+        log.debug("REST request to get a slice of Instances after cursor {}", cursor);
+        if (include != null && !INCLUDES.containsAll(include)) {
+            throw new BadRequestAlertException("Invalid include " + include, ENTITY_NAME, "includeinvalid");
+        }
+        ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+        Slice<InstanceDTO> slice = instanceService.findAll(
+            KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME),
+            KeysetPaginationUtil.pageable(size, pagination),
+            include != null && include.contains("components")
+        );
+        boolean withTotalCount = totalCount != null ? totalCount : pagination.isTotalCountHeader();
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            InstanceDTO::getId,
+            withTotalCount ? instanceService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /instances/:id} : get the "id" instance.
      *
      * @param id the id of the instance to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the instance, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the instanceDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/instances/{id}")
-    public ResponseEntity<Instance> getInstance(@PathVariable Long id) {
+    public ResponseEntity<InstanceDTO> getInstance(@PathVariable Long id) {
         log.debug("REST request to get Instance : {}", id);
-        Optional<Instance> instance = instanceRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(instance);
+        Optional<InstanceDTO> instanceDTO = instanceService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(instanceDTO);
     }
 
     /**
@@ -185,8 +225,7 @@ public class InstanceResource {
     @DeleteMapping("/instances/{id}")
     public ResponseEntity<Void> deleteInstance(@PathVariable Long id) {
         log.debug("REST request to delete Instance : {}", id);
-        instanceRepository.deleteById(id);
-        instanceSearchRepository.deleteById(id);
+        instanceService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -196,13 +235,88 @@ public class InstanceResource {
     /**
      * {@code SEARCH  /_search/instances?query=:query} : search for the instance corresponding
      * to the query.
+     * <p>
+     * Hits are paged and sorted by relevance, then by id. Pages beyond the result window are reached by following the
+     * cursor of the {@code Link} header, which continues the search after the last hit returned.
      *
      * @param query the query of the instance search.
-     * @return the result of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
      */
     @GetMapping("/_search/instances")
-    public List<Instance> searchInstances(@RequestParam String query) {
-        log.debug("REST request to search Instances for query {}", query);
-        return StreamSupport.stream(instanceSearchRepository.search(query).spliterator(), false).collect(Collectors.toList());
+    public ResponseEntity<List<InstanceDTO>> searchInstances(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Instances for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            false,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.contents(searchHits, instanceMapper::toDto)
+        );
+    }
+
+    /**
+     * {@code SEARCH  /_search/instances/highlight?query=:query} : search for the instance corresponding
+     * to the query, returning each hit with its highlighted matches.
+     *
+     * @param query the query of the instance search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of highlighted hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/instances/highlight")
+    public ResponseEntity<List<SearchHitVM<InstanceDTO>>> searchInstancesWithHighlights(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of highlighted Instances for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            true,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.highlightedContents(searchHits, instanceMapper::toDto)
+        );
+    }
+
+    private <R> ResponseEntity<List<R>> searchPage(
+        String query,
+        String cursor,
+        boolean highlight,
+        List<String> fields,
+        Pageable pageable,
+        Function<SearchHits<Instance>, List<R>> body
+    ) {
+        NativeSearchQuery searchQuery = SearchPaginationUtil.buildQuery(
+            query,
+            pageable,
+            cursor,
+            SEARCH_TEXT_FIELDS,
+            highlight,
+            fields,
+            applicationProperties.getSearch(),
+            ENTITY_NAME
+        );
+        SearchHits<Instance> searchHits = instanceSearchRepository.searchHits(searchQuery);
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            searchHits,
+            searchQuery
+        );
+        return ResponseEntity.ok().headers(headers).body(body.apply(searchHits));
     }
 }
@@ -2,18 +2,23 @@ package com.mycompany.myapp.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.search.UserSearchRepository;
 import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.dto.UserDTO;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
 import java.util.*;
 import java.util.Collections;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -29,14 +34,24 @@ public class PublicUserResource {
         Arrays.asList("id", "login", "firstName", "lastName", "email", "activated", "langKey")
     );
 
+    private static final List<String> SEARCH_TEXT_FIELDS = List.of("login");
+
+    private static final List<String> SEARCH_SOURCE_FIELDS = List.of("id", "login");
+
     private final Logger log = LoggerFactory.getLogger(PublicUserResource.class);
 
     private final UserService userService;
     private final UserSearchRepository userSearchRepository;
+    private final ApplicationProperties applicationProperties;
 
-    public PublicUserResource(UserSearchRepository userSearchRepository, UserService userService) {
+    public PublicUserResource(
+        UserSearchRepository userSearchRepository,
+        UserService userService,
+        ApplicationProperties applicationProperties
+    ) {
         this.userService = userService;
         this.userSearchRepository = userSearchRepository;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -72,12 +87,67 @@ public class PublicUserResource {
 
     /**
      * {@code SEARCH /_search/users/:query} : search for the User corresponding to the query.
+     * <p>
+     * Only the public fields of the users are read from the index. Pages beyond the result window are reached by
+     * following the cursor of the {@code Link} header.
      *
      * @param query the query to search.
-     * @return the result of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of users in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
      */
     @GetMapping("/_search/users/{query}")
-    public List<UserDTO> search(@PathVariable String query) {
-        return StreamSupport.stream(userSearchRepository.search(query).spliterator(), false).map(UserDTO::new).collect(Collectors.toList());
+    public ResponseEntity<List<UserDTO>> search(
+        @PathVariable String query,
+        @RequestParam(required = false) String cursor,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        return searchPage(query, cursor, false, pageable, searchHits -> SearchPaginationUtil.contents(searchHits, UserDTO::new));
+    }
+
+    /**
+     * {@code SEARCH /_search/users/:query/highlight} : search for the User corresponding to the query, returning each
+     * hit with its highlighted matches.
+     *
+     * @param query the query to search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of highlighted users in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/users/{query}/highlight")
+    public ResponseEntity<List<SearchHitVM<UserDTO>>> searchWithHighlights(
+        @PathVariable String query,
+        @RequestParam(required = false) String cursor,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        return searchPage(query, cursor, true, pageable, searchHits -> SearchPaginationUtil.highlightedContents(searchHits, UserDTO::new));
+    }
+
+    private <R> ResponseEntity<List<R>> searchPage(
+        String query,
+        String cursor,
+        boolean highlight,
+        Pageable pageable,
+        Function<SearchHits<User>, List<R>> body
+    ) {
+        NativeSearchQuery searchQuery = SearchPaginationUtil.buildQuery(
+            query,
+            pageable,
+            cursor,
+            SEARCH_TEXT_FIELDS,
+            highlight,
+            SEARCH_SOURCE_FIELDS,
+            applicationProperties.getSearch(),
+            "userManagement"
+        );
+        SearchHits<User> searchHits = userSearchRepository.searchHits(searchQuery);
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            searchHits,
+            searchQuery
+        );
+        return ResponseEntity.ok().headers(headers).body(body.apply(searchHits));
     }
 }
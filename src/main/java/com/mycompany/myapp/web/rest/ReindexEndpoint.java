@@ -0,0 +1,46 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.SearchReindexService;
+import com.mycompany.myapp.service.dto.ReindexProgressDTO;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint rebuilding the search indices, exposed on {@code /management/reindex}.
+ * <p>
+ * {@code GET} reports the progress of the last rebuild of each index, {@code POST} rebuilds every index, and
+ * {@code POST /management/reindex/{index}} rebuilds a single one.
+ */
+@Component
+@Endpoint(id = "reindex")
+public class ReindexEndpoint {
+
+    private final SearchReindexService searchReindexService;
+
+    public ReindexEndpoint(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    @ReadOperation
+    public List<ReindexProgressDTO> progress() {
+        return searchReindexService.getProgress();
+    }
+
+    @WriteOperation
+    public List<ReindexProgressDTO> reindexAll() {
+        return searchReindexService.reindex(searchReindexService.getIndices());
+    }
+
+    @WriteOperation
+    public List<ReindexProgressDTO> reindex(@Selector String index) {
+        if (!searchReindexService.getIndices().contains(index)) {
+            throw new InvalidEndpointRequestException("Unknown search index " + index, "Unknown search index");
+        }
+        return searchReindexService.reindex(List.of(index));
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.service.SearchSuggestionService;
+import com.mycompany.myapp.service.dto.SuggestionDTO;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller suggesting Applications, Instances and WMISComponents by the prefix of their name, for the
+ * typeahead of the entity pickers.
+ */
+@RestController
+@RequestMapping("/api")
+public class SuggestResource {
+
+    private final Logger log = LoggerFactory.getLogger(SuggestResource.class);
+
+    private static final String ENTITY_NAME = "suggestion";
+
+    private static final Map<String, SearchSuggestionService.Target> TARGETS = Map.of(
+        "applications",
+        SearchSuggestionService.Target.APPLICATION,
+        "instances",
+        SearchSuggestionService.Target.INSTANCE,
+        "wmis-components",
+        SearchSuggestionService.Target.WMIS_COMPONENT
+    );
+
+    private final SearchSuggestionService searchSuggestionService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public SuggestResource(SearchSuggestionService searchSuggestionService, ApplicationProperties applicationProperties) {
+        this.searchSuggestionService = searchSuggestionService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code GET  /_suggest/:entity?prefix=:prefix} : suggest the entities whose name has a word starting with the
+     * prefix.
+     *
+     * @param entity the entities to suggest: {@code applications}, {@code instances} or {@code wmis-components}.
+     * @param prefix the prefix typed so far.
+     * @param size the maximum number of suggestions, capped at {@code application.suggest.max-size}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions in body,
+     * or with status {@code 400 (Bad Request)} if the entity is not valid.
+     */
+    @GetMapping("/_suggest/{entity}")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+        @PathVariable String entity,
+        @RequestParam String prefix,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to suggest {} for prefix {}", entity, prefix);
+        SearchSuggestionService.Target target = TARGETS.get(entity);
+        if (target == null) {
+            throw new BadRequestAlertException("Invalid entity " + entity, ENTITY_NAME, "entityinvalid");
+        }
+        String normalizedPrefix = prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalizedPrefix.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        ApplicationProperties.Suggest properties = applicationProperties.getSuggest();
+        int limit = Math.min(Math.max(size == null ? properties.getDefaultSize() : size, 1), properties.getMaxSize());
+        return ResponseEntity.ok(searchSuggestionService.suggest(target, normalizedPrefix, limit));
+    }
+}
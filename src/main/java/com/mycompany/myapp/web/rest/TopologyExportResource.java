@@ -0,0 +1,43 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.TopologyExportService;
+import java.io.IOException;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exporting the Application → Instance → WMISComponent topology.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class TopologyExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(TopologyExportResource.class);
+
+    private final TopologyExportService topologyExportService;
+
+    public TopologyExportResource(TopologyExportService topologyExportService) {
+        this.topologyExportService = topologyExportService;
+    }
+
+    /**
+     * {@code GET  /export/topology} : stream the whole topology as newline-delimited JSON, one application per line.
+     * <p>
+     * The response is written while the database is read, so it has no {@code Content-Length}.
+     *
+     * @param response the response to stream the topology to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/topology", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportTopology(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export the topology");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        topologyExportService.exportTopology(response.getOutputStream());
+    }
+}
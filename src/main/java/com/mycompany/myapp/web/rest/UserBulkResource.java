@@ -0,0 +1,89 @@
+package com.mycompany.myapp.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.service.UserBulkService;
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.BulkOperationResultDTO;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller provisioning {@link com.mycompany.myapp.domain.User users} in bulk.
+ * <p>
+ * This controller is not transactional: each chunk of users is committed on its own by the {@link UserBulkService},
+ * and its results are streamed back as soon as it is.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class UserBulkResource {
+
+    private final Logger log = LoggerFactory.getLogger(UserBulkResource.class);
+
+    private final UserBulkService userBulkService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectReader userReader;
+
+    public UserBulkResource(UserBulkService userBulkService, ObjectMapper objectMapper) {
+        this.userBulkService = userBulkService;
+        this.objectMapper = objectMapper;
+        this.userReader = objectMapper.readerFor(AdminUserDTO.class);
+    }
+
+    /**
+     * {@code POST  /admin/users/bulk} : Create users in bulk, as {@code POST /admin/users} does one by one.
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON, and is read while the users are created. The result
+     * of each user, with its own HTTP status, is written as a line of newline-delimited JSON once its chunk is
+     * committed, so the response has no {@code Content-Length}.
+     *
+     * @param request the request holding the users.
+     * @param response the response to stream the results to.
+     * @throws IOException if the request body cannot be read, or the response written.
+     */
+    @PostMapping(
+        value = "/users/bulk",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void bulkCreateUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to create a bulk of Users");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (
+            MappingIterator<AdminUserDTO> users = userReader.readValues(request.getInputStream());
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())
+        ) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            userBulkService.createUsers(
+                users,
+                results -> {
+                    try {
+                        for (BulkOperationResultDTO result : results) {
+                            generator.writeObject(result);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mycompany.myapp.web.rest;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mycompany.myapp.service.WMISComponentBulkService;
+import com.mycompany.myapp.service.dto.BulkOperationResultDTO;
+import com.mycompany.myapp.service.dto.WMISComponentBulkOperationDTO;
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for bulk operations on {@link com.mycompany.myapp.domain.WMISComponent}.
+ * <p>
+ * This controller is not transactional: each chunk of operations is committed on its own by the
+ * {@link WMISComponentBulkService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class WMISComponentBulkResource {
+
+    private final Logger log = LoggerFactory.getLogger(WMISComponentBulkResource.class);
+
+    private final WMISComponentBulkService wMISComponentBulkService;
+
+    private final ObjectReader operationReader;
+
+    public WMISComponentBulkResource(WMISComponentBulkService wMISComponentBulkService, ObjectMapper objectMapper) {
+        this.wMISComponentBulkService = wMISComponentBulkService;
+        this.operationReader = objectMapper.readerFor(WMISComponentBulkOperationDTO.class);
+    }
+
+    /**
+     * {@code POST  /wmis-components/bulk} : Create, update and delete wMISComponents in bulk.
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON, and is read while the operations are applied.
+     *
+     * @param request the request holding the operations.
+     * @return the result of each operation, with its own HTTP status.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/wmis-components/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public List<BulkOperationResultDTO> bulkWMISComponents(HttpServletRequest request) throws IOException {
+        log.debug("REST request to apply a bulk of WMISComponent operations");
+        try (MappingIterator<WMISComponentBulkOperationDTO> operations = operationReader.readValues(request.getInputStream())) {
+            return wMISComponentBulkService.apply(operations);
+        }
+    }
+}
@@ -2,23 +2,34 @@ package com.mycompany.myapp.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.domain.WMISComponent;
 import com.mycompany.myapp.repository.WMISComponentRepository;
 import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import com.mycompany.myapp.service.WMISComponentService;
+import com.mycompany.myapp.service.dto.WMISComponentDTO;
+import com.mycompany.myapp.service.mapper.WMISComponentMapper;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -27,43 +38,55 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class WMISComponentResource {
 
     private final Logger log = LoggerFactory.getLogger(WMISComponentResource.class);
 
     private static final String ENTITY_NAME = "wMISComponent";
 
+    private static final List<String> SEARCH_TEXT_FIELDS = List.of("componentName", "description");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private final WMISComponentService wMISComponentService;
+
     private final WMISComponentRepository wMISComponentRepository;
 
     private final WMISComponentSearchRepository wMISComponentSearchRepository;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final WMISComponentMapper wMISComponentMapper;
+
     public WMISComponentResource(
+        WMISComponentService wMISComponentService,
         WMISComponentRepository wMISComponentRepository,
-        WMISComponentSearchRepository wMISComponentSearchRepository
+        WMISComponentSearchRepository wMISComponentSearchRepository,
+        ApplicationProperties applicationProperties,
+        WMISComponentMapper wMISComponentMapper
     ) {
+        this.wMISComponentService = wMISComponentService;
         this.wMISComponentRepository = wMISComponentRepository;
         this.wMISComponentSearchRepository = wMISComponentSearchRepository;
+        this.applicationProperties = applicationProperties;
+        this.wMISComponentMapper = wMISComponentMapper;
     }
 
     /**
      * {@code POST  /wmis-components} : Create a new wMISComponent.
      *
-     * @param wMISComponent the wMISComponent to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new wMISComponent, or with status {@code 400 (Bad Request)} if the wMISComponent has already an ID.
+     * @param wMISComponentDTO the wMISComponentDTO to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new wMISComponentDTO, or with status {@code 400 (Bad Request)} if the wMISComponentDTO has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/wmis-components")
-    public ResponseEntity<WMISComponent> createWMISComponent(@RequestBody WMISComponent wMISComponent) throws URISyntaxException {
-        log.debug("REST request to save WMISComponent : {}", wMISComponent);
-        if (wMISComponent.getId() != null) {
+    public ResponseEntity<WMISComponentDTO> createWMISComponent(@RequestBody WMISComponentDTO wMISComponentDTO) throws URISyntaxException {
+        log.debug("REST request to save WMISComponent : {}", wMISComponentDTO);
+        if (wMISComponentDTO.getId() != null) {
             throw new BadRequestAlertException("A new wMISComponent cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        WMISComponent result = wMISComponentRepository.save(wMISComponent);
-        wMISComponentSearchRepository.index(result);
+        WMISComponentDTO result = wMISComponentService.save(wMISComponentDTO);
         return ResponseEntity
             .created(new URI("/api/wmis-components/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -74,22 +97,22 @@ public class WMISComponentResource {
      * {@code PUT  /wmis-components/:id} : Updates an existing wMISComponent.
      *
      * @param id the id of the wMISComponent to save.
-     * @param wMISComponent the wMISComponent to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wMISComponent,
-     * or with status {@code 400 (Bad Request)} if the wMISComponent is not valid,
-     * or with status {@code 500 (Internal Server Error)} if the wMISComponent couldn't be updated.
+     * @param wMISComponentDTO the wMISComponentDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wMISComponentDTO,
+     * or with status {@code 400 (Bad Request)} if the wMISComponentDTO is not valid,
+     * or with status {@code 500 (Internal Server Error)} if the wMISComponentDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/wmis-components/{id}")
-    public ResponseEntity<WMISComponent> updateWMISComponent(
+    public ResponseEntity<WMISComponentDTO> updateWMISComponent(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody WMISComponent wMISComponent
+        @RequestBody WMISComponentDTO wMISComponentDTO
     ) throws URISyntaxException {
-        log.debug("REST request to update WMISComponent : {}, {}", id, wMISComponent);
-        if (wMISComponent.getId() == null) {
+        log.debug("REST request to update WMISComponent : {}, {}", id, wMISComponentDTO);
+        if (wMISComponentDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, wMISComponent.getId())) {
+        if (!Objects.equals(id, wMISComponentDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -97,11 +120,10 @@ public class WMISComponentResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        WMISComponent result = wMISComponentRepository.save(wMISComponent);
-        wMISComponentSearchRepository.index(result);
+        WMISComponentDTO result = wMISComponentService.update(wMISComponentDTO);
         return ResponseEntity
             .ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, wMISComponent.getId().toString()))
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, wMISComponentDTO.getId().toString()))
             .body(result);
     }
 
@@ -109,23 +131,23 @@ public class WMISComponentResource {
      * {@code PATCH  /wmis-components/:id} : Partial updates given fields of an existing wMISComponent, field will ignore if it is null
      *
      * @param id the id of the wMISComponent to save.
-     * @param wMISComponent the wMISComponent to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wMISComponent,
-     * or with status {@code 400 (Bad Request)} if the wMISComponent is not valid,
-     * or with status {@code 404 (Not Found)} if the wMISComponent is not found,
-     * or with status {@code 500 (Internal Server Error)} if the wMISComponent couldn't be updated.
+     * @param wMISComponentDTO the wMISComponentDTO to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wMISComponentDTO,
+     * or with status {@code 400 (Bad Request)} if the wMISComponentDTO is not valid,
+     * or with status {@code 404 (Not Found)} if the wMISComponentDTO is not found,
+     * or with status {@code 500 (Internal Server Error)} if the wMISComponentDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/wmis-components/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<WMISComponent> partialUpdateWMISComponent(
+    public ResponseEntity<WMISComponentDTO> partialUpdateWMISComponent(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody WMISComponent wMISComponent
+        @RequestBody WMISComponentDTO wMISComponentDTO
     ) throws URISyntaxException {
-        log.debug("REST request to partial update WMISComponent partially : {}, {}", id, wMISComponent);
-        if (wMISComponent.getId() == null) {
+        log.debug("REST request to partial update WMISComponent partially : {}, {}", id, wMISComponentDTO);
+        if (wMISComponentDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        if (!Objects.equals(id, wMISComponent.getId())) {
+        if (!Objects.equals(id, wMISComponentDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
@@ -133,53 +155,55 @@ public class WMISComponentResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<WMISComponent> result = wMISComponentRepository
-            .findById(wMISComponent.getId())
-            .map(existingWMISComponent -> {
-                if (wMISComponent.getComponentName() != null) {
-                    existingWMISComponent.setComponentName(wMISComponent.getComponentName());
-                }
-                if (wMISComponent.getDescription() != null) {
-                    existingWMISComponent.setDescription(wMISComponent.getDescription());
-                }
-
-                return existingWMISComponent;
-            })
-            .map(wMISComponentRepository::save)
-            .map(savedWMISComponent -> {
-                wMISComponentSearchRepository.save(savedWMISComponent);
-
-                return savedWMISComponent;
-            });
+        Optional<WMISComponentDTO> result = wMISComponentService.partialUpdate(wMISComponentDTO);
 
         return ResponseUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, wMISComponent.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, wMISComponentDTO.getId().toString())
         );
     }
 
     /**
-     * {@code GET  /wmis-components} : get all the wMISComponents.
+     * {@code GET  /wmis-components} : get a slice of the wMISComponents, using keyset pagination on the id.
      *
+     * @param cursor the opaque cursor returned in the {@code Link} header of the previous slice, or {@code null} for the first one.
+     * @param size the number of wMISComponents to return, capped at {@code application.pagination.max-page-size}.
+     * @param totalCount whether to compute the {@code X-Total-Count} header, defaults to {@code application.pagination.total-count-header}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wMISComponents in body.
      */
     @GetMapping("/wmis-components")
-    public List<WMISComponent> getAllWMISComponents() {
-        log.debug("REST request to get all WMISComponents");
-        return wMISComponentRepository.findAll();
+    public ResponseEntity<List<WMISComponentDTO>> getAllWMISComponents(
+        @RequestParam(value = KeysetPaginationUtil.CURSOR_PARAM, required = false) String cursor,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAM, required = false) Integer size,
+        @RequestParam(value = "totalCount", required = false) Boolean totalCount
+    ) {
+        log.debug("REST request to get a slice of WMISComponents after cursor {}", cursor);
+        ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+        Slice<WMISComponentDTO> slice = wMISComponentService.findAll(
+            KeysetPaginationUtil.decodeCursor(cursor, ENTITY_NAME),
+            KeysetPaginationUtil.pageable(size, pagination)
+        );
+        boolean withTotalCount = totalCount != null ? totalCount : pagination.isTotalCountHeader();
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            WMISComponentDTO::getId,
+            withTotalCount ? wMISComponentService.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
     }
 
     /**
      * {@code GET  /wmis-components/:id} : get the "id" wMISComponent.
      *
      * @param id the id of the wMISComponent to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the wMISComponent, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the wMISComponentDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/wmis-components/{id}")
-    public ResponseEntity<WMISComponent> getWMISComponent(@PathVariable Long id) {
+    public ResponseEntity<WMISComponentDTO> getWMISComponent(@PathVariable Long id) {
         log.debug("REST request to get WMISComponent : {}", id);
-        Optional<WMISComponent> wMISComponent = wMISComponentRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(wMISComponent);
+        Optional<WMISComponentDTO> wMISComponentDTO = wMISComponentService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(wMISComponentDTO);
     }
 
     /**
@@ -191,8 +215,7 @@ public class WMISComponentResource {
     @DeleteMapping("/wmis-components/{id}")
     public ResponseEntity<Void> deleteWMISComponent(@PathVariable Long id) {
         log.debug("REST request to delete WMISComponent : {}", id);
-        wMISComponentRepository.deleteById(id);
-        wMISComponentSearchRepository.deleteById(id);
+        wMISComponentService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -202,13 +225,88 @@ public class WMISComponentResource {
     /**
      * {@code SEARCH  /_search/wmis-components?query=:query} : search for the wMISComponent corresponding
      * to the query.
+     * <p>
+     * Hits are paged and sorted by relevance, then by id. Pages beyond the result window are reached by following the
+     * cursor of the {@code Link} header, which continues the search after the last hit returned.
      *
      * @param query the query of the wMISComponent search.
-     * @return the result of the search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
      */
     @GetMapping("/_search/wmis-components")
-    public List<WMISComponent> searchWMISComponents(@RequestParam String query) {
-        log.debug("REST request to search WMISComponents for query {}", query);
-        return StreamSupport.stream(wMISComponentSearchRepository.search(query).spliterator(), false).collect(Collectors.toList());
+    public ResponseEntity<List<WMISComponentDTO>> searchWMISComponents(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of WMISComponents for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            false,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.contents(searchHits, wMISComponentMapper::toDto)
+        );
+    }
+
+    /**
+     * {@code SEARCH  /_search/wmis-components/highlight?query=:query} : search for the wMISComponent corresponding
+     * to the query, returning each hit with its highlighted matches.
+     *
+     * @param query the query of the wMISComponent search.
+     * @param cursor the cursor of the next page, from the {@code Link} header of the previous one.
+     * @param fields the fields to return, all of them if empty.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of highlighted hits in body,
+     * or with status {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    @GetMapping("/_search/wmis-components/highlight")
+    public ResponseEntity<List<SearchHitVM<WMISComponentDTO>>> searchWMISComponentsWithHighlights(
+        @RequestParam String query,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) List<String> fields,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of highlighted WMISComponents for query {}", query);
+        return searchPage(
+            query,
+            cursor,
+            true,
+            fields,
+            pageable,
+            searchHits -> SearchPaginationUtil.highlightedContents(searchHits, wMISComponentMapper::toDto)
+        );
+    }
+
+    private <R> ResponseEntity<List<R>> searchPage(
+        String query,
+        String cursor,
+        boolean highlight,
+        List<String> fields,
+        Pageable pageable,
+        Function<SearchHits<WMISComponent>, List<R>> body
+    ) {
+        NativeSearchQuery searchQuery = SearchPaginationUtil.buildQuery(
+            query,
+            pageable,
+            cursor,
+            SEARCH_TEXT_FIELDS,
+            highlight,
+            fields,
+            applicationProperties.getSearch(),
+            ENTITY_NAME
+        );
+        SearchHits<WMISComponent> searchHits = wMISComponentSearchRepository.searchHits(searchQuery);
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            searchHits,
+            searchQuery
+        );
+        return ResponseEntity.ok().headers(headers).body(body.apply(searchHits));
     }
 }
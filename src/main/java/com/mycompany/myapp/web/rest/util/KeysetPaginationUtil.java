@@ -0,0 +1,123 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination on the {@code id} column.
+ * <p>
+ * Instead of an offset, clients receive an opaque cursor in the {@code Link} header pointing to the next slice,
+ * so that reading a late page costs the same index range scan as reading the first one.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    public static final String SIZE_PARAM = "size";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Build the {@link Pageable} used to read the slice following a cursor.
+     *
+     * @param size the requested page size, may be {@code null}.
+     * @param pagination the pagination properties holding the default and maximum page size.
+     * @return a first-page request sorted by ascending id, capped at the maximum page size.
+     */
+    public static Pageable pageable(Integer size, ApplicationProperties.Pagination pagination) {
+        int pageSize = (size == null || size < 1) ? pagination.getDefaultPageSize() : Math.min(size, pagination.getMaxPageSize());
+        return PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    /**
+     * Decode a cursor previously returned in a {@code Link} header.
+     *
+     * @param cursor the opaque cursor, may be {@code null} for the first page.
+     * @param entityName the entity name used in the error alert.
+     * @return the id after which the next slice starts.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor cannot be decoded.
+     */
+    public static long decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Unknown cursor format");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Encode the id of the last element of a slice as an opaque cursor.
+     *
+     * @param id the id of the last element returned.
+     * @return the cursor.
+     */
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Generate keyset pagination headers for a {@link Slice}.
+     *
+     * @param uriBuilder the current request URI builder.
+     * @param slice the slice that is returned.
+     * @param idExtractor the function reading the id of an element.
+     * @param totalCount the total number of elements, or {@code null} to omit the {@code X-Total-Count} header.
+     * @param <T> the type of the elements.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, Long> idExtractor,
+        Long totalCount
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        List<T> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            String nextCursor = encodeCursor(idExtractor.apply(content.get(content.size() - 1)));
+            link.append(prepareLink(uriBuilder, nextCursor, pageSize, "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, null, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, int pageSize, String relType) {
+        UriComponentsBuilder builder = uriBuilder.cloneBuilder().replaceQueryParam(SIZE_PARAM, pageSize);
+        if (cursor == null) {
+            builder.replaceQueryParam(CURSOR_PARAM);
+        } else {
+            builder.replaceQueryParam(CURSOR_PARAM, cursor);
+        }
+        return MessageFormat.format(HEADER_LINK_FORMAT, builder.toUriString().replace(",", "%2C").replace(";", "%3B"), relType);
+    }
+}
@@ -0,0 +1,249 @@
+package com.mycompany.myapp.web.rest.util;
+
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.vm.SearchHitVM;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for paged, sorted and highlighted searches on the {@code /api/_search} endpoints.
+ * <p>
+ * Shallow pages are read with {@code from}/{@code size}, up to the configured result window. Deeper hits are reached
+ * with {@code search_after}: the sort values of the last hit are handed to the client as an opaque cursor in the
+ * {@code Link} header, so that each following page costs the same as the first one.
+ * <p>
+ * Hits are always sorted on a unique tie-breaker ({@code id}), which keeps cursors stable across pages.
+ */
+public final class SearchPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    public static final String PAGE_PARAM = "page";
+
+    public static final String SIZE_PARAM = "size";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private static final String HEADER_X_TOTAL_COUNT_RELATION = "X-Total-Count-Relation";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private static final String ID_FIELD = "id";
+
+    private static final String SCORE_FIELD = "_score";
+
+    private static final String KEYWORD_SUFFIX = ".keyword";
+
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+    private SearchPaginationUtil() {}
+
+    /**
+     * Build the Elasticsearch query for one page of a search.
+     *
+     * @param query the query string.
+     * @param pageable the requested page, size and sort; sort properties must be {@code id} or one of the text fields.
+     * @param cursor the cursor of a previous page, may be {@code null} to read the page given by {@code pageable}.
+     * @param textFields the text fields of the document, sorted on their {@code keyword} sub-field and highlighted.
+     * @param highlight whether to highlight the matches in the text fields.
+     * @param sourceFields the fields to fetch from {@code _source}, or {@code null}/empty for the whole document.
+     * @param search the search properties holding the page size, result window and total hits limits.
+     * @param entityName the entity name used in the error alerts.
+     * @return the query.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the sort, the cursor or the page is not valid.
+     */
+    public static NativeSearchQuery buildQuery(
+        String query,
+        Pageable pageable,
+        String cursor,
+        Collection<String> textFields,
+        boolean highlight,
+        Collection<String> sourceFields,
+        ApplicationProperties.Search search,
+        String entityName
+    ) {
+        List<SortBuilder<?>> sorts = sorts(pageable.getSort(), textFields, entityName);
+        int size = Math.min(Math.max(pageable.getPageSize(), 1), search.getMaxPageSize());
+
+        NativeSearchQueryBuilder builder = new NativeSearchQueryBuilder().withQuery(queryStringQuery(query)).withSorts(sorts);
+        if (cursor != null && !cursor.isEmpty()) {
+            List<Object> searchAfter = decodeCursor(cursor, entityName);
+            if (searchAfter.size() != sorts.size()) {
+                throw new BadRequestAlertException("The cursor does not match the sort", entityName, "cursorinvalid");
+            }
+            builder.withPageable(PageRequest.of(0, size)).withSearchAfter(searchAfter);
+        } else {
+            if ((long) (pageable.getPageNumber() + 1) * size > search.getMaxResultWindow()) {
+                throw new BadRequestAlertException(
+                    "Page beyond the result window, follow the cursor of the Link header instead",
+                    entityName,
+                    "resultwindowexceeded"
+                );
+            }
+            builder.withPageable(PageRequest.of(pageable.getPageNumber(), size));
+        }
+        if (highlight && !textFields.isEmpty()) {
+            HighlightBuilder highlightBuilder = new HighlightBuilder();
+            textFields.forEach(highlightBuilder::field);
+            builder.withHighlightBuilder(highlightBuilder);
+        }
+        if (sourceFields != null && !sourceFields.isEmpty()) {
+            builder.withSourceFilter(new FetchSourceFilter(sourceFields.toArray(String[]::new), null));
+        }
+        NativeSearchQuery nativeSearchQuery = builder.build();
+        nativeSearchQuery.setTrackTotalHitsUpTo(search.getTrackTotalHitsUpTo());
+        return nativeSearchQuery;
+    }
+
+    private static List<SortBuilder<?>> sorts(Sort sort, Collection<String> textFields, String entityName) {
+        List<SortBuilder<?>> sorts = new ArrayList<>();
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            SortOrder sortOrder = order.isAscending() ? SortOrder.ASC : SortOrder.DESC;
+            if (ID_FIELD.equals(property)) {
+                sortedById = true;
+                sorts.add(SortBuilders.fieldSort(ID_FIELD).order(sortOrder));
+            } else if (SCORE_FIELD.equals(property)) {
+                sorts.add(SortBuilders.scoreSort().order(sortOrder));
+            } else if (textFields.contains(property)) {
+                sorts.add(SortBuilders.fieldSort(property + KEYWORD_SUFFIX).order(sortOrder));
+            } else {
+                throw new BadRequestAlertException("Invalid sort property " + property, entityName, "sortinvalid");
+            }
+        }
+        if (sorts.isEmpty()) {
+            sorts.add(SortBuilders.scoreSort().order(SortOrder.DESC));
+        }
+        if (!sortedById) {
+            sorts.add(SortBuilders.fieldSort(ID_FIELD).order(SortOrder.ASC));
+        }
+        return sorts;
+    }
+
+    /**
+     * Decode a cursor previously returned in a {@code Link} header.
+     *
+     * @param cursor the opaque cursor.
+     * @param entityName the entity name used in the error alert.
+     * @return the sort values of the last hit of the previous page.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor cannot be decoded.
+     */
+    public static List<Object> decodeCursor(String cursor, String entityName) {
+        try {
+            List<Object> searchAfter = CURSOR_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<>() {});
+            if (searchAfter == null || searchAfter.isEmpty()) {
+                throw new IllegalArgumentException("Empty cursor");
+            }
+            return searchAfter;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Encode the sort values of the last hit of a page as an opaque cursor.
+     *
+     * @param sortValues the sort values of the last hit returned.
+     * @return the cursor.
+     */
+    public static String encodeCursor(List<Object> sortValues) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(sortValues));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode the sort values " + sortValues, e);
+        }
+    }
+
+    /**
+     * Map the hits of a search to the documents of the response body.
+     *
+     * @param searchHits the hits of the search.
+     * @param mapper the function mapping a document to its representation.
+     * @param <T> the type of the documents.
+     * @param <R> the type of the representation.
+     * @return the response body.
+     */
+    public static <T, R> List<R> contents(SearchHits<T> searchHits, Function<T, R> mapper) {
+        return searchHits.stream().map(hit -> mapper.apply(hit.getContent())).collect(Collectors.toList());
+    }
+
+    /**
+     * Map the hits of a search to the documents of the response body, with their highlights.
+     *
+     * @param searchHits the hits of the search.
+     * @param mapper the function mapping a document to its representation.
+     * @param <T> the type of the documents.
+     * @param <R> the type of the representation.
+     * @return the response body.
+     */
+    public static <T, R> List<SearchHitVM<R>> highlightedContents(SearchHits<T> searchHits, Function<T, R> mapper) {
+        return searchHits
+            .stream()
+            .map(hit -> new SearchHitVM<>(mapper.apply(hit.getContent()), hit.getHighlightFields()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Generate the pagination headers of a search: the total hit count and the cursor of the next page.
+     *
+     * @param uriBuilder the current request URI builder.
+     * @param searchHits the hits of the search.
+     * @param query the query the hits were read with.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generateSearchHttpHeaders(UriComponentsBuilder uriBuilder, SearchHits<?> searchHits, NativeSearchQuery query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_X_TOTAL_COUNT, Long.toString(searchHits.getTotalHits()));
+        if (searchHits.getTotalHitsRelation() == TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO) {
+            headers.add(HEADER_X_TOTAL_COUNT_RELATION, "gte");
+        }
+        int pageSize = query.getPageable().getPageSize();
+        List<? extends SearchHit<?>> hits = searchHits.getSearchHits();
+        StringBuilder link = new StringBuilder();
+        if (hits.size() == pageSize) {
+            String nextCursor = encodeCursor(hits.get(hits.size() - 1).getSortValues());
+            link.append(prepareLink(uriBuilder, nextCursor, pageSize, "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, null, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, int pageSize, String relType) {
+        UriComponentsBuilder builder = uriBuilder.cloneBuilder().replaceQueryParam(SIZE_PARAM, pageSize).replaceQueryParam(PAGE_PARAM);
+        if (cursor == null) {
+            builder.replaceQueryParam(CURSOR_PARAM);
+        } else {
+            builder.replaceQueryParam(CURSOR_PARAM, cursor);
+        }
+        return MessageFormat.format(HEADER_LINK_FORMAT, builder.toUriString().replace(",", "%2C").replace(";", "%3B"), relType);
+    }
+}
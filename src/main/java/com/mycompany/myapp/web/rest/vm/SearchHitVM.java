@@ -0,0 +1,38 @@
+package com.mycompany.myapp.web.rest.vm;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * View Model object for a search hit returned with its highlighted fragments.
+ *
+ * @param <T> the type of the document.
+ */
+public class SearchHitVM<T> {
+
+    private final T content;
+
+    private final Map<String, List<String>> highlight;
+
+    public SearchHitVM(T content, Map<String, List<String>> highlight) {
+        this.content = content;
+        this.highlight = highlight;
+    }
+
+    public T getContent() {
+        return content;
+    }
+
+    public Map<String, List<String>> getHighlight() {
+        return highlight;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHitVM{" +
+            "content=" + content +
+            ", highlight=" + highlight +
+            "}";
+    }
+}
@@ -32,5 +32,13 @@ describe('Parse links service test', () => {
       const links = { last: 0, first: 0 };
       expect(service.parse(' </api/audits?page=0&size=20>; rel="last",</api/audits?page=0&size=20>; rel="first"')).toEqual(links);
     }));
+
+    it('should return the query parameters of each link', inject([ParseLinks], (service: ParseLinks) => {
+      const links = {
+        next: { '/api/instances': undefined, size: '20', cursor: 'aWQ6MjA' },
+        first: { '/api/instances': undefined, size: '20' },
+      };
+      expect(service.parseAll('</api/instances?size=20&cursor=aWQ6MjA>; rel="next",</api/instances?size=20>; rel="first"')).toEqual(links);
+    }));
   });
 });
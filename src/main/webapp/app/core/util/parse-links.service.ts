@@ -11,13 +11,28 @@ export class ParseLinks {
    * Method to parse the links
    */
   parse(header: string): { [key: string]: number } {
+    const links: { [key: string]: number } = {};
+    const allLinks = this.parseAll(header);
+    Object.keys(allLinks).forEach(name => {
+      const page = allLinks[name]?.page;
+      if (page !== undefined) {
+        links[name] = parseInt(page, 10);
+      }
+    });
+    return links;
+  }
+
+  /**
+   * Method to parse the links, with all the query parameters of each, such as the cursor of the next page
+   */
+  parseAll(header: string): { [key: string]: { [key: string]: string | undefined } | undefined } {
     if (header.length === 0) {
       throw new Error('input must not be of zero length');
     }
 
     // Split parts by comma
     const parts: string[] = header.split(',');
-    const links: { [key: string]: number } = {};
+    const links: { [key: string]: { [key: string]: string | undefined } | undefined } = {};
 
     // Parse each part into a named link
     parts.forEach(p => {
@@ -32,15 +47,13 @@ export class ParseLinks {
 
       url.replace(/([^?=&]+)(=([^&]*))?/g, (_$0: string, $1: string | undefined, _$2: string | undefined, $3: string | undefined) => {
         if ($1 !== undefined) {
-          queryString[$1] = $3;
+          queryString[$1] = $3 !== undefined ? decodeURIComponent($3) : undefined;
         }
         return $3 ?? '';
       });
 
-      if (queryString.page !== undefined) {
-        const name: string = section[1].replace(/rel="(.*)"/, '$1').trim();
-        links[name] = parseInt(queryString.page, 10);
-      }
+      const name: string = section[1].replace(/rel="(.*)"/, '$1').trim();
+      links[name] = queryString;
     });
     return links;
   }
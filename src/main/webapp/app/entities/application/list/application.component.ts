@@ -1,4 +1,5 @@
 import { Component, OnInit } from '@angular/core';
+import { HttpHeaders } from '@angular/common/http';
 import { ActivatedRoute, Data, ParamMap, Router } from '@angular/router';
 import { combineLatest, filter, Observable, switchMap, tap } from 'rxjs';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
@@ -8,16 +9,18 @@ import { ASC, DESC, SORT, ITEM_DELETED_EVENT, DEFAULT_SORT_DATA } from 'app/conf
 import { EntityArrayResponseType, ApplicationService } from '../service/application.service';
 import { ApplicationDeleteDialogComponent } from '../delete/application-delete-dialog.component';
 import { SortService } from 'app/shared/sort/sort.service';
+import { ParseLinks } from 'app/core/util/parse-links.service';
 
 @Component({
   selector: 'jhi-application',
   templateUrl: './application.component.html',
 })
 export class ApplicationComponent implements OnInit {
-  private static readonly NOT_SORTABLE_FIELDS_AFTER_SEARCH = ['applicationName'];
+  private static readonly NOT_SORTABLE_FIELDS_AFTER_SEARCH: string[] = [];
 
   applications?: IApplication[];
   isLoading = false;
+  links: { [key: string]: { [key: string]: string | undefined } | undefined } = {};
 
   predicate = 'id';
   ascending = true;
@@ -28,7 +31,8 @@ export class ApplicationComponent implements OnInit {
     protected activatedRoute: ActivatedRoute,
     public router: Router,
     protected sortService: SortService,
-    protected modalService: NgbModal
+    protected modalService: NgbModal,
+    protected parseLinks: ParseLinks
   ) {}
 
   trackId = (_index: number, item: IApplication): number => this.applicationService.getApplicationIdentifier(item);
@@ -70,6 +74,17 @@ export class ApplicationComponent implements OnInit {
     });
   }
 
+  loadNextPage(): void {
+    const cursor = this.links.next?.cursor;
+    if (cursor && !this.isLoading) {
+      this.queryBackend(this.predicate, this.ascending, this.currentSearch, cursor).subscribe({
+        next: (res: EntityArrayResponseType) => {
+          this.onResponseSuccess(res, true);
+        },
+      });
+    }
+  }
+
   navigateToWithComponentValues(): void {
     this.handleNavigation(this.predicate, this.ascending, this.currentSearch);
   }
@@ -90,12 +105,22 @@ export class ApplicationComponent implements OnInit {
       if (ApplicationComponent.NOT_SORTABLE_FIELDS_AFTER_SEARCH.includes(this.predicate)) {
         this.predicate = '';
       }
+    } else {
+      // Without a search, the slices are read in id order only
+      this.predicate = 'id';
+      this.ascending = true;
     }
   }
 
-  protected onResponseSuccess(response: EntityArrayResponseType): void {
+  protected onResponseSuccess(response: EntityArrayResponseType, append = false): void {
+    this.fillComponentAttributesFromResponseHeader(response.headers);
     const dataFromBody = this.fillComponentAttributesFromResponseBody(response.body);
-    this.applications = this.refineData(dataFromBody);
+    this.applications = this.refineData(append ? [...(this.applications ?? []), ...dataFromBody] : dataFromBody);
+  }
+
+  protected fillComponentAttributesFromResponseHeader(headers: HttpHeaders): void {
+    const linkHeader = headers.get('link');
+    this.links = linkHeader ? this.parseLinks.parseAll(linkHeader) : {};
   }
 
   protected refineData(data: IApplication[]): IApplication[] {
@@ -106,13 +131,19 @@ export class ApplicationComponent implements OnInit {
     return data ?? [];
   }
 
-  protected queryBackend(predicate?: string, ascending?: boolean, currentSearch?: string): Observable<EntityArrayResponseType> {
+  protected queryBackend(
+    predicate?: string,
+    ascending?: boolean,
+    currentSearch?: string,
+    cursor?: string
+  ): Observable<EntityArrayResponseType> {
     this.isLoading = true;
     const queryObject: any = {
       query: currentSearch,
-      sort: this.getSortQueryParam(predicate, ascending),
+      cursor,
     };
     if (this.currentSearch && this.currentSearch !== '') {
+      queryObject.sort = this.getSortQueryParam(predicate, ascending);
       return this.applicationService.search(queryObject).pipe(tap(() => (this.isLoading = false)));
     } else {
       return this.applicationService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
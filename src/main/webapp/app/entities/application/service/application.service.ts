@@ -1,9 +1,11 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpResponse } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, expand, Observable, reduce } from 'rxjs';
 
 import { isPresent } from 'app/core/util/operators';
+import { ParseLinks } from 'app/core/util/parse-links.service';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { MAX_ITEMS_PER_PAGE } from 'app/config/pagination.constants';
 import { createRequestOption } from 'app/core/request/request-util';
 import { Search } from 'app/core/request/request.model';
 import { IApplication, NewApplication } from '../application.model';
@@ -18,7 +20,11 @@ export class ApplicationService {
   protected resourceUrl = this.applicationConfigService.getEndpointFor('api/applications');
   protected resourceSearchUrl = this.applicationConfigService.getEndpointFor('api/_search/applications');
 
-  constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
+  constructor(
+    protected http: HttpClient,
+    protected applicationConfigService: ApplicationConfigService,
+    protected parseLinks: ParseLinks
+  ) {}
 
   create(application: NewApplication): Observable<EntityResponseType> {
     return this.http.post<IApplication>(this.resourceUrl, application, { observe: 'response' });
@@ -45,6 +51,21 @@ export class ApplicationService {
     return this.http.get<IApplication[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  /**
+   * Read every page, following the cursor of the Link header, for example to fill a relationship dropdown.
+   */
+  queryAll(req?: any): Observable<IApplication[]> {
+    const pageReq = { size: MAX_ITEMS_PER_PAGE, totalCount: 'false', ...req };
+    return this.query(pageReq).pipe(
+      expand((res: EntityArrayResponseType) => {
+        const link = res.headers.get('link');
+        const cursor = link ? this.parseLinks.parseAll(link).next?.cursor : undefined;
+        return cursor ? this.query({ ...pageReq, cursor }) : EMPTY;
+      }),
+      reduce((all: IApplication[], res: EntityArrayResponseType) => all.concat(res.body ?? []), [])
+    );
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
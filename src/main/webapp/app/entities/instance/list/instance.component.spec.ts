@@ -64,6 +64,34 @@ describe('Instance Management Component', () => {
     expect(comp.instances?.[0]).toEqual(expect.objectContaining({ id: 123 }));
   });
 
+  it('Should list in id order, the only one the slices are read in', () => {
+    // WHEN
+    comp.ngOnInit();
+
+    // THEN
+    expect(service.query).toHaveBeenCalledWith(expect.not.objectContaining({ sort: expect.anything() }));
+    expect(comp.predicate).toEqual('id');
+    expect(comp.ascending).toBe(true);
+  });
+
+  it('Should load the next page from the cursor of the Link header', () => {
+    // GIVEN
+    const headers = new HttpHeaders().append('link', '<http://localhost/api/instances?size=20&cursor=aWQ6MTIz>; rel="next"');
+    jest
+      .spyOn(service, 'query')
+      .mockReturnValueOnce(of(new HttpResponse({ body: [{ id: 123 }], headers })))
+      .mockReturnValueOnce(of(new HttpResponse({ body: [{ id: 456 }] })));
+
+    // WHEN
+    comp.ngOnInit();
+    comp.loadNextPage();
+
+    // THEN
+    expect(service.query).toHaveBeenLastCalledWith(expect.objectContaining({ cursor: 'aWQ6MTIz' }));
+    expect(comp.instances).toEqual([expect.objectContaining({ id: 123 }), expect.objectContaining({ id: 456 })]);
+    expect(comp.links.next).toBeUndefined();
+  });
+
   describe('trackId', () => {
     it('Should forward to instanceService', () => {
       const entity = { id: 123 };
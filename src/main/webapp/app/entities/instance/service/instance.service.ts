@@ -1,9 +1,11 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpResponse } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, expand, Observable, reduce } from 'rxjs';
 
 import { isPresent } from 'app/core/util/operators';
+import { ParseLinks } from 'app/core/util/parse-links.service';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { MAX_ITEMS_PER_PAGE } from 'app/config/pagination.constants';
 import { createRequestOption } from 'app/core/request/request-util';
 import { Search } from 'app/core/request/request.model';
 import { IInstance, NewInstance } from '../instance.model';
@@ -18,7 +20,11 @@ export class InstanceService {
   protected resourceUrl = this.applicationConfigService.getEndpointFor('api/instances');
   protected resourceSearchUrl = this.applicationConfigService.getEndpointFor('api/_search/instances');
 
-  constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
+  constructor(
+    protected http: HttpClient,
+    protected applicationConfigService: ApplicationConfigService,
+    protected parseLinks: ParseLinks
+  ) {}
 
   create(instance: NewInstance): Observable<EntityResponseType> {
     return this.http.post<IInstance>(this.resourceUrl, instance, { observe: 'response' });
@@ -41,6 +47,21 @@ export class InstanceService {
     return this.http.get<IInstance[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  /**
+   * Read every page, following the cursor of the Link header, for example to fill a relationship dropdown.
+   */
+  queryAll(req?: any): Observable<IInstance[]> {
+    const pageReq = { size: MAX_ITEMS_PER_PAGE, totalCount: 'false', ...req };
+    return this.query(pageReq).pipe(
+      expand((res: EntityArrayResponseType) => {
+        const link = res.headers.get('link');
+        const cursor = link ? this.parseLinks.parseAll(link).next?.cursor : undefined;
+        return cursor ? this.query({ ...pageReq, cursor }) : EMPTY;
+      }),
+      reduce((all: IInstance[], res: EntityArrayResponseType) => all.concat(res.body ?? []), [])
+    );
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
@@ -49,13 +49,13 @@ describe('Instance Management Update Component', () => {
   });
 
   describe('ngOnInit', () => {
-    it('Should call Application query and add missing value', () => {
+    it('Should call Application queryAll and add missing value', () => {
       const instance: IInstance = { id: 456 };
       const application: IApplication = { id: 34344 };
       instance.application = application;
 
       const applicationCollection: IApplication[] = [{ id: 86874 }];
-      jest.spyOn(applicationService, 'query').mockReturnValue(of(new HttpResponse({ body: applicationCollection })));
+      jest.spyOn(applicationService, 'queryAll').mockReturnValue(of(applicationCollection));
       const additionalApplications = [application];
       const expectedCollection: IApplication[] = [...additionalApplications, ...applicationCollection];
       jest.spyOn(applicationService, 'addApplicationToCollectionIfMissing').mockReturnValue(expectedCollection);
@@ -63,7 +63,7 @@ describe('Instance Management Update Component', () => {
       activatedRoute.data = of({ instance });
       comp.ngOnInit();
 
-      expect(applicationService.query).toHaveBeenCalled();
+      expect(applicationService.queryAll).toHaveBeenCalled();
       expect(applicationService.addApplicationToCollectionIfMissing).toHaveBeenCalledWith(
         applicationCollection,
         ...additionalApplications.map(expect.objectContaining)
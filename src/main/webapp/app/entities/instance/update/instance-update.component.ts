@@ -87,8 +87,7 @@ export class InstanceUpdateComponent implements OnInit {
 
   protected loadRelationshipsOptions(): void {
     this.applicationService
-      .query()
-      .pipe(map((res: HttpResponse<IApplication[]>) => res.body ?? []))
+      .queryAll()
       .pipe(
         map((applications: IApplication[]) =>
           this.applicationService.addApplicationToCollectionIfMissing<IApplication>(applications, this.instance?.application)
@@ -64,6 +64,34 @@ describe('WMISComponent Management Component', () => {
     expect(comp.wMISComponents?.[0]).toEqual(expect.objectContaining({ id: 123 }));
   });
 
+  it('Should list in id order, the only one the slices are read in', () => {
+    // WHEN
+    comp.ngOnInit();
+
+    // THEN
+    expect(service.query).toHaveBeenCalledWith(expect.not.objectContaining({ sort: expect.anything() }));
+    expect(comp.predicate).toEqual('id');
+    expect(comp.ascending).toBe(true);
+  });
+
+  it('Should load the next page from the cursor of the Link header', () => {
+    // GIVEN
+    const headers = new HttpHeaders().append('link', '<http://localhost/api/wmis-components?size=20&cursor=aWQ6MTIz>; rel="next"');
+    jest
+      .spyOn(service, 'query')
+      .mockReturnValueOnce(of(new HttpResponse({ body: [{ id: 123 }], headers })))
+      .mockReturnValueOnce(of(new HttpResponse({ body: [{ id: 456 }] })));
+
+    // WHEN
+    comp.ngOnInit();
+    comp.loadNextPage();
+
+    // THEN
+    expect(service.query).toHaveBeenLastCalledWith(expect.objectContaining({ cursor: 'aWQ6MTIz' }));
+    expect(comp.wMISComponents).toEqual([expect.objectContaining({ id: 123 }), expect.objectContaining({ id: 456 })]);
+    expect(comp.links.next).toBeUndefined();
+  });
+
   describe('trackId', () => {
     it('Should forward to wMISComponentService', () => {
       const entity = { id: 123 };
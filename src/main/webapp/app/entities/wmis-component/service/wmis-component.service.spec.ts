@@ -86,6 +86,27 @@ describe('WMISComponent Service', () => {
       expect(expectedResult).toMatchObject([expected]);
     });
 
+    it('should return every page of WMISComponent', () => {
+      const returnedFromService = { ...requireRestSample };
+
+      const expected = { ...sampleWithRequiredData };
+
+      service.queryAll().subscribe(resp => (expectedResult = resp));
+
+      const firstReq = httpMock.expectOne({ method: 'GET' });
+      expect(firstReq.request.params.has('cursor')).toBe(false);
+      firstReq.flush([returnedFromService], {
+        headers: {
+          link: '<http://localhost/api/wmis-components?size=1000&cursor=aWQ6MTIz>; rel="next",<http://localhost/api/wmis-components?size=1000>; rel="first"',
+        },
+      });
+      const nextReq = httpMock.expectOne({ method: 'GET' });
+      expect(nextReq.request.params.get('cursor')).toEqual('aWQ6MTIz');
+      nextReq.flush([returnedFromService], { headers: { link: '<http://localhost/api/wmis-components?size=1000>; rel="first"' } });
+      httpMock.verify();
+      expect(expectedResult).toMatchObject([expected, expected]);
+    });
+
     it('should delete a WMISComponent', () => {
       const expected = true;
 
@@ -49,13 +49,13 @@ describe('WMISComponent Management Update Component', () => {
   });
 
   describe('ngOnInit', () => {
-    it('Should call Instance query and add missing value', () => {
+    it('Should call Instance queryAll and add missing value', () => {
       const wMISComponent: IWMISComponent = { id: 456 };
       const instance: IInstance = { id: 38801 };
       wMISComponent.instance = instance;
 
       const instanceCollection: IInstance[] = [{ id: 49071 }];
-      jest.spyOn(instanceService, 'query').mockReturnValue(of(new HttpResponse({ body: instanceCollection })));
+      jest.spyOn(instanceService, 'queryAll').mockReturnValue(of(instanceCollection));
       const additionalInstances = [instance];
       const expectedCollection: IInstance[] = [...additionalInstances, ...instanceCollection];
       jest.spyOn(instanceService, 'addInstanceToCollectionIfMissing').mockReturnValue(expectedCollection);
@@ -63,7 +63,7 @@ describe('WMISComponent Management Update Component', () => {
       activatedRoute.data = of({ wMISComponent });
       comp.ngOnInit();
 
-      expect(instanceService.query).toHaveBeenCalled();
+      expect(instanceService.queryAll).toHaveBeenCalled();
       expect(instanceService.addInstanceToCollectionIfMissing).toHaveBeenCalledWith(
         instanceCollection,
         ...additionalInstances.map(expect.objectContaining)
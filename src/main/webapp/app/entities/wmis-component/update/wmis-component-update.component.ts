@@ -87,8 +87,7 @@ export class WMISComponentUpdateComponent implements OnInit {
 
   protected loadRelationshipsOptions(): void {
     this.instanceService
-      .query()
-      .pipe(map((res: HttpResponse<IInstance[]>) => res.body ?? []))
+      .queryAll()
       .pipe(
         map((instances: IInstance[]) =>
           this.instanceService.addInstanceToCollectionIfMissing<IInstance>(instances, this.wMISComponent?.instance)
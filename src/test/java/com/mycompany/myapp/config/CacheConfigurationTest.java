@@ -0,0 +1,143 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.WMISComponent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the cache regions of the {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private static final String COMPONENT_REGION = WMISComponent.class.getName();
+
+    private static final String AUTHORITY_REGION = Authority.class.getName();
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider").getCacheManager();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.getCacheNames().forEach(cacheManager::destroyCache);
+    }
+
+    @Test
+    void testRegionsKeepTheDefaultsWithoutOverride() {
+        customize();
+
+        CacheRuntimeConfiguration<Object, Object> configuration = runtimeConfiguration(COMPONENT_REGION);
+        SizedResourcePool heap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        assertThat(heap.getSize()).isEqualTo(100);
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1L, "value")).hasSeconds(3600);
+    }
+
+    @Test
+    void testRegionsAreSizedAndTieredByTheirOverride() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setMaxEntries(10L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put(COMPONENT_REGION, region);
+        customize();
+
+        CacheRuntimeConfiguration<Object, Object> configuration = runtimeConfiguration(COMPONENT_REGION);
+        assertThat(configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(10);
+        SizedResourcePool offHeap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.B);
+        assertThat(offHeap.getSize()).isEqualTo(DataSize.ofMegabytes(1).toBytes());
+
+        Cache<Object, Object> cache = cacheManager.getCache(COMPONENT_REGION);
+        for (long id = 0; id < 20; id++) {
+            cache.put(id, List.of("component", id));
+        }
+        assertThat(cache.get(0L)).isEqualTo(List.of("component", 0L));
+    }
+
+    @Test
+    void testRegionsNeverExpireWithAZeroTimeToLive() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToLiveSeconds(0L);
+        applicationProperties.getCache().getRegions().put(AUTHORITY_REGION, region);
+        customize();
+
+        assertThat(runtimeConfiguration(AUTHORITY_REGION).getExpiryPolicy().getExpiryForCreation("ROLE_USER", "value"))
+            .isEqualTo(ExpiryPolicy.INFINITE);
+    }
+
+    @Test
+    void testUpdateTimestampsNeverExpire() {
+        customize();
+
+        ExpiryPolicy<? super Object, ? super Object> timestamps = runtimeConfiguration(CacheConfiguration.UPDATE_TIMESTAMPS_REGION)
+            .getExpiryPolicy();
+        assertThat(timestamps.getExpiryForCreation("jhi_authority", 1L)).isEqualTo(ExpiryPolicy.INFINITE);
+        ExpiryPolicy<? super Object, ? super Object> queryResults = runtimeConfiguration(CacheConfiguration.QUERY_RESULTS_REGIONS.get(0))
+            .getExpiryPolicy();
+        assertThat(queryResults.getExpiryForCreation("query", "results")).hasSeconds(3600);
+    }
+
+    @Test
+    void testRegionsExpireWhenIdle() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToIdleSeconds(60L);
+        applicationProperties.getCache().getRegions().put(COMPONENT_REGION, region);
+        customize();
+
+        ExpiryPolicy<? super Object, ? super Object> expiry = runtimeConfiguration(COMPONENT_REGION).getExpiryPolicy();
+        assertThat(expiry.getExpiryForCreation(1L, "value")).hasSeconds(60);
+        assertThat(expiry.getExpiryForAccess(1L, () -> "value")).hasSeconds(60);
+    }
+
+    @Test
+    void testRegionsPublishTheirStatistics() {
+        customize();
+        Cache<Object, Object> cache = cacheManager.getCache(COMPONENT_REGION);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new JCacheMetrics<>(cache, List.of()).bindTo(meterRegistry);
+
+        cache.put(1L, "value");
+        cache.get(1L);
+        cache.get(2L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    private void customize() {
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> runtimeConfiguration(String region) {
+        Eh107Configuration<Object, Object> configuration = cacheManager.getCache(region).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+}
@@ -0,0 +1,246 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.mycompany.myapp.domain.WMISComponent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheInvalidationBroadcaster}, with two nodes running in the same JVM and sharing an
+ * in-memory channel.
+ */
+class CacheInvalidationBroadcasterTest {
+
+    private static final String COMPONENT_REGION = WMISComponent.class.getName();
+
+    private final InMemoryTransport transport = new InMemoryTransport();
+
+    private Node nodeA;
+
+    private Node nodeB;
+
+    @BeforeEach
+    public void setup() {
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testUpdatesInvalidateTheOtherNodes() {
+        nodeA.cache().put(1L, "old");
+        nodeB.cache().put(1L, "old");
+
+        nodeA.cache().put(1L, "new");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !nodeB.cache().containsKey(1L));
+        assertThat(nodeA.cache().get(1L)).isEqualTo("new");
+        assertThat(nodeB.received()).isEqualTo(1);
+        assertThat(nodeB.meterRegistry.get(CacheInvalidationBroadcaster.LATENCY_METER_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRemovalsInvalidateTheOtherNodes() {
+        nodeA.cache().put(1L, "value");
+        nodeB.cache().put(1L, "value");
+
+        nodeA.cache().remove(1L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !nodeB.cache().containsKey(1L));
+    }
+
+    @Test
+    void testInvalidationsAreNotBroadcastBack() {
+        nodeA.cache().put(1L, "old");
+        nodeB.cache().put(1L, "old");
+
+        nodeA.cache().put(1L, "new");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> nodeB.received() == 1);
+        assertThat(nodeA.sent()).isEqualTo(1);
+        assertThat(nodeB.sent()).isZero();
+        assertThat(nodeA.received()).isZero();
+        assertThat(nodeA.cache().get(1L)).isEqualTo("new");
+    }
+
+    @Test
+    void testNewEntriesAreNotBroadcast() {
+        nodeA.cache().put(1L, "value");
+        nodeB.cache().put(2L, "value");
+
+        assertThat(transport.published).isEmpty();
+        assertThat(nodeB.cache().get(2L)).isEqualTo("value");
+    }
+
+    @Test
+    void testTableWritesClearTheQueryResultsOfTheOtherNodes() {
+        String queryRegion = CacheConfiguration.QUERY_RESULTS_REGIONS.get(1);
+        nodeB.cacheManager.getCache(queryRegion).put("query", "results");
+
+        nodeA.timestamps().put("jhi_authority", 1L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !nodeB.cacheManager.getCache(queryRegion).containsKey("query"));
+        assertThat(nodeB.timestamps().get("jhi_authority")).isEqualTo(1L);
+    }
+
+    @Test
+    void testLaterLocalTimestampsAreKept() {
+        String queryRegion = CacheConfiguration.QUERY_RESULTS_REGIONS.get(1);
+        nodeB.cacheManager.getCache(queryRegion).put("query", "results");
+        nodeB.timestamps().put("jhi_authority", 5L);
+        await()
+            .atMost(Duration.ofSeconds(5))
+            .until(() ->
+                nodeA.meterRegistry
+                    .counter(CacheInvalidationBroadcaster.RECEIVED_METER_NAME, "cache", CacheConfiguration.UPDATE_TIMESTAMPS_REGION)
+                    .count() ==
+                1
+            );
+
+        nodeA.timestamps().put("jhi_authority", 3L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !nodeB.cacheManager.getCache(queryRegion).containsKey("query"));
+        assertThat(nodeB.timestamps().get("jhi_authority")).isEqualTo(5L);
+    }
+
+    @Test
+    void testReceivedTimestampsFollowTheWritingNode() {
+        // Ahead of the transaction, then at its commit
+        nodeA.timestamps().put("jhi_authority", 10L);
+        nodeA.timestamps().put("jhi_authority", 4L);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> Long.valueOf(4L).equals(nodeB.timestamps().get("jhi_authority")));
+        assertThat(transport.published).hasSize(2);
+    }
+
+    @Test
+    void testQueryResultsAreNotBroadcast() {
+        String queryRegion = CacheConfiguration.QUERY_RESULTS_REGIONS.get(1);
+        nodeA.cacheManager.getCache(queryRegion).put("query", "old");
+        nodeA.cacheManager.getCache(queryRegion).put("query", "new");
+        nodeA.cacheManager.getCache(queryRegion).remove("query");
+
+        assertThat(transport.published).isEmpty();
+    }
+
+    @Test
+    void testGapsClearTheCaches() {
+        nodeB.cache().put(1L, "value");
+
+        transport.gap();
+
+        assertThat(nodeB.cache().containsKey(1L)).isFalse();
+    }
+
+    @Test
+    void testHitRatioIsPublished() {
+        nodeA.cache().put(1L, "value");
+        nodeA.cache().get(1L);
+        nodeA.cache().get(2L);
+
+        assertThat(
+            nodeA.meterRegistry
+                .get(CacheInvalidationBroadcaster.HIT_RATIO_METER_NAME)
+                .tag(CacheInvalidationBroadcaster.CACHE_DIMENSION, COMPONENT_REGION)
+                .gauge()
+                .value()
+        )
+            .isEqualTo(0.5);
+    }
+
+    /**
+     * An instance of the application, with its own cache manager, caches and broadcaster.
+     */
+    private class Node {
+
+        private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        private final CacheManager cacheManager;
+
+        private final CacheInvalidationBroadcaster broadcaster;
+
+        Node() {
+            CachingProvider provider = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+            // A cache manager is shared per class loader, so each node gets a class loader of its own
+            ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+            cacheManager = provider.getCacheManager(provider.getDefaultURI(), classLoader);
+            new CacheConfiguration(new JHipsterProperties(), new ApplicationProperties()).cacheManagerCustomizer().customize(cacheManager);
+            broadcaster = new CacheInvalidationBroadcaster(cacheManager, transport, meterRegistry, Clock.systemUTC());
+            broadcaster.start();
+        }
+
+        Cache<Object, Object> cache() {
+            return cacheManager.getCache(COMPONENT_REGION);
+        }
+
+        Cache<Object, Object> timestamps() {
+            return cacheManager.getCache(CacheConfiguration.UPDATE_TIMESTAMPS_REGION);
+        }
+
+        double sent() {
+            return meterRegistry.counter(CacheInvalidationBroadcaster.SENT_METER_NAME, "cache", COMPONENT_REGION).count();
+        }
+
+        double received() {
+            return meterRegistry.counter(CacheInvalidationBroadcaster.RECEIVED_METER_NAME, "cache", COMPONENT_REGION).count();
+        }
+
+        void close() {
+            broadcaster.stop();
+            cacheManager.close();
+        }
+    }
+
+    /**
+     * Delivers each message synchronously to every subscriber, the publishing node included.
+     */
+    private static class InMemoryTransport implements CacheInvalidationTransport {
+
+        private final List<String> published = new CopyOnWriteArrayList<>();
+
+        private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+        private final List<Runnable> gapHandlers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String message) {
+            published.add(message);
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+            subscribers.add(onMessage);
+            gapHandlers.add(onGap);
+        }
+
+        void gap() {
+            gapHandlers.forEach(Runnable::run);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,113 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Unit tests for the password encoders of the {@link PasswordEncoderConfiguration}.
+ */
+class PasswordEncoderConfigurationTest {
+
+    private static final String PASSWORD = "password";
+
+    private static final long MILLIS = 1_000_000;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void testLegacyHashesAreMatchedAndUpgraded() {
+        String legacy = new BCryptPasswordEncoder().encode(PASSWORD);
+        PasswordEncoder passwordEncoder = passwordEncoder();
+
+        assertThat(passwordEncoder.matches(PASSWORD, legacy)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", legacy)).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+        String upgraded = passwordEncoder.encode(PASSWORD);
+        assertThat(upgraded).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    @Test
+    void testHashesOfALowerCostAreUpgraded() {
+        String weaker = passwordEncoder().encode(PASSWORD);
+        applicationProperties.getPassword().setBcryptStrength(11);
+        PasswordEncoder passwordEncoder = passwordEncoder();
+
+        assertThat(passwordEncoder.matches(PASSWORD, weaker)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(passwordEncoder.encode(PASSWORD)).startsWith("{bcrypt}$2a$11$");
+    }
+
+    @Test
+    void testHashesOfAnotherAlgorithmAreUpgraded() {
+        String bcrypt = passwordEncoder().encode(PASSWORD);
+        applicationProperties.getPassword().setEncoder("argon2");
+        PasswordEncoder passwordEncoder = passwordEncoder();
+
+        String argon2 = passwordEncoder.encode(PASSWORD);
+        assertThat(argon2).startsWith("{argon2}$argon2id$");
+        assertThat(argon2.length()).isLessThanOrEqualTo(255);
+        assertThat(passwordEncoder.matches(PASSWORD, argon2)).isTrue();
+        assertThat(passwordEncoder.matches(PASSWORD, bcrypt)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(bcrypt)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(argon2)).isFalse();
+    }
+
+    @Test
+    void testPbkdf2HashesAreMatched() {
+        applicationProperties.getPassword().setEncoder("pbkdf2");
+        applicationProperties.getPassword().setPbkdf2Iterations(1000);
+        PasswordEncoder passwordEncoder = passwordEncoder();
+
+        String pbkdf2 = passwordEncoder.encode(PASSWORD);
+        assertThat(pbkdf2).startsWith("{pbkdf2}");
+        assertThat(pbkdf2.length()).isLessThanOrEqualTo(255);
+        assertThat(passwordEncoder.matches(PASSWORD, pbkdf2)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", pbkdf2)).isFalse();
+    }
+
+    @Test
+    void testUnknownEncoderIsRejected() {
+        applicationProperties.getPassword().setEncoder("md5");
+
+        assertThatThrownBy(this::passwordEncoder).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("md5");
+    }
+
+    @Test
+    void testBenchmarkNeverGoesBelowTheDefaultCost() {
+        applicationProperties.getPassword().setTargetLatencyMs(1);
+
+        assertThat(passwordEncoder().encode(PASSWORD)).startsWith("{bcrypt}$2a$10$");
+    }
+
+    @Test
+    void testBcryptStrengthDoublesWithinTheTarget() {
+        assertThat(PasswordEncoderConfiguration.bcryptStrength(50 * MILLIS, 49 * MILLIS)).isEqualTo(10);
+        assertThat(PasswordEncoderConfiguration.bcryptStrength(50 * MILLIS, 199 * MILLIS)).isEqualTo(11);
+        assertThat(PasswordEncoderConfiguration.bcryptStrength(50 * MILLIS, 200 * MILLIS)).isEqualTo(12);
+        assertThat(PasswordEncoderConfiguration.bcryptStrength(1, 1000 * MILLIS))
+            .isEqualTo(PasswordEncoderConfiguration.BCRYPT_MAX_STRENGTH);
+    }
+
+    @Test
+    void testArgon2IterationsGrowLinearlyWithinTheTarget() {
+        assertThat(PasswordEncoderConfiguration.argon2Iterations(30 * MILLIS, 10 * MILLIS)).isEqualTo(3);
+        assertThat(PasswordEncoderConfiguration.argon2Iterations(30 * MILLIS, 100 * MILLIS)).isEqualTo(10);
+        assertThat(PasswordEncoderConfiguration.argon2Iterations(0, 100 * MILLIS))
+            .isEqualTo(PasswordEncoderConfiguration.ARGON2_MAX_ITERATIONS);
+    }
+
+    private PasswordEncoder passwordEncoder() {
+        return new PasswordEncoderConfiguration(applicationProperties).delegatingPasswordEncoder();
+    }
+}
@@ -0,0 +1,175 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for the {@link ReadReplicaRoutingDataSource}, with mocked pools standing in for the databases.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private ApplicationProperties.ReadReplicas properties;
+
+    private MeterRegistry meterRegistry;
+
+    private Connection primaryConnection;
+
+    private DataSource primary;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        properties = new ApplicationProperties.ReadReplicas();
+        properties.setMaxLagSeconds(10);
+        meterRegistry = new SimpleMeterRegistry();
+        primaryConnection = mock(Connection.class);
+        primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        List.copyOf(TransactionSynchronizationManager.getResourceMap().keySet()).forEach(TransactionSynchronizationManager::unbindResource);
+    }
+
+    @Test
+    void testWritesGoToThePrimary() throws Exception {
+        Connection replicaConnection = connectionLagging(1);
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", pool(replicaConnection)));
+        dataSource.checkLag();
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(connections("primary")).isEqualTo(1);
+    }
+
+    @Test
+    void testReadsGoToTheReplicasInTurn() throws Exception {
+        Connection replica1Connection = connectionLagging(0);
+        Connection replica2Connection = connectionLagging(2);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", pool(replica1Connection));
+        replicas.put("replica-2", pool(replica2Connection));
+        ReadReplicaRoutingDataSource dataSource = routing(replicas);
+        dataSource.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+        assertThat(connections("replica-1")).isEqualTo(2);
+        assertThat(connections("replica-2")).isEqualTo(1);
+        assertThat(meterRegistry.get(ReadReplicaRoutingDataSource.LAG_METER_NAME).tag("pool", "replica-2").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void testReadsFallBackToThePrimaryWhenTheReplicaLagsTooMuch() throws Exception {
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", pool(connectionLagging(60))));
+        dataSource.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get(ReadReplicaRoutingDataSource.FALLBACKS_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testReadsFallBackToThePrimaryBeforeTheFirstCheck() throws Exception {
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", pool(connectionLagging(0))));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testReadsFallBackToThePrimaryWhenTheReplicaRefusesConnections() throws Exception {
+        Connection replicaConnection = connectionLagging(0);
+        DataSource replica = pool(replicaConnection);
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", replica));
+        dataSource.checkLag();
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(2)).getConnection();
+        assertThat(meterRegistry.get(ReadReplicaRoutingDataSource.FALLBACKS_METER_NAME).counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testPrimaryReadOnlyTransactionsStayOnThePrimary() throws Exception {
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", pool(connectionLagging(0))));
+        dataSource.checkLag();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        TransactionSynchronizationManager.setCurrentTransactionName(Constants.PRIMARY_READ_ONLY_TRANSACTION);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get(ReadReplicaRoutingDataSource.FALLBACKS_METER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void testSessionsOnAReplicaStopFillingTheCaches() throws Exception {
+        Connection replicaConnection = connectionLagging(0);
+        ReadReplicaRoutingDataSource dataSource = routing(Map.of("replica-1", pool(replicaConnection)));
+        Session session = mock(Session.class);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        TransactionSynchronizationManager.bindResource(mock(EntityManagerFactory.class), new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // No replica is available yet: the rows come from the primary and may be cached
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(session, never()).setCacheMode(any());
+
+        dataSource.checkLag();
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        verify(session).setCacheMode(CacheMode.GET);
+    }
+
+    private ReadReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        return new ReadReplicaRoutingDataSource(primary, replicas, properties, meterRegistry);
+    }
+
+    private double connections(String pool) {
+        return meterRegistry.get(ReadReplicaRoutingDataSource.CONNECTIONS_METER_NAME).tag("pool", pool).counter().count();
+    }
+
+    private static DataSource pool(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static Connection connectionLagging(double lagSeconds) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        return connection;
+    }
+}
@@ -13,6 +13,8 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String LOGIN_ATTEMPTS_METER_EXPECTED_NAME = "security.authentication.login-attempts";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -67,4 +69,37 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testLoginAttemptsCountersByDecisionAreCreated() {
+        meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "allowed").counter();
+
+        meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "throttled-login").counter();
+
+        meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "throttled-address").counter();
+
+        meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "unknown-login").counter();
+
+        Collection<Counter> counters = meterRegistry.find(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).counters();
+
+        assertThat(counters).hasSize(4);
+    }
+
+    @Test
+    void testLoginAttemptsCountMethodsShouldBeBoundToCorrectCounters() {
+        securityMetersService.trackLoginAllowed();
+        securityMetersService.trackLoginThrottledByLogin();
+        securityMetersService.trackLoginThrottledByAddress();
+        securityMetersService.trackLoginThrottledByAddress();
+        securityMetersService.trackLoginUnknown();
+
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "allowed").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "throttled-login").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "throttled-address").counter().count())
+            .isEqualTo(2);
+
+        assertThat(meterRegistry.get(LOGIN_ATTEMPTS_METER_EXPECTED_NAME).tag("decision", "unknown-login").counter().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,135 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+class BoundedPasswordEncoderTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("password-encoder-test-");
+        executor.initialize();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testPasswordsAreHashedOnTheExecutor() {
+        PasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new ThreadNamePasswordEncoder(), executor);
+
+        assertThat(passwordEncoder.encode("password")).startsWith("password-encoder-test-");
+        assertThat(passwordEncoder.matches("password", "password")).isTrue();
+    }
+
+    @Test
+    void testPasswordsAreRefusedWhenTheQueueIsFull() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(hashing, release), executor);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        while (executor.getThreadPoolExecutor().getQueue().isEmpty()) {
+            Thread.sleep(1);
+        }
+
+        assertThatThrownBy(() -> passwordEncoder.encode("refused")).isInstanceOf(PasswordEncoderBusyException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void testManyPasswordsAreHashedWithoutFillingTheQueue() {
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new PlainTextPasswordEncoder(), executor);
+        List<String> passwords = IntStream.range(0, 100).mapToObj(i -> "password-" + i).collect(Collectors.toList());
+
+        assertThat(passwordEncoder.encodeAll(passwords, 1)).isEqualTo(passwords);
+    }
+
+    @Test
+    void testFailuresOfTheEncoderAreRethrown() {
+        PasswordEncoder passwordEncoder = new BoundedPasswordEncoder(new PlainTextPasswordEncoder(), executor);
+
+        assertThatThrownBy(() -> passwordEncoder.encode(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    private static class PlainTextPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+
+    private static class ThreadNamePasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return Thread.currentThread().getName().startsWith("password-encoder-test-");
+        }
+    }
+
+    private static class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch hashing;
+
+        private final CountDownLatch release;
+
+        BlockingPasswordEncoder(CountDownLatch hashing, CountDownLatch release) {
+            this.hashing = hashing;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.CacheConfiguration;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserCache;
+import com.mycompany.myapp.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Load test of {@link DomainUserDetailsService#loadUserByUsername(String)}: the throughput and latency of many threads
+ * looking up users by login and by email, through the user indexes of the {@link CacheConfiguration}. As in
+ * {@code application.yml}, the indexes keep their most recently used entries on the heap and the others off-heap, within
+ * a number of bytes.
+ * <p>
+ * The queries by login or email pause like a round trip to the database, while the lookups by id are served from a map,
+ * like the second-level cache of the users. Excluded from the default test run.
+ */
+@Tag("benchmark")
+class DomainUserDetailsServiceLoadTest {
+
+    private static final int USERS = 2000;
+
+    private static final int THREADS = 64;
+
+    private static final int LOOKUPS = 32000;
+
+    private static final long QUERY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Logger log = LoggerFactory.getLogger(DomainUserDetailsServiceLoadTest.class);
+
+    private final Map<Long, User> entities = new ConcurrentHashMap<>();
+
+    private final AtomicLong queries = new AtomicLong();
+
+    private CacheManager cacheManager;
+
+    private DomainUserDetailsService userDetailsService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        for (String index : List.of(UserCache.USER_IDS_BY_LOGIN_CACHE, UserCache.USER_IDS_BY_EMAIL_CACHE)) {
+            ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+            region.setMaxEntries((long) USERS / 10);
+            region.setOffHeapSize(DataSize.ofMegabytes(1));
+            applicationProperties.getCache().getRegions().put(index, region);
+        }
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider").getCacheManager();
+        new CacheConfiguration(new JHipsterProperties(), applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        for (long id = 0; id < USERS; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setLogin("user-" + id);
+            user.setEmail("user-" + id + "@localhost");
+            user.setPassword("hash-" + id);
+            user.setActivated(true);
+            user.setAuthorities(Set.of(authority));
+            entities.put(id, user);
+        }
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(entities.get(invocation.<Long>getArgument(0))));
+        when(userRepository.findOneWithAuthoritiesByLogin(anyString()))
+            .thenAnswer(invocation -> query(user -> invocation.getArgument(0).equals(user.getLogin())));
+        when(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(anyString()))
+            .thenAnswer(invocation -> query(user -> invocation.<String>getArgument(0).equalsIgnoreCase(user.getEmail())));
+        UserCache userCache = new UserCache(userRepository, new JCacheCacheManager(cacheManager));
+        userDetailsService = new DomainUserDetailsService(userRepository, userCache, mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.getCacheNames().forEach(cacheManager::destroyCache);
+    }
+
+    @Test
+    void loadUserByUsernameUnderConcurrency() throws Exception {
+        long coldQueries = measure("Cold caches");
+        long warmQueries = measure("Warm caches");
+
+        assertThat(coldQueries).isPositive();
+        assertThat(warmQueries).isZero();
+    }
+
+    @Test
+    void changedEmailsAreNeverFoundThroughTheIndex() {
+        assertThat(userDetailsService.loadUserByUsername("user-1@localhost").getUsername()).isEqualTo("user-1");
+        entities.get(1L).setEmail("renamed@localhost");
+        queries.set(0);
+
+        assertThat(userDetailsService.isKnown("USER-1@localhost")).isFalse();
+        assertThat(queries.get()).isEqualTo(1);
+    }
+
+    /**
+     * @return the queries by login or email made during the measured lookups.
+     */
+    private long measure(String scenario) throws Exception {
+        queries.set(0);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> {
+                long[] latencies = new long[LOOKUPS / THREADS];
+                for (int i = 0; i < latencies.length; i++) {
+                    long id = (thread * 7919L + i * 31L) % USERS;
+                    String username = i % 4 == 0 ? "user-" + id + "@localhost" : "USER-" + id;
+                    long start = System.nanoTime();
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    latencies[i] = System.nanoTime() - start;
+                    assertThat(userDetails.getUsername()).isEqualTo("user-" + id);
+                }
+                return latencies;
+            });
+        }
+        List<Long> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (Future<long[]> result : executor.invokeAll(tasks)) {
+                for (long latency : result.get()) {
+                    latencies.add(latency);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Collections.sort(latencies);
+        log.info(
+            "{}: {} lookups/s over {} threads, p50 {} us, p99 {} us; {} queries",
+            scenario,
+            Math.round(latencies.size() * 1e9 / elapsed),
+            THREADS,
+            latencies.get(latencies.size() / 2) / 1000,
+            latencies.get(latencies.size() * 99 / 100 - 1) / 1000,
+            queries.get()
+        );
+        return queries.get();
+    }
+
+    private Optional<User> query(Predicate<User> matches) {
+        queries.incrementAndGet();
+        LockSupport.parkNanos(QUERY_NANOS);
+        return entities.values().stream().filter(matches).findFirst();
+    }
+}
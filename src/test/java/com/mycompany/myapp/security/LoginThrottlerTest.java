@@ -0,0 +1,153 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.repository.UserCache;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Test class for the {@link LoginThrottler}.
+ */
+class LoginThrottlerTest {
+
+    private static final String ADDRESS = "192.0.2.1";
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private ApplicationProperties applicationProperties;
+
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findOneWithAuthoritiesByLogin(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findOneWithAuthoritiesByLogin("user")).thenReturn(Optional.of(new User()));
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+    }
+
+    @Test
+    void testFailedLoginsAreThrottled() {
+        LoginThrottler loginThrottler = loginThrottler();
+        for (int i = 0; i < applicationProperties.getLoginThrottle().getLoginBurst(); i++) {
+            loginThrottler.checkAllowed("User", ADDRESS);
+            loginThrottler.recordFailure("User");
+        }
+
+        assertThatThrownBy(() -> loginThrottler.checkAllowed("user", "192.0.2.2"))
+            .isInstanceOfSatisfying(LoginThrottledException.class, e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(12));
+        loginThrottler.checkAllowed("other", ADDRESS);
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        loginThrottler.checkAllowed("user", ADDRESS);
+
+        assertThat(decisions("allowed")).isEqualTo(7);
+        assertThat(decisions("throttled-login")).isEqualTo(1);
+    }
+
+    @Test
+    void testSuccessfulLoginsAreNeverThrottledByLogin() {
+        applicationProperties.getLoginThrottle().setAddressBurst(1000);
+        LoginThrottler loginThrottler = loginThrottler();
+
+        for (int i = 0; i < 100; i++) {
+            loginThrottler.checkAllowed("user", "192.0.2." + i);
+        }
+
+        assertThat(decisions("allowed")).isEqualTo(100);
+    }
+
+    @Test
+    void testAttemptsFromAnAddressAreThrottled() {
+        LoginThrottler loginThrottler = loginThrottler();
+        for (int i = 0; i < applicationProperties.getLoginThrottle().getAddressBurst(); i++) {
+            loginThrottler.checkAllowed("login-" + i, ADDRESS);
+        }
+
+        assertThatThrownBy(() -> loginThrottler.checkAllowed("user", ADDRESS))
+            .isInstanceOfSatisfying(LoginThrottledException.class, e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+        loginThrottler.checkAllowed("user", "192.0.2.2");
+
+        assertThat(decisions("throttled-address")).isEqualTo(1);
+    }
+
+    @Test
+    void testUnknownLoginsAreRecognized() {
+        LoginThrottler loginThrottler = loginThrottler();
+
+        assertThat(loginThrottler.isUnknown("User")).isFalse();
+        assertThat(loginThrottler.isUnknown("unknown")).isTrue();
+        assertThat(loginThrottler.isUnknown("unknown@example.com")).isTrue();
+        assertThat(decisions("unknown-login")).isEqualTo(2);
+    }
+
+    @Test
+    void testLoginsAreLookedUpOnThePrimary() {
+        loginThrottler().isUnknown("user");
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getName()).isEqualTo(Constants.PRIMARY_READ_ONLY_TRANSACTION);
+    }
+
+    @Test
+    void testDisabledThrottleAllowsEverything() {
+        applicationProperties.getLoginThrottle().setEnabled(false);
+        LoginThrottler loginThrottler = loginThrottler();
+
+        for (int i = 0; i < 100; i++) {
+            loginThrottler.checkAllowed("user", ADDRESS);
+            loginThrottler.recordFailure("user");
+        }
+
+        assertThat(loginThrottler.isUnknown("unknown")).isFalse();
+        verifyNoInteractions(userRepository);
+        assertThat(decisions("allowed")).isZero();
+    }
+
+    private LoginThrottler loginThrottler() {
+        return new LoginThrottler(
+            applicationProperties,
+            new DomainUserDetailsService(
+                userRepository,
+                new UserCache(userRepository, new ConcurrentMapCacheManager()),
+                transactionManager
+            ),
+            new SecurityMetersService(meterRegistry),
+            ticker::get
+        );
+    }
+
+    private double decisions(String decision) {
+        return meterRegistry
+            .get(SecurityMetersService.LOGIN_ATTEMPTS_METER_NAME)
+            .tag(SecurityMetersService.LOGIN_ATTEMPTS_METER_DECISION_DIMENSION, decision)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link StripedTokenBuckets}.
+ */
+class StripedTokenBucketsTest {
+
+    private static final int BURST = 5;
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private StripedTokenBuckets buckets;
+
+    @BeforeEach
+    public void setup() {
+        ticker.set(System.nanoTime());
+        buckets = new StripedTokenBuckets(1024, BURST, 60, ticker::get);
+    }
+
+    @Test
+    void testBurstIsGrantedThenThrottled() {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(buckets.tryAcquire("key")).isZero();
+        }
+
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS);
+        assertThat(buckets.waitNanos("key")).isEqualTo(INTERVAL_NANOS);
+        assertThat(buckets.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void testTokensArePutBackOverTime() {
+        for (int i = 0; i < BURST; i++) {
+            buckets.acquire("key");
+        }
+        ticker.addAndGet(INTERVAL_NANOS / 2);
+        assertThat(buckets.tryAcquire("key")).isEqualTo(INTERVAL_NANOS / 2);
+
+        ticker.addAndGet(INTERVAL_NANOS / 2);
+        assertThat(buckets.tryAcquire("key")).isZero();
+        assertThat(buckets.tryAcquire("key")).isPositive();
+
+        ticker.addAndGet(BURST * INTERVAL_NANOS);
+        assertThat(buckets.waitNanos("key")).isZero();
+    }
+
+    @Test
+    void testAcquiringAnEmptyBucketKeepsItEmptyForOneInterval() {
+        for (int i = 0; i < 100; i++) {
+            buckets.acquire("key");
+        }
+
+        assertThat(buckets.waitNanos("key")).isEqualTo(INTERVAL_NANOS);
+        ticker.addAndGet(INTERVAL_NANOS);
+        assertThat(buckets.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void testManyKeysDoNotEmptyTheBucketOfAnother() {
+        StripedTokenBuckets large = new StripedTokenBuckets(65536, 1, 1, ticker::get);
+        for (int i = 0; i < 200; i++) {
+            large.acquire("attacker-" + i);
+        }
+
+        assertThat(large.waitNanos("user")).isZero();
+    }
+
+    @Test
+    void testContendedBucketGrantsAtMostTwiceTheBurst() throws Exception {
+        StripedTokenBuckets contended = new StripedTokenBuckets(1024, 100, 1, ticker::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (contended.tryAcquire("key") == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                });
+            }
+            int granted = 0;
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                granted += result.get();
+            }
+
+            assertThat(granted).isBetween(100, 200);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
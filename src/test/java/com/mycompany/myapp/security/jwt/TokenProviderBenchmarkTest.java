@@ -0,0 +1,92 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.management.SecurityMetersService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the cost of signing and verifying the tokens with HS512, RS256 and ES256, with the cache of the validated
+ * tokens disabled. Excluded from the default test run.
+ */
+@Tag("benchmark")
+class TokenProviderBenchmarkTest {
+
+    private static final int TOKENS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(TokenProviderBenchmarkTest.class);
+
+    @Test
+    void benchmarkSigningAndVerification() {
+        benchmark("HS512", new ApplicationProperties());
+        benchmark("RS256", ring("RS256", "RSA"));
+        benchmark("ES256", ring("ES256", "EC"));
+    }
+
+    private void benchmark(String algorithm, ApplicationProperties applicationProperties) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            new NoOpCacheManager()
+        );
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            "user",
+            Set.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+        // Warm-up
+        for (int i = 0; i < TOKENS; i++) {
+            tokenProvider.validateToken(tokenProvider.createToken(authentication, false));
+        }
+
+        List<String> tokens = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < TOKENS; i++) {
+            tokens.add(tokenProvider.createToken(authentication, false));
+        }
+        long signing = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (String token : tokens) {
+            assertThat(tokenProvider.validateToken(token)).isTrue();
+        }
+        long verification = System.nanoTime() - start;
+
+        log.info(
+            "{}: {} us to sign a token, {} us to verify it, {} bytes",
+            algorithm,
+            signing / 1000 / TOKENS,
+            verification / 1000 / TOKENS,
+            tokens.get(0).length()
+        );
+    }
+
+    private static ApplicationProperties ring(String algorithm, String keyAlgorithm) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwt().setSigningKeyId("benchmark");
+        applicationProperties
+            .getJwt()
+            .getKeys()
+            .add(TokenProviderTest.ringKey("benchmark", algorithm, TokenProviderTest.generateKeyPair(keyAlgorithm), true));
+        return applicationProperties;
+    }
+}
@@ -1,7 +1,10 @@
 package com.mycompany.myapp.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
 
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.management.SecurityMetersService;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -11,9 +14,14 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -25,18 +33,26 @@ class TokenProviderTest {
 
     private static final long ONE_MINUTE = 60000;
 
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
     private Key key;
     private TokenProvider tokenProvider;
 
     @BeforeEach
     public void setup() {
         JHipsterProperties jHipsterProperties = new JHipsterProperties();
-        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        String base64Secret = BASE64_SECRET;
         jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new ApplicationProperties(),
+            securityMetersService,
+            new ConcurrentMapCacheManager()
+        );
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -88,6 +104,91 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticationIsReadFromTheValidatedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+        // Tokens already verified are not parsed again
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", null);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).isEqualTo(token);
+        assertThat(authentication.getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void testReturnFalseWhenValidatedJWTExpires() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 2000);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !tokenProvider.validateToken(token));
+    }
+
+    @Test
+    void testTokensAreSignedWithTheSigningKeyOfTheRing() {
+        KeyPair keyPair = generateKeyPair("EC");
+        TokenProvider ringTokenProvider = ringTokenProvider("2026-10", true, ringKey("2026-10", "ES256", keyPair, true));
+
+        String token = ringTokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build().parseClaimsJws(token).getHeader().getKeyId())
+            .isEqualTo("2026-10");
+        assertThat(ringTokenProvider.validateToken(token)).isTrue();
+        assertThat(ringTokenProvider.getAuthentication(token).getName()).isEqualTo("anonymous");
+    }
+
+    @Test
+    void testVerifyOnlyNodesVerifyTheTokensOfTheSigningNodes() {
+        KeyPair keyPair = generateKeyPair("RSA");
+        TokenProvider signingNode = ringTokenProvider("2026-10", true, ringKey("2026-10", "RS256", keyPair, true));
+        TokenProvider verifyingNode = ringTokenProvider(null, false, ringKey("2026-10", "RS256", keyPair, false));
+
+        assertThat(verifyingNode.validateToken(signingNode.createToken(createAuthentication(), false))).isTrue();
+        assertThat(verifyingNode.validateToken(tokenProvider.createToken(createAuthentication(), false))).isFalse();
+        assertThatThrownBy(() -> verifyingNode.createToken(createAuthentication(), false)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testTokensOfThePreviousKeyAreValidAfterRotation() {
+        KeyPair previousKeyPair = generateKeyPair("EC");
+        KeyPair nextKeyPair = generateKeyPair("EC");
+        String previousToken = ringTokenProvider("2026-09", true, ringKey("2026-09", "ES256", previousKeyPair, true))
+            .createToken(createAuthentication(), false);
+
+        TokenProvider rotatedTokenProvider = ringTokenProvider(
+            "2026-10",
+            true,
+            ringKey("2026-09", "ES256", previousKeyPair, false),
+            ringKey("2026-10", "ES256", nextKeyPair, true)
+        );
+
+        assertThat(rotatedTokenProvider.validateToken(previousToken)).isTrue();
+        assertThat(rotatedTokenProvider.validateToken(rotatedTokenProvider.createToken(createAuthentication(), false))).isTrue();
+        assertThat(ringTokenProvider(null, true, ringKey("2026-10", "ES256", nextKeyPair, false)).validateToken(previousToken)).isFalse();
+    }
+
+    @Test
+    void testReturnFalseWhenJWTisSignedWithTheKeyOfAnotherId() {
+        KeyPair keyPair = generateKeyPair("EC");
+        TokenProvider signingNode = ringTokenProvider("2026-10", true, ringKey("2026-10", "ES256", keyPair, true));
+        String token = signingNode.createToken(createAuthentication(), false);
+
+        TokenProvider otherRingTokenProvider = ringTokenProvider(
+            null,
+            true,
+            ringKey("2026-10", "ES256", generateKeyPair("EC"), false),
+            ringKey("2026-11", "ES256", keyPair, false)
+        );
+
+        assertThat(otherRingTokenProvider.validateToken(token)).isFalse();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -96,7 +197,12 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new ApplicationProperties(),
+            securityMetersService,
+            new ConcurrentMapCacheManager()
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,12 +216,51 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            new ApplicationProperties(),
+            securityMetersService,
+            new ConcurrentMapCacheManager()
+        );
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    private TokenProvider ringTokenProvider(String signingKeyId, boolean withSecret, ApplicationProperties.Jwt.Key... keys) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        if (withSecret) {
+            jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        }
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getJwt().setSigningKeyId(signingKeyId);
+        applicationProperties.getJwt().getKeys().addAll(List.of(keys));
+        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+
+        return new TokenProvider(jHipsterProperties, applicationProperties, securityMetersService, new ConcurrentMapCacheManager());
+    }
+
+    static ApplicationProperties.Jwt.Key ringKey(String id, String algorithm, KeyPair keyPair, boolean withPrivateKey) {
+        ApplicationProperties.Jwt.Key key = new ApplicationProperties.Jwt.Key();
+        key.setId(id);
+        key.setAlgorithm(algorithm);
+        key.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            key.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        }
+        return key;
+    }
+
+    static KeyPair generateKeyPair(String algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            generator.initialize(algorithm.equals("EC") ? 256 : 2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,157 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.TopologyRow;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.ComponentTopologySearchRepository;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ComponentTopologyIndexerTest {
+
+    private WMISComponentRepository wMISComponentRepository;
+
+    private ComponentTopologySearchRepository componentTopologySearchRepository;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ComponentTopologyIndexer componentTopologyIndexer;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchIndexing().setBatchSize(2);
+        wMISComponentRepository = mock(WMISComponentRepository.class);
+        componentTopologySearchRepository = mock(ComponentTopologySearchRepository.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        componentTopologyIndexer =
+            new ComponentTopologyIndexer(
+                wMISComponentRepository,
+                componentTopologySearchRepository,
+                elasticsearchOperations,
+                mock(PlatformTransactionManager.class),
+                applicationProperties
+            );
+    }
+
+    @Test
+    void testComponentWithoutInstanceIsNotReadAgain() {
+        WMISComponent component = new WMISComponent().id(1L).componentName("AAAAAAAAAA");
+
+        componentTopologyIndexer.refresh(WMISComponent.class, List.of(component), Set.of(2L), null);
+
+        verifyNoInteractions(wMISComponentRepository);
+        List<ComponentTopology> saved = captureSaved(1).get(0);
+        assertThat(saved).singleElement().satisfies(topology -> {
+            assertThat(topology.getId()).isEqualTo(1L);
+            assertThat(topology.getComponentName()).isEqualTo("AAAAAAAAAA");
+            assertThat(topology.getApplicationName()).isNull();
+        });
+        verify(componentTopologySearchRepository).deleteAllById(Set.of(2L));
+    }
+
+    @Test
+    void testComponentOfAnInstanceIsReadWithItsParents() {
+        WMISComponent component = new WMISComponent().id(1L).instance(new Instance().id(10L));
+        when(wMISComponentRepository.findTopologyByComponentIdIn(Set.of(1L))).thenReturn(List.of(row(100L, "APP", 10L, "FR", 1L)));
+
+        componentTopologyIndexer.refresh(WMISComponent.class, List.of(component), Set.of(), null);
+
+        List<ComponentTopology> saved = captureSaved(1).get(0);
+        assertThat(saved).singleElement().satisfies(topology -> {
+            assertThat(topology.getCountryName()).isEqualTo("FR");
+            assertThat(topology.getApplicationName()).isEqualTo("APP");
+        });
+        verify(componentTopologySearchRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    void testApplicationFansOutToAllOfItsComponents() {
+        PageRequest page = PageRequest.of(0, 2);
+        when(wMISComponentRepository.findTopologyByApplicationIdIn(Set.of(100L), Long.MIN_VALUE, page))
+            .thenReturn(new SliceImpl<>(List.of(row(100L, "RENAMED", 10L, "FR", 1L), row(100L, "RENAMED", 10L, "FR", 2L)), page, true));
+        when(wMISComponentRepository.findTopologyByApplicationIdIn(Set.of(100L), 2L, page))
+            .thenReturn(new SliceImpl<>(List.of(row(100L, "RENAMED", 11L, "DE", 3L)), page, false));
+        IndexCoordinates shadowIndex = IndexCoordinates.of("componenttopology_v2");
+
+        componentTopologyIndexer.refresh(Application.class, List.of(new Application().id(100L)), Set.of(), shadowIndex);
+
+        List<List<ComponentTopology>> saved = captureSaved(2);
+        assertThat(saved.stream().map(List::size)).containsExactly(2, 1);
+        assertThat(saved.stream().flatMap(List::stream).map(ComponentTopology::getId).collect(Collectors.toList()))
+            .containsExactly(1L, 2L, 3L);
+        assertThat(saved.stream().flatMap(List::stream).map(ComponentTopology::getApplicationName)).containsOnly("RENAMED");
+        verify(elasticsearchOperations, times(2)).save(any(Iterable.class), eq(shadowIndex));
+    }
+
+    @Test
+    void testDeletedInstanceHasNoDocumentToUpdate() {
+        componentTopologyIndexer.refresh(Instance.class, List.of(), Set.of(10L), null);
+
+        verifyNoInteractions(wMISComponentRepository, componentTopologySearchRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ComponentTopology>> captureSaved(int times) {
+        ArgumentCaptor<Iterable<ComponentTopology>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(componentTopologySearchRepository, times(times)).saveAll(captor.capture());
+        return captor.getAllValues().stream().map(documents -> (List<ComponentTopology>) documents).collect(Collectors.toList());
+    }
+
+    private static TopologyRow row(Long applicationId, String applicationName, Long instanceId, String countryName, Long componentId) {
+        return new TopologyRow() {
+            @Override
+            public Long getApplicationId() {
+                return applicationId;
+            }
+
+            @Override
+            public String getApplicationName() {
+                return applicationName;
+            }
+
+            @Override
+            public Long getInstanceId() {
+                return instanceId;
+            }
+
+            @Override
+            public String getCountryName() {
+                return countryName;
+            }
+
+            @Override
+            public Long getComponentId() {
+                return componentId;
+            }
+
+            @Override
+            public String getComponentName() {
+                return "AAAAAAAAAA";
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,366 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.MailMessage;
+import com.mycompany.myapp.repository.MailMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+class MailDeliveryServiceTest {
+
+    private static final String REJECTED_RECIPIENT = "rejected@localhost";
+
+    private MockClock clock;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private final Map<Long, MailMessage> table = new ConcurrentHashMap<>();
+
+    private SmtpServer smtpServer;
+
+    private MailDeliveryService mailDeliveryService;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private final List<Object> publishedEvents = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        applicationProperties = new ApplicationProperties();
+        // Deliver on the test thread only
+        applicationProperties.getMail().setAsync(false);
+        applicationProperties.getMail().setBatchSize(2);
+        applicationProperties.getMail().setMaxAttempts(2);
+        applicationProperties.getMail().setInitialBackoffSeconds(30);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("test@localhost");
+        smtpServer = new SmtpServer();
+        mailDeliveryService = newMailDeliveryService();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        mailDeliveryService.stop();
+        smtpServer.close();
+    }
+
+    @Test
+    void testQueuedMessageIsSentOnceCommitted() {
+        mailDeliveryService.enqueue("user@localhost", "subject", "content", false, true);
+
+        assertThat(smtpServer.getRecipients()).isEmpty();
+        assertThat(publishedEvents).hasSize(1);
+        mailDeliveryService.onMailQueued((MailDeliveryService.MailQueued) publishedEvents.get(0));
+        assertThat(smtpServer.getRecipients()).containsExactly("user@localhost");
+        assertThat(table).isEmpty();
+    }
+
+    @Test
+    void testBatchesAreSentOverOneConnection() {
+        for (int i = 0; i < 5; i++) {
+            mailDeliveryService.enqueue("user" + i + "@localhost", "subject " + i, "content " + i, false, true);
+        }
+        clock.add(Duration.ofSeconds(2));
+
+        assertThat(mailDeliveryService.deliver()).isEqualTo(5);
+        assertThat(smtpServer.getRecipients()).containsExactly(
+            "user0@localhost",
+            "user1@localhost",
+            "user2@localhost",
+            "user3@localhost",
+            "user4@localhost"
+        );
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(table).isEmpty();
+        assertThat(meterRegistry.get(MailDeliveryService.MESSAGES_METER_NAME).tag("result", "sent").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(MailDeliveryService.LATENCY_METER_NAME).timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get(MailDeliveryService.LATENCY_METER_NAME).timer().max(TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(meterRegistry.get(MailDeliveryService.BATCH_DURATION_METER_NAME).timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testFailedMessageIsRetriedWithBackoffThenGivenUp() {
+        mailDeliveryService.enqueue(REJECTED_RECIPIENT, "subject", "content", false, false);
+        mailDeliveryService.enqueue("user@localhost", "subject", "content", false, false);
+
+        assertThat(mailDeliveryService.deliver()).isEqualTo(1);
+        assertThat(smtpServer.getRecipients()).containsExactly("user@localhost");
+        assertThat(table).hasSize(1);
+        MailMessage failed = table.values().iterator().next();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("550 No such user");
+        assertThat(failed.getNextAttemptDate()).isEqualTo(now().plusSeconds(30));
+        assertThat(meterRegistry.get(MailDeliveryService.MESSAGES_METER_NAME).tag("result", "retried").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isEqualTo(1);
+
+        clock.add(Duration.ofSeconds(29));
+        assertThat(mailDeliveryService.deliver()).isZero();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+
+        clock.add(Duration.ofSeconds(1));
+        assertThat(mailDeliveryService.deliver()).isZero();
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getNextAttemptDate()).isNull();
+        assertThat(table).containsValue(failed);
+        assertThat(meterRegistry.get(MailDeliveryService.MESSAGES_METER_NAME).tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailDeliveryService.QUEUE_SIZE_METER_NAME).gauge().value()).isZero();
+        assertThat(smtpServer.getConnections()).isEqualTo(2);
+    }
+
+    @Test
+    void testMessagesAreRetriedWhenTheServerIsDown() throws Exception {
+        mailDeliveryService.enqueue("user1@localhost", "subject", "content", false, false);
+        mailDeliveryService.enqueue("user2@localhost", "subject", "content", false, false);
+        smtpServer.close();
+
+        assertThat(mailDeliveryService.deliver()).isZero();
+        assertThat(table.values()).extracting(MailMessage::getAttempts).containsOnly(1);
+        assertThat(table.values()).extracting(MailMessage::getNextAttemptDate).containsOnly(now().plusSeconds(30));
+    }
+
+    @Test
+    void testSendingIsRateLimited() throws Exception {
+        applicationProperties.getMail().setBatchSize(10);
+        applicationProperties.getMail().setMessagesPerSecond(3);
+        mailDeliveryService.stop();
+        mailDeliveryService = newMailDeliveryService();
+        for (int i = 0; i < 5; i++) {
+            mailDeliveryService.enqueue("user" + i + "@localhost", "subject", "content", false, false);
+        }
+
+        assertThat(mailDeliveryService.deliver()).isEqualTo(3);
+        assertThat(mailDeliveryService.deliver()).isZero();
+        clock.add(Duration.ofMillis(500));
+        assertThat(mailDeliveryService.deliver()).isEqualTo(1);
+        clock.add(Duration.ofSeconds(1));
+        assertThat(mailDeliveryService.deliver()).isEqualTo(1);
+        assertThat(smtpServer.getRecipients()).hasSize(5);
+    }
+
+    private MailDeliveryService newMailDeliveryService() {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+        javaMailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        return new MailDeliveryService(
+            mailMessageRepository(),
+            javaMailSender,
+            jHipsterProperties,
+            publishedEvents::add,
+            mock(PlatformTransactionManager.class),
+            meterRegistry,
+            applicationProperties
+        );
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(clock.wallTime());
+    }
+
+    /**
+     * Repository backed by the {@link #table}, whose claims and updates apply to the stored messages directly.
+     */
+    private MailMessageRepository mailMessageRepository() {
+        MailMessageRepository repository = mock(MailMessageRepository.class);
+        AtomicLong sequence = new AtomicLong();
+        when(repository.save(any(MailMessage.class)))
+            .thenAnswer(invocation -> {
+                MailMessage message = invocation.getArgument(0);
+                message.setId(sequence.incrementAndGet());
+                table.put(message.getId(), message);
+                return message;
+            });
+        when(repository.findAllByNextAttemptDateLessThanEqualOrderByNextAttemptDateAsc(any(Instant.class), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                Instant date = invocation.getArgument(0);
+                Pageable pageable = invocation.getArgument(1);
+                return table
+                    .values()
+                    .stream()
+                    .filter(message -> message.getNextAttemptDate() != null && !message.getNextAttemptDate().isAfter(date))
+                    .sorted(Comparator.comparing(MailMessage::getNextAttemptDate).thenComparing(MailMessage::getId))
+                    .limit(pageable.getPageSize())
+                    .collect(Collectors.toList());
+            });
+        when(repository.findAllById(anyIterable()))
+            .thenAnswer(invocation -> {
+                List<MailMessage> found = new ArrayList<>();
+                Iterable<Long> ids = invocation.getArgument(0);
+                ids.forEach(id -> found.add(table.get(id)));
+                return found;
+            });
+        doAnswer(invocation -> {
+                Iterable<Long> ids = invocation.getArgument(0);
+                ids.forEach(table::remove);
+                return null;
+            })
+            .when(repository)
+            .deleteAllByIdInBatch(anyIterable());
+        when(repository.countByNextAttemptDateNotNull())
+            .thenAnswer(invocation -> table.values().stream().filter(message -> message.getNextAttemptDate() != null).count());
+        return repository;
+    }
+
+    /**
+     * SMTP server accepting every email but those to {@link #REJECTED_RECIPIENT}, and keeping the recipients of the
+     * emails it accepted.
+     */
+    private static final class SmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+
+        private final Thread acceptor;
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+        SmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            acceptor = new Thread(this::accept, "smtp-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        List<String> getRecipients() {
+            return recipients;
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    sockets.add(socket);
+                    Thread session = new Thread(() -> serve(socket), "smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (
+                socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)
+            ) {
+                reply(out, "220 localhost ESMTP");
+                String recipient = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                    switch (command) {
+                        case "EHLO":
+                            reply(out, "250-localhost\r\n250 8BITMIME");
+                            break;
+                        case "HELO":
+                        case "NOOP":
+                        case "MAIL":
+                            reply(out, "250 OK");
+                            break;
+                        case "RSET":
+                            recipient = null;
+                            reply(out, "250 OK");
+                            break;
+                        case "RCPT":
+                            String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                            if (REJECTED_RECIPIENT.equals(address)) {
+                                reply(out, "550 No such user");
+                            } else {
+                                recipient = address;
+                                reply(out, "250 OK");
+                            }
+                            break;
+                        case "DATA":
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !".".equals(line)) {
+                                // Skip the content
+                            }
+                            recipients.add(recipient);
+                            recipient = null;
+                            reply(out, "250 OK");
+                            break;
+                        case "QUIT":
+                            reply(out, "221 Bye");
+                            return;
+                        default:
+                            reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // The client or the server went away
+            } finally {
+                sockets.remove(socket);
+            }
+        }
+
+        private static void reply(Writer out, String reply) throws IOException {
+            out.write(reply + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException, InterruptedException {
+            serverSocket.close();
+            // The socket only stops listening once the pending accept returns
+            acceptor.join(5000);
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+}
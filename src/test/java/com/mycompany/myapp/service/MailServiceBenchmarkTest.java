@@ -0,0 +1,145 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.User;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Measures the emails rendered per second from each mail template, against a rendering that parses the locale and
+ * resolves the subject of every email. Excluded from the default test run.
+ */
+@Tag("benchmark")
+class MailServiceBenchmarkTest {
+
+    private static final int MESSAGES = 500;
+
+    private static final int ROUNDS = 3;
+
+    private static final int USERS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(MailServiceBenchmarkTest.class);
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicReference<String> lastContent = new AtomicReference<>();
+
+    private final List<User> users = new ArrayList<>();
+
+    private ResourceBundleMessageSource messageSource;
+
+    private SpringTemplateEngine templateEngine;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private MailService mailService;
+
+    @BeforeEach
+    public void setup() {
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        messageSource.setFallbackToSystemLocale(false);
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+
+        // Keeps the last email rather than queuing it, without the overhead of a mock
+        mailService =
+            new MailService(jHipsterProperties, null, messageSource, templateEngine) {
+                @Override
+                public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+                    queued.incrementAndGet();
+                    lastContent.set(content);
+                }
+            };
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setLogin("user" + i);
+            user.setEmail("user" + i + "@localhost");
+            user.setLangKey("en");
+            user.setActivationKey("activation" + i);
+            user.setResetKey("reset" + i);
+            users.add(user);
+        }
+    }
+
+    @Test
+    void benchmarkTemplateRendering() {
+        benchmark("mail/activationEmail", "email.activation.title");
+        assertThat(lastContent.get()).contains("Dear user99", "http://127.0.0.1:8080/account/activate?key=activation99");
+        benchmark("mail/creationEmail", "email.activation.title");
+        assertThat(lastContent.get()).contains("Dear user99", "http://127.0.0.1:8080/account/reset/finish?key=reset99");
+        benchmark("mail/passwordResetEmail", "email.reset.title");
+        assertThat(lastContent.get()).contains("Dear user99", "http://127.0.0.1:8080/account/reset/finish?key=reset99");
+    }
+
+    private void benchmark(String templateName, String titleKey) {
+        // Warm-up, which also parses the template
+        for (int i = 0; i < 2 * MESSAGES; i++) {
+            mailService.sendEmailFromTemplate(users.get(i % USERS), templateName, titleKey);
+            renderPerEmail(templateName, titleKey, users.get(i % USERS));
+        }
+
+        queued.set(0);
+        long cached = 0;
+        long perEmail = 0;
+        // Alternate the two, so that neither benefits from running last
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                mailService.sendEmailFromTemplate(users.get(i % USERS), templateName, titleKey);
+            }
+            cached += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                renderPerEmail(templateName, titleKey, users.get(i % USERS));
+            }
+            perEmail += System.nanoTime() - start;
+        }
+        assertThat(queued.get()).isEqualTo(ROUNDS * MESSAGES);
+
+        log.info(
+            "{}: {} emails rendered per second, {} when resolving the locale and subject of each",
+            templateName,
+            ROUNDS * MESSAGES * 1_000_000_000L / cached,
+            ROUNDS * MESSAGES * 1_000_000_000L / perEmail
+        );
+    }
+
+    /**
+     * Render an email as {@link MailService} did before caching its locales and subjects.
+     */
+    private String renderPerEmail(String templateName, String titleKey, User user) {
+        Locale locale = Locale.forLanguageTag(user.getLangKey());
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+        String content = templateEngine.process(templateName, context);
+        return messageSource.getMessage(titleKey, null, locale) + content;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.CountRow;
+import com.mycompany.myapp.repository.DateCountRow;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.service.dto.AggregationDTO;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+class SearchAggregationServiceTest {
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private WMISComponentRepository wMISComponentRepository;
+
+    private UserRepository userRepository;
+
+    private SearchAggregationService searchAggregationService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAggregations().setMaxBuckets(5);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        wMISComponentRepository = mock(WMISComponentRepository.class);
+        userRepository = mock(UserRepository.class);
+        searchAggregationService =
+            new SearchAggregationService(elasticsearchOperations, wMISComponentRepository, userRepository, applicationProperties);
+    }
+
+    @Test
+    void testCountsInElasticsearchWithoutTheDatabase() {
+        when(elasticsearchOperations.search(any(Query.class), eq(ComponentTopology.class)))
+            .thenReturn(new SearchHitsImpl<>(0, TotalHitsRelation.OFF, 0, null, List.of(), null, null));
+
+        AggregationDTO aggregation = searchAggregationService.countComponentsPerCountryName(10);
+
+        assertThat(aggregation.getSource()).isEqualTo(AggregationDTO.Source.ELASTICSEARCH);
+        assertThat(aggregation.getBuckets()).isEmpty();
+        verifyNoInteractions(wMISComponentRepository);
+    }
+
+    @Test
+    void testFallsBackToTheDatabaseWithTheBucketsCapped() {
+        when(elasticsearchOperations.search(any(Query.class), eq(ComponentTopology.class)))
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        when(wMISComponentRepository.countPerApplicationName(PageRequest.of(0, 5))).thenReturn(List.of(row("APP", 3L), row("OTHER", 1L)));
+
+        AggregationDTO aggregation = searchAggregationService.countComponentsPerApplicationName(1000);
+
+        assertThat(aggregation.getSource()).isEqualTo(AggregationDTO.Source.DATABASE);
+        assertThat(aggregation.getBuckets().stream().map(bucket -> bucket.getKey() + "=" + bucket.getCount()))
+            .containsExactly("APP=3", "OTHER=1");
+    }
+
+    @Test
+    void testRollsTheDaysUpIntoMonthsInTheFallback() {
+        when(elasticsearchOperations.search(any(Query.class), eq(User.class)))
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        when(userRepository.countCreatedPerDay())
+            .thenReturn(List.of(day(2022, 10, 2, 1L), day(2022, 9, 30, 4L), day(2022, 10, 1, 2L), day(2021, 12, 31, 1L)));
+
+        AggregationDTO aggregation = searchAggregationService.countUsersCreated(SearchAggregationService.Interval.MONTH);
+
+        assertThat(aggregation.getSource()).isEqualTo(AggregationDTO.Source.DATABASE);
+        assertThat(aggregation.getBuckets().stream().map(bucket -> bucket.getKey() + "=" + bucket.getCount()).collect(Collectors.toList()))
+            .containsExactly("2021-12=1", "2022-09=4", "2022-10=3");
+    }
+
+    private static CountRow row(String bucket, Long total) {
+        return new CountRow(bucket, total);
+    }
+
+    private static DateCountRow day(Integer year, Integer month, Integer day, Long total) {
+        return new DateCountRow(year, month, day, total);
+    }
+}
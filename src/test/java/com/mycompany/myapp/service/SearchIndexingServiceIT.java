@@ -0,0 +1,83 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link SearchIndexingService}, counting the SQL statements each indexing path costs.
+ */
+@IntegrationTest
+@Transactional
+class SearchIndexingServiceIT {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SearchIndexingService searchIndexingService;
+
+    @Autowired
+    private WMISComponentRepository wMISComponentRepository;
+
+    @Autowired
+    private WMISComponentSearchRepository wMISComponentSearchRepository;
+
+    private Statistics statistics;
+
+    private WMISComponent wMISComponent;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        wMISComponent = wMISComponentRepository.saveAndFlush(new WMISComponent().componentName("AAAAAAAAAA"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        statistics.setStatisticsEnabled(false);
+        wMISComponentSearchRepository.deleteAll();
+    }
+
+    @Test
+    void indexingAnEntityDoesNotReadItAgain() {
+        long withEntity = statementsDuring(() -> searchIndexingService.index(wMISComponent));
+        long withId = statementsDuring(() -> searchIndexingService.reindex(WMISComponent.class, wMISComponent.getId()));
+
+        assertThat(withEntity).isZero();
+        assertThat(withId).isPositive();
+        assertThat(wMISComponentSearchRepository.findById(wMISComponent.getId())).isPresent();
+    }
+
+    @Test
+    void searchRepositoryIndexDoesNotReadTheEntityAgain() {
+        assertThat(statementsDuring(() -> wMISComponentSearchRepository.index(wMISComponent))).isZero();
+        assertThat(wMISComponentSearchRepository.findById(wMISComponent.getId())).isPresent();
+    }
+
+    @Test
+    void deletingADocumentDoesNotReadTheEntity() {
+        wMISComponentSearchRepository.save(wMISComponent);
+
+        assertThat(statementsDuring(() -> searchIndexingService.delete(WMISComponent.class, wMISComponent.getId()))).isZero();
+        assertThat(wMISComponentSearchRepository.findById(wMISComponent.getId())).isEmpty();
+    }
+
+    private long statementsDuring(Runnable indexing) {
+        statistics.clear();
+        indexing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
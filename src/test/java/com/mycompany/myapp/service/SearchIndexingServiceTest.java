@@ -0,0 +1,294 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.ApplicationSearchRepository;
+import com.mycompany.myapp.repository.search.InstanceSearchRepository;
+import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class SearchIndexingServiceTest {
+
+    private MockClock clock;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private WMISComponentRepository wMISComponentRepository;
+
+    private WMISComponentSearchRepository wMISComponentSearchRepository;
+
+    private ElasticsearchOperations elasticsearchOperations;
+
+    private ComponentTopologyIndexer componentTopologyIndexer;
+
+    private SearchIndexingService searchIndexingService;
+
+    @BeforeEach
+    public void setup() {
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchIndexing().setQueueCapacity(3);
+        applicationProperties.getSearchIndexing().setBatchSize(10);
+        wMISComponentRepository = mock(WMISComponentRepository.class);
+        wMISComponentSearchRepository = mock(WMISComponentSearchRepository.class);
+        elasticsearchOperations = mock(ElasticsearchOperations.class);
+        componentTopologyIndexer = mock(ComponentTopologyIndexer.class);
+        when(wMISComponentRepository.findAllById(anyIterable()))
+            .thenAnswer(invocation -> {
+                Iterable<Long> ids = invocation.getArgument(0);
+                List<WMISComponent> found = new java.util.ArrayList<>();
+                // Ids above 100 have been deleted in the meantime
+                ids.forEach(id -> {
+                    if (id <= 100) {
+                        found.add(new WMISComponent().id(id));
+                    }
+                });
+                return found;
+            });
+        ApplicationEventPublisher eventPublisher = event -> {
+            if (event instanceof SearchIndexingService.DeleteRequest) {
+                searchIndexingService.onDeleteRequest((SearchIndexingService.DeleteRequest) event);
+            } else {
+                searchIndexingService.onIndexRequest((SearchIndexingService.IndexRequest) event);
+            }
+        };
+
+        searchIndexingService =
+            new SearchIndexingService(
+                eventPublisher,
+                elasticsearchOperations,
+                componentTopologyIndexer,
+                mock(PlatformTransactionManager.class),
+                meterRegistry,
+                applicationProperties,
+                mock(ApplicationRepository.class),
+                mock(ApplicationSearchRepository.class),
+                mock(InstanceRepository.class),
+                mock(InstanceSearchRepository.class),
+                wMISComponentRepository,
+                wMISComponentSearchRepository
+            );
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        searchIndexingService.stop();
+    }
+
+    @Test
+    void testRepeatedChangesAreCoalesced() {
+        searchIndexingService.reindex(WMISComponent.class, 1L);
+        searchIndexingService.reindex(WMISComponent.class, 1L);
+        searchIndexingService.reindex(WMISComponent.class, 2L);
+
+        assertThat(searchIndexingService.getQueueSize()).isEqualTo(2);
+        assertThat(meterRegistry.get(SearchIndexingService.COALESCED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SearchIndexingService.QUEUE_SIZE_METER_NAME).gauge().value()).isEqualTo(2);
+        verifyNoInteractions(wMISComponentSearchRepository);
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentRepository).findAllById(Set.of(1L, 2L));
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L, 2L));
+        verify(wMISComponentSearchRepository, never()).deleteAllById(any());
+        assertThat(searchIndexingService.getQueueSize()).isZero();
+        assertThat(meterRegistry.get(SearchIndexingService.LAG_METER_NAME).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testMissingEntitiesAreDeleted() {
+        searchIndexingService.reindex(WMISComponent.class, List.of(1L, 101L));
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L));
+        verify(wMISComponentSearchRepository).deleteAllById(Set.of(101L));
+        assertThat(documentsCount("indexed")).isEqualTo(1);
+        assertThat(documentsCount("deleted")).isEqualTo(1);
+    }
+
+    @Test
+    void testFullQueueIsFlushedInline() {
+        searchIndexingService.reindex(WMISComponent.class, List.of(1L, 2L));
+        verifyNoInteractions(wMISComponentSearchRepository);
+
+        searchIndexingService.reindex(WMISComponent.class, 3L);
+
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L, 2L, 3L));
+        assertThat(searchIndexingService.getQueueSize()).isZero();
+        assertThat(meterRegistry.get(SearchIndexingService.OVERFLOWS_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedDocumentsAreRetriedWithBackoff() {
+        when(wMISComponentSearchRepository.saveAll(anyIterable())).thenThrow(new IllegalStateException("Elasticsearch is down"));
+        searchIndexingService.reindex(WMISComponent.class, 1L);
+
+        searchIndexingService.flush();
+
+        assertThat(searchIndexingService.getQueueSize()).isEqualTo(1);
+        assertThat(documentsCount("failed")).isEqualTo(1);
+
+        searchIndexingService.flush();
+        assertThat(documentsCount("failed")).isEqualTo(1);
+
+        clock.add(Duration.ofSeconds(1));
+        searchIndexingService.flush();
+        assertThat(documentsCount("failed")).isEqualTo(2);
+
+        // The backoff doubles
+        clock.add(Duration.ofMillis(1999));
+        searchIndexingService.flush();
+        assertThat(documentsCount("failed")).isEqualTo(2);
+
+        reset(wMISComponentSearchRepository);
+        clock.add(Duration.ofMillis(1));
+        searchIndexingService.flush();
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L));
+        assertThat(searchIndexingService.getQueueSize()).isZero();
+    }
+
+    @Test
+    void testEntitiesAreIndexedWithoutDatabaseRead() {
+        searchIndexingService.index(new WMISComponent().id(1L).componentName("AAAAAAAAAA"));
+        searchIndexingService.index(List.of(new WMISComponent().id(2L)));
+        searchIndexingService.delete(WMISComponent.class, 3L);
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L, 2L));
+        verify(wMISComponentSearchRepository).deleteAllById(Set.of(3L));
+        verifyNoInteractions(wMISComponentRepository);
+    }
+
+    @Test
+    void testRepeatedChangesAreReadAgain() {
+        // The events of two transactions, maybe out of commit order
+        searchIndexingService.index(new WMISComponent().id(1L).componentName("AAAAAAAAAA"));
+        searchIndexingService.index(new WMISComponent().id(1L).componentName("BBBBBBBBBB"));
+        searchIndexingService.index(new WMISComponent().id(101L));
+        searchIndexingService.delete(WMISComponent.class, 101L);
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentRepository).findAllById(Set.of(1L, 101L));
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L));
+        verify(wMISComponentSearchRepository).deleteAllById(Set.of(101L));
+    }
+
+    @Test
+    void testChangesToDocumentsBeingWrittenWaitAndAreReadAgain() {
+        doAnswer(invocation -> {
+                searchIndexingService.index(new WMISComponent().id(1L).componentName("BBBBBBBBBB"));
+                // Another flush, or the overflow of the queue, leaves the document to the write in progress
+                searchIndexingService.flush();
+                return invocation.getArgument(0);
+            })
+            .doReturn(List.of())
+            .when(wMISComponentSearchRepository)
+            .saveAll(anyIterable());
+        searchIndexingService.index(new WMISComponent().id(1L).componentName("AAAAAAAAAA"));
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentSearchRepository, times(1)).saveAll(anyIterable());
+        assertThat(searchIndexingService.getQueueSize()).isEqualTo(1);
+
+        searchIndexingService.flush();
+
+        verify(wMISComponentRepository).findAllById(Set.of(1L));
+        verify(wMISComponentSearchRepository, times(2)).saveAll(anyIterable());
+        assertThat(searchIndexingService.getQueueSize()).isZero();
+    }
+
+    @Test
+    void testSynchronousIndexing() {
+        applicationProperties.getSearchIndexing().setAsync(false);
+
+        searchIndexingService.index(new WMISComponent().id(1L));
+
+        verify(wMISComponentSearchRepository).saveAll(argThatHasIds(1L));
+        verifyNoInteractions(wMISComponentRepository);
+        assertThat(searchIndexingService.getQueueSize()).isZero();
+    }
+
+    @Test
+    void testWritesAreCopiedToShadowIndex() {
+        IndexCoordinates shadowIndex = IndexCoordinates.of("wmiscomponent_v2");
+        searchIndexingService.startShadowing(WMISComponent.class, shadowIndex);
+        searchIndexingService.reindex(WMISComponent.class, List.of(1L, 101L));
+
+        searchIndexingService.flush();
+
+        verify(elasticsearchOperations).save(argThatHasIds(1L), eq(shadowIndex));
+        verify(elasticsearchOperations).delete("101", shadowIndex);
+
+        assertThat(searchIndexingService.stopShadowing(WMISComponent.class)).containsExactly(101L);
+        searchIndexingService.reindex(WMISComponent.class, 1L);
+        searchIndexingService.flush();
+
+        verifyNoMoreInteractions(elasticsearchOperations);
+    }
+
+    @Test
+    void testDeletesOfSelfIndexedDocumentsAreCopiedToShadowIndex() {
+        IndexCoordinates liveIndex = IndexCoordinates.of("jhi_user");
+        IndexCoordinates shadowIndex = IndexCoordinates.of("jhi_user_v2");
+        when(elasticsearchOperations.getIndexCoordinatesFor(User.class)).thenReturn(liveIndex);
+        searchIndexingService.startShadowing(User.class, shadowIndex);
+
+        searchIndexingService.deleteSelfIndexed(User.class, List.of(1L, 2L));
+
+        verify(elasticsearchOperations).delete("1", liveIndex);
+        verify(elasticsearchOperations).delete("2", liveIndex);
+        verify(elasticsearchOperations).delete("1", shadowIndex);
+        verify(elasticsearchOperations).delete("2", shadowIndex);
+        assertThat(searchIndexingService.stopShadowing(User.class)).containsExactlyInAnyOrder(1L, 2L);
+
+        searchIndexingService.deleteSelfIndexed(User.class, List.of(3L));
+
+        verify(elasticsearchOperations).delete("3", liveIndex);
+        verify(elasticsearchOperations, never()).delete("3", shadowIndex);
+    }
+
+    private double documentsCount(String result) {
+        return meterRegistry
+            .get(SearchIndexingService.DOCUMENTS_METER_NAME)
+            .tag(SearchIndexingService.DOCUMENTS_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    private static Iterable<WMISComponent> argThatHasIds(Long... ids) {
+        return argThat(entities -> {
+            Set<Long> actual = ((List<WMISComponent>) entities).stream().map(WMISComponent::getId).collect(Collectors.toSet());
+            return actual.equals(Set.of(ids));
+        });
+    }
+}
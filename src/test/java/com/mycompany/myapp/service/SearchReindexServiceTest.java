@@ -0,0 +1,44 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SearchReindexServiceTest {
+
+    @Test
+    void testNextIndexNameOfUnversionedIndex() {
+        assertThat(SearchReindexService.nextIndexName("instance", Set.of("instance"))).isEqualTo("instance_v2");
+    }
+
+    @Test
+    void testNextIndexNameOfVersionedIndices() {
+        assertThat(SearchReindexService.nextIndexName("instance", List.of("instance_v2", "instance_v10"))).isEqualTo("instance_v11");
+        assertThat(SearchReindexService.nextIndexName("instance", List.of("instance_old"))).isEqualTo("instance_v2");
+    }
+
+    @Test
+    void testThrottleLimitsRowsPerSecond() throws InterruptedException {
+        SearchReindexService.Throttle throttle = new SearchReindexService.Throttle(1000);
+        long start = System.nanoTime();
+
+        throttle.acquire(100);
+        throttle.acquire(100);
+        throttle.acquire(100);
+
+        // The first batch is free, the next two each wait for the 100ms the previous one cost
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(190_000_000L);
+    }
+
+    @Test
+    void testUnlimitedThrottleDoesNotWait() throws InterruptedException {
+        SearchReindexService.Throttle throttle = new SearchReindexService.Throttle(0);
+        long start = System.nanoTime();
+
+        throttle.acquire(1_000_000);
+
+        assertThat(System.nanoTime() - start).isLessThan(100_000_000L);
+    }
+}
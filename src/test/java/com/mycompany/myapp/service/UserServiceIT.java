@@ -10,7 +10,6 @@ import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
-import com.mycompany.myapp.repository.search.UserSearchRepository;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -55,13 +54,8 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
-    /**
-     * This repository is mocked in the com.mycompany.myapp.repository.search test package.
-     *
-     * @see com.mycompany.myapp.repository.search.UserSearchRepositoryMockConfiguration
-     */
     @SpyBean
-    private UserSearchRepository spiedUserSearchRepository;
+    private SearchIndexingService spiedSearchIndexingService;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -179,7 +173,7 @@ class UserServiceIT {
         assertThat(users).isEmpty();
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, times(1)).delete(user);
+        verify(spiedSearchIndexingService, times(1)).deleteSelfIndexed(User.class, List.of(dbUser.getId()));
     }
 
     @Test
@@ -199,6 +193,6 @@ class UserServiceIT {
         assertThat(maybeDbUser).contains(dbUser);
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, never()).delete(user);
+        verify(spiedSearchIndexingService, never()).deleteSelfIndexed(User.class, List.of(dbUser.getId()));
     }
 }
@@ -0,0 +1,24 @@
+package com.mycompany.myapp.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class WMISComponentDTOTest {
+
+    @Test
+    void dtoEqualsVerifier() throws Exception {
+        TestUtil.equalsVerifier(WMISComponentDTO.class);
+        WMISComponentDTO wMISComponentDTO1 = new WMISComponentDTO();
+        wMISComponentDTO1.setId(1L);
+        WMISComponentDTO wMISComponentDTO2 = new WMISComponentDTO();
+        assertThat(wMISComponentDTO1).isNotEqualTo(wMISComponentDTO2);
+        wMISComponentDTO2.setId(wMISComponentDTO1.getId());
+        assertThat(wMISComponentDTO1).isEqualTo(wMISComponentDTO2);
+        wMISComponentDTO2.setId(2L);
+        assertThat(wMISComponentDTO1).isNotEqualTo(wMISComponentDTO2);
+        wMISComponentDTO1.setId(null);
+        assertThat(wMISComponentDTO1).isNotEqualTo(wMISComponentDTO2);
+    }
+}
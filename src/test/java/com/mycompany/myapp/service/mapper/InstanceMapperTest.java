@@ -0,0 +1,76 @@
+package com.mycompany.myapp.service.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.repository.InstanceRow;
+import com.mycompany.myapp.service.dto.InstanceDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link InstanceMapper}.
+ */
+class InstanceMapperTest {
+
+    private InstanceMapper instanceMapper;
+
+    @BeforeEach
+    public void setUp() {
+        instanceMapper = new InstanceMapperImpl();
+    }
+
+    @Test
+    void rowToDtoWithItsApplication() {
+        InstanceDTO instanceDTO = instanceMapper.toDto(row(1L, "FR", 2L, "APP"));
+
+        assertThat(instanceDTO.getId()).isEqualTo(1L);
+        assertThat(instanceDTO.getCountryName()).isEqualTo("FR");
+        assertThat(instanceDTO.getApplication().getId()).isEqualTo(2L);
+        assertThat(instanceDTO.getApplication().getApplicationName()).isEqualTo("APP");
+        assertThat(instanceDTO.getInstances()).isNull();
+    }
+
+    @Test
+    void rowToDtoWithoutApplication() {
+        assertThat(instanceMapper.toDto(row(1L, "FR", null, null)).getApplication()).isNull();
+    }
+
+    @Test
+    void partialUpdateKeepsTheApplication() {
+        Application application = new Application().applicationName("APP");
+        Instance instance = new Instance().countryName("FR").application(application);
+        InstanceDTO instanceDTO = new InstanceDTO();
+        instanceDTO.setCountryName("BE");
+
+        instanceMapper.partialUpdate(instance, instanceDTO);
+
+        assertThat(instance.getCountryName()).isEqualTo("BE");
+        assertThat(instance.getApplication()).isSameAs(application);
+    }
+
+    private static InstanceRow row(Long id, String countryName, Long applicationId, String applicationName) {
+        return new InstanceRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCountryName() {
+                return countryName;
+            }
+
+            @Override
+            public Long getApplicationId() {
+                return applicationId;
+            }
+
+            @Override
+            public String getApplicationName() {
+                return applicationName;
+            }
+        };
+    }
+}
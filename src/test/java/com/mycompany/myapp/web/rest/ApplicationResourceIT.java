@@ -9,6 +9,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
 import com.mycompany.myapp.repository.ApplicationRepository;
 import com.mycompany.myapp.repository.search.ApplicationSearchRepository;
 import java.util.Collections;
@@ -18,8 +20,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import org.apache.commons.collections4.IterableUtils;
 import org.assertj.core.util.IterableUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +62,9 @@ class ApplicationResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private MockMvc restApplicationMockMvc;
 
@@ -154,6 +162,59 @@ class ApplicationResourceIT {
             .andExpect(jsonPath("$.[*].applicationName").value(hasItem(DEFAULT_APPLICATION_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllApplicationsWithInstancesAndComponentsInAFixedNumberOfQueries() throws Exception {
+        createApplicationsWithChildren(1);
+        long statementsForOne = statementsToGetAllApplications("instances,components");
+        createApplicationsWithChildren(4);
+        long statementsForFive = statementsToGetAllApplications("instances,components");
+
+        // One query for the slice of ids, one for the applications with their instances and components
+        assertThat(statementsForOne).isEqualTo(2);
+        assertThat(statementsForFive).isEqualTo(statementsForOne);
+        restApplicationMockMvc
+            .perform(get(ENTITY_API_URL + "?totalCount=false&include=instances,components"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].applications[*].countryName").value(hasItem("FRANCE")))
+            .andExpect(jsonPath("$.[*].applications[*].instances[*].componentName").value(hasItem("CCCCCCCCCC")));
+    }
+
+    @Test
+    @Transactional
+    void getAllApplicationsWithAnInvalidInclude() throws Exception {
+        restApplicationMockMvc.perform(get(ENTITY_API_URL + "?include=users")).andExpect(status().isBadRequest());
+    }
+
+    private void createApplicationsWithChildren(int applications) {
+        for (int i = 0; i < applications; i++) {
+            Application parent = applicationRepository.save(createEntity(em));
+            for (int j = 0; j < 2; j++) {
+                Instance instance = new Instance().countryName("FRANCE").application(parent);
+                em.persist(instance);
+                em.persist(new WMISComponent().componentName("CCCCCCCCCC").instance(instance));
+                em.persist(new WMISComponent().componentName("DDDDDDDDDD").instance(instance));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private long statementsToGetAllApplications(String include) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            restApplicationMockMvc
+                .perform(get(ENTITY_API_URL + "?totalCount=false&include=" + include))
+                .andExpect(status().isOk());
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            em.clear();
+        }
+    }
+
     @Test
     @Transactional
     void getApplication() throws Exception {
@@ -443,4 +504,25 @@ class ApplicationResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(application.getId().intValue())))
             .andExpect(jsonPath("$.[*].applicationName").value(hasItem(DEFAULT_APPLICATION_NAME)));
     }
+
+    @Test
+    @Transactional
+    void suggestApplication() throws Exception {
+        // Initialize the database
+        application = applicationRepository.saveAndFlush(application);
+        applicationSearchRepository.save(application);
+
+        // Suggest the application from the first letters of its name, in any case
+        restApplicationMockMvc
+            .perform(get("/api/_suggest/applications?prefix= AaA"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(application.getId().intValue())))
+            .andExpect(jsonPath("$.[*].text").value(hasItem(DEFAULT_APPLICATION_NAME)));
+    }
+
+    @Test
+    void suggestUnknownEntity() throws Exception {
+        restApplicationMockMvc.perform(get("/api/_suggest/users?prefix=a")).andExpect(status().isBadRequest());
+    }
 }
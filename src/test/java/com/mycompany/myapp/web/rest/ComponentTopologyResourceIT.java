@@ -0,0 +1,128 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.ComponentTopology;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.ApplicationRepository;
+import com.mycompany.myapp.repository.InstanceRepository;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.ApplicationSearchRepository;
+import com.mycompany.myapp.repository.search.ComponentTopologySearchRepository;
+import com.mycompany.myapp.repository.search.InstanceSearchRepository;
+import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import com.mycompany.myapp.service.SearchIndexingService;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ComponentTopologyResource} REST controller and the documents it searches.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ComponentTopologyResourceIT {
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/component-topologies";
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private InstanceRepository instanceRepository;
+
+    @Autowired
+    private WMISComponentRepository wMISComponentRepository;
+
+    @Autowired
+    private ApplicationSearchRepository applicationSearchRepository;
+
+    @Autowired
+    private InstanceSearchRepository instanceSearchRepository;
+
+    @Autowired
+    private WMISComponentSearchRepository wMISComponentSearchRepository;
+
+    @Autowired
+    private ComponentTopologySearchRepository componentTopologySearchRepository;
+
+    @Autowired
+    private SearchIndexingService searchIndexingService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restComponentTopologyMockMvc;
+
+    private Application application;
+
+    private WMISComponent wMISComponent;
+
+    @BeforeEach
+    public void initTest() {
+        application = applicationRepository.saveAndFlush(new Application().applicationName("AAAAAAAAAA"));
+        Instance instance = instanceRepository.saveAndFlush(new Instance().countryName("FRANCE").application(application));
+        wMISComponent = wMISComponentRepository.saveAndFlush(new WMISComponent().componentName("CCCCCCCCCC").instance(instance));
+    }
+
+    @AfterEach
+    public void cleanupElasticSearchRepository() {
+        componentTopologySearchRepository.deleteAll();
+        wMISComponentSearchRepository.deleteAll();
+        instanceSearchRepository.deleteAll();
+        applicationSearchRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional
+    void componentIsIndexedWithItsInstanceAndApplication() throws Exception {
+        searchIndexingService.index(wMISComponent);
+
+        restComponentTopologyMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL).param("query", "componentName:CCCCCCCCCC AND countryName:FRANCE"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[0].id").value(wMISComponent.getId().intValue()))
+            .andExpect(jsonPath("$.[0].applicationName").value("AAAAAAAAAA"));
+    }
+
+    @Test
+    @Transactional
+    void renamingAnApplicationUpdatesTheDocumentsOfItsComponents() throws Exception {
+        searchIndexingService.index(wMISComponent);
+
+        application.setApplicationName("BBBBBBBBBB");
+        searchIndexingService.index(applicationRepository.saveAndFlush(application));
+
+        assertThat(componentTopologySearchRepository.findById(wMISComponent.getId()))
+            .map(ComponentTopology::getApplicationName)
+            .hasValue("BBBBBBBBBB");
+    }
+
+    @Test
+    @Transactional
+    void deletingAComponentDeletesItsDocument() throws Exception {
+        searchIndexingService.index(wMISComponent);
+
+        wMISComponentRepository.delete(wMISComponent);
+        em.flush();
+        searchIndexingService.delete(WMISComponent.class, wMISComponent.getId());
+
+        assertThat(componentTopologySearchRepository.findById(wMISComponent.getId())).isEmpty();
+    }
+}
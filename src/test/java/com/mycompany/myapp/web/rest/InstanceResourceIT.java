@@ -8,9 +8,13 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Application;
 import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
 import com.mycompany.myapp.repository.InstanceRepository;
 import com.mycompany.myapp.repository.search.InstanceSearchRepository;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import com.mycompany.myapp.web.rest.util.SearchPaginationUtil;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -18,8 +22,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import org.apache.commons.collections4.IterableUtils;
 import org.assertj.core.util.IterableUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +64,9 @@ class InstanceResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private MockMvc restInstanceMockMvc;
 
@@ -154,6 +164,63 @@ class InstanceResourceIT {
             .andExpect(jsonPath("$.[*].countryName").value(hasItem(DEFAULT_COUNTRY_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllInstancesAfterCursor() throws Exception {
+        // Initialize the database
+        instanceRepository.saveAndFlush(instance);
+        Instance otherInstance = instanceRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Only the instances following the cursor are returned
+        restInstanceMockMvc
+            .perform(
+                get(ENTITY_API_URL)
+                    .param("cursor", KeysetPaginationUtil.encodeCursor(instance.getId()))
+                    .param("size", "1")
+                    .param("totalCount", "false")
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(otherInstance.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllInstancesWithInvalidCursor() throws Exception {
+        restInstanceMockMvc.perform(get(ENTITY_API_URL).param("cursor", "not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllInstancesWithComponentsInAFixedNumberOfQueries() throws Exception {
+        Application application = new Application().applicationName("AAAAAAAAAA");
+        em.persist(application);
+        for (int i = 0; i < 5; i++) {
+            Instance parent = createEntity(em).application(application);
+            em.persist(parent);
+            em.persist(new WMISComponent().componentName("CCCCCCCCCC").instance(parent));
+            em.persist(new WMISComponent().componentName("DDDDDDDDDD").instance(parent));
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            restInstanceMockMvc
+                .perform(get(ENTITY_API_URL + "?totalCount=false&include=components"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].instances[*].componentName").value(hasItem("CCCCCCCCCC")))
+                .andExpect(jsonPath("$.[*].application.applicationName").value(hasItem("AAAAAAAAAA")));
+
+            // The slice of ids, then the instances with their application and components
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @Transactional
     void getInstance() throws Exception {
@@ -443,4 +510,54 @@ class InstanceResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(instance.getId().intValue())))
             .andExpect(jsonPath("$.[*].countryName").value(hasItem(DEFAULT_COUNTRY_NAME)));
     }
+
+    @Test
+    @Transactional
+    void searchInstancesAfterCursor() throws Exception {
+        // Initialize the database
+        instance = instanceRepository.saveAndFlush(instance);
+        Instance otherInstance = instanceRepository.saveAndFlush(createEntity(em));
+        instanceSearchRepository.saveAll(List.of(instance, otherInstance));
+
+        // Only the hits following the cursor are returned
+        restInstanceMockMvc
+            .perform(
+                get(ENTITY_SEARCH_API_URL)
+                    .param("query", "countryName:" + DEFAULT_COUNTRY_NAME)
+                    .param("cursor", SearchPaginationUtil.encodeCursor(List.of(instance.getId())))
+                    .param("sort", "id,asc")
+                    .param("size", "1")
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(otherInstance.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void searchInstancesWithHighlightAndFields() throws Exception {
+        // Initialize the database
+        instance = instanceRepository.saveAndFlush(instance);
+        instanceSearchRepository.save(instance);
+
+        restInstanceMockMvc
+            .perform(
+                get(ENTITY_SEARCH_API_URL + "/highlight")
+                    .param("query", "countryName:" + DEFAULT_COUNTRY_NAME)
+                    .param("fields", "id")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].content.id").value(instance.getId().intValue()))
+            .andExpect(jsonPath("$.[0].content.countryName").doesNotExist())
+            .andExpect(jsonPath("$.[0].highlight.countryName[0]").value("<em>" + DEFAULT_COUNTRY_NAME + "</em>"));
+    }
+
+    @Test
+    @Transactional
+    void searchInstancesBeyondTheResultWindow() throws Exception {
+        restInstanceMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL).param("query", "*").param("page", "1000").param("size", "100"))
+            .andExpect(status().isBadRequest());
+    }
 }
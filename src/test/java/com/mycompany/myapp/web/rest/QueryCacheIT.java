@@ -0,0 +1,164 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests and benchmark of the Hibernate query cache behind {@code GET /api/authorities} and
+ * {@code GET /api/users}, which the other integration tests run without.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    }
+)
+class QueryCacheIT {
+
+    private static final String AUTHORITIES_API_URL = "/api/authorities";
+
+    private static final String USERS_API_URL = "/api/users?sort=id,asc";
+
+    private static final String NEW_AUTHORITY = "ROLE_QUERY_CACHE";
+
+    private static final int REQUESTS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(QueryCacheIT.class);
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        evictQueryResults();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void getAllAuthoritiesIsReadFromTheQueryCache() throws Exception {
+        restMockMvc.perform(get(AUTHORITIES_API_URL)).andExpect(status().isOk());
+        statistics.clear();
+
+        restMockMvc
+            .perform(get(AUTHORITIES_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasItem(AuthoritiesConstants.ADMIN)));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllPublicUsersIsReadFromTheQueryCache() throws Exception {
+        restMockMvc.perform(get(USERS_API_URL)).andExpect(status().isOk());
+        statistics.clear();
+
+        restMockMvc.perform(get(USERS_API_URL)).andExpect(status().isOk()).andExpect(jsonPath("$.[*].login").value(hasItem("admin")));
+
+        // The cached ids are resolved from the second-level cache of the users
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void writesInvalidateTheCachedResults() throws Exception {
+        restMockMvc.perform(get(AUTHORITIES_API_URL)).andExpect(status().isOk());
+        Authority authority = new Authority();
+        authority.setName(NEW_AUTHORITY);
+        authorityRepository.saveAndFlush(authority);
+        try {
+            restMockMvc.perform(get(AUTHORITIES_API_URL)).andExpect(status().isOk()).andExpect(jsonPath("$").value(hasItem(NEW_AUTHORITY)));
+        } finally {
+            authorityRepository.deleteById(NEW_AUTHORITY);
+        }
+    }
+
+    @Test
+    void queryCacheBenchmark() throws Exception {
+        for (String url : new String[] { AUTHORITIES_API_URL, USERS_API_URL }) {
+            double uncached = requestsPerSecond(url, true);
+            long uncachedStatements = statistics.getPrepareStatementCount();
+            double cached = requestsPerSecond(url, false);
+            long cachedStatements = statistics.getPrepareStatementCount();
+            log.info(
+                "GET {}: {} requests/s and {} statements without the query cache, {} requests/s and {} statements with it",
+                url,
+                Math.round(uncached),
+                uncachedStatements,
+                Math.round(cached),
+                cachedStatements
+            );
+
+            assertThat(uncachedStatements).isGreaterThanOrEqualTo(REQUESTS);
+            assertThat(cachedStatements).isZero();
+        }
+    }
+
+    /**
+     * Measure the throughput of a request, after a warm-up, with the statistics counting its last run.
+     *
+     * @param url the URL requested.
+     * @param evict whether to evict the cached query results before each request.
+     * @return the requests per second.
+     */
+    private double requestsPerSecond(String url, boolean evict) throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            request(url, evict);
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request(url, evict);
+        }
+        return REQUESTS * 1e9 / (System.nanoTime() - start);
+    }
+
+    private void request(String url, boolean evict) throws Exception {
+        if (evict) {
+            evictQueryResults();
+        }
+        restMockMvc.perform(get(url)).andExpect(status().isOk());
+    }
+
+    private void evictQueryResults() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictQueryRegions();
+    }
+}
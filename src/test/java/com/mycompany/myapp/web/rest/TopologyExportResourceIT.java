@@ -0,0 +1,88 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Application;
+import com.mycompany.myapp.domain.Instance;
+import com.mycompany.myapp.domain.WMISComponent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link TopologyExportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TopologyExportResourceIT {
+
+    private static final String EXPORT_API_URL = "/api/export/topology";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restTopologyMockMvc;
+
+    @Test
+    @Transactional
+    void exportTopology() throws Exception {
+        // Initialize the database
+        Application application = new Application().applicationName("AAAAAAAAAA");
+        em.persist(application);
+        Instance instance = new Instance().countryName("BBBBBBBBBB").application(application);
+        em.persist(instance);
+        em.persist(new WMISComponent().componentName("CCCCCCCCCC").description("DDDDDDDDDD").instance(instance));
+        em.persist(new WMISComponent().componentName("EEEEEEEEEE"));
+        em.flush();
+        em.clear();
+
+        String body = restTopologyMockMvc
+            .perform(get(EXPORT_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        JsonNode applicationLine = lines
+            .stream()
+            .filter(line -> application.getId().equals(line.get("id").asLong()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(applicationLine.get("applicationName").asText()).isEqualTo("AAAAAAAAAA");
+        assertThat(applicationLine.get("instances")).hasSize(1);
+        JsonNode instanceNode = applicationLine.get("instances").get(0);
+        assertThat(instanceNode.get("id").asLong()).isEqualTo(instance.getId());
+        assertThat(instanceNode.get("countryName").asText()).isEqualTo("BBBBBBBBBB");
+        assertThat(instanceNode.get("components")).hasSize(1);
+        assertThat(instanceNode.get("components").get(0).get("componentName").asText()).isEqualTo("CCCCCCCCCC");
+
+        // Orphan components are exported last, under a null application and instance
+        JsonNode orphans = lines.get(lines.size() - 1);
+        assertThat(orphans.get("id").isNull()).isTrue();
+        JsonNode orphanInstance = orphans.get("instances").get(orphans.get("instances").size() - 1);
+        assertThat(orphanInstance.get("id").isNull()).isTrue();
+        assertThat(orphanInstance.get("components").findValuesAsText("componentName")).contains("EEEEEEEEEE");
+    }
+}
@@ -0,0 +1,139 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.search.UserSearchRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.service.dto.BulkOperationResultDTO;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link UserBulkResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class UserBulkResourceIT {
+
+    private static final String BULK_API_URL = "/api/admin/users/bulk";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchRepository userSearchRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restUserBulkMockMvc;
+
+    @AfterEach
+    public void cleanupElasticSearchRepository() {
+        userSearchRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional
+    void bulkCreateUsersWithNdjson() throws Exception {
+        int databaseSizeBefore = userRepository.findAll().size();
+
+        String body =
+            "{\"login\":\"bulk-one\",\"email\":\"Bulk-One@localhost\",\"authorities\":[\"" +
+            AuthoritiesConstants.USER +
+            "\",\"ROLE_UNKNOWN\"]}\n" +
+            "{\"login\":\"bulk-two\",\"email\":\"bulk-two@localhost\",\"langKey\":\"fr\"}\n";
+
+        List<BulkOperationResultDTO> results = bulkCreateUsers(MediaType.APPLICATION_NDJSON, body);
+
+        assertThat(results).extracting(BulkOperationResultDTO::getStatus).containsExactly(201, 201);
+        assertThat(userRepository.findAll()).hasSize(databaseSizeBefore + 2);
+        User created = userRepository.findOneWithAuthoritiesByLogin("bulk-one").orElseThrow();
+        assertThat(created.getId()).isEqualTo(results.get(0).getId());
+        assertThat(created.getEmail()).isEqualTo("bulk-one@localhost");
+        assertThat(created.getPassword()).isNotEmpty();
+        assertThat(created.getResetKey()).isNotEmpty();
+        assertThat(created.isActivated()).isTrue();
+        assertThat(created.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        assertThat(userRepository.findOneByLogin("bulk-two")).map(User::getLangKey).contains("fr");
+    }
+
+    @Test
+    @Transactional
+    void bulkCreateUsersReportsEachInvalidUser() throws Exception {
+        String body =
+            "[" +
+            "{\"login\":\"admin\",\"email\":\"bulk-admin@localhost\"}," +
+            "{\"login\":\"bulk-email\",\"email\":\"ADMIN@localhost\"}," +
+            "{\"id\":1,\"login\":\"bulk-id\",\"email\":\"bulk-id@localhost\"}," +
+            "{\"login\":\"bulk invalid\",\"email\":\"bulk-invalid@localhost\"}," +
+            "{\"login\":\"bulk-dup\",\"email\":\"bulk-dup@localhost\"}," +
+            "{\"login\":\"BULK-DUP\",\"email\":\"bulk-dup-2@localhost\"}" +
+            "]";
+
+        List<BulkOperationResultDTO> results = bulkCreateUsers(MediaType.APPLICATION_JSON, body);
+
+        assertThat(results).extracting(BulkOperationResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results).extracting(BulkOperationResultDTO::getStatus).containsExactly(400, 400, 400, 400, 201, 400);
+        assertThat(userRepository.findOneByLogin("bulk-dup")).isPresent();
+    }
+
+    @Test
+    @Transactional
+    void bulkCreateUsersStopsAtMalformedUser() throws Exception {
+        String body = "{\"login\":\"bulk-one\",\"email\":\"bulk-one@localhost\"}\n{\"login\":\n";
+
+        List<BulkOperationResultDTO> results = bulkCreateUsers(MediaType.APPLICATION_NDJSON, body);
+
+        assertThat(results).extracting(BulkOperationResultDTO::getStatus).containsExactly(201, 400);
+        assertThat(results.get(1).getIndex()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void bulkCreateUsersRequiresTheAdminAuthority() throws Exception {
+        restUserBulkMockMvc
+            .perform(post(BULK_API_URL).contentType(MediaType.APPLICATION_NDJSON).content("{\"login\":\"bulk-one\"}\n"))
+            .andExpect(status().isForbidden());
+    }
+
+    private List<BulkOperationResultDTO> bulkCreateUsers(MediaType contentType, String body) throws Exception {
+        String response = restUserBulkMockMvc
+            .perform(post(BULK_API_URL).contentType(contentType).content(body))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return Arrays
+            .stream(response.split("\n"))
+            .filter(line -> !line.isBlank())
+            .map(line -> {
+                try {
+                    return objectMapper.readValue(line, BulkOperationResultDTO.class);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .collect(Collectors.toList());
+    }
+}
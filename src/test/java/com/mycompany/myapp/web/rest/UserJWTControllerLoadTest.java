@@ -0,0 +1,203 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.repository.UserCache;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.DomainUserDetailsService;
+import com.mycompany.myapp.security.LoginThrottledException;
+import com.mycompany.myapp.security.LoginThrottler;
+import com.mycompany.myapp.security.jwt.TokenProvider;
+import com.mycompany.myapp.web.rest.vm.LoginVM;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Load test of the {@link UserJWTController}: the latency of the logins of a user, alone and during a credential
+ * stuffing attack, with the login throttle disabled then enabled.
+ * <p>
+ * The attackers try unknown logins, and wrong passwords of a known one, from a few addresses, pausing between their
+ * attempts like clients over the network. Without the throttle every attempt hashes a password, competing for the CPU
+ * with the user. Excluded from the default test run.
+ */
+@Tag("benchmark")
+class UserJWTControllerLoadTest {
+
+    private static final int LOGINS = 100;
+
+    private static final int ATTACKERS = 4;
+
+    private static final long ATTACKER_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final Logger log = LoggerFactory.getLogger(UserJWTControllerLoadTest.class);
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    @Test
+    void loginLatencyDuringACredentialStuffingAttack() throws Exception {
+        measure("No attack", true, 0);
+        measure("Attack, throttle disabled", false, ATTACKERS);
+        long throttledAttempts = measure("Attack, throttle enabled", true, ATTACKERS);
+
+        assertThat(throttledAttempts).isPositive();
+    }
+
+    /**
+     * @return the attempts of the attackers that were throttled.
+     */
+    private long measure(String scenario, boolean throttled, int attackers) throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginThrottle().setEnabled(throttled);
+        UserJWTController controller = controller(applicationProperties);
+        // Warm-up
+        for (int i = 0; i < 10; i++) {
+            login(controller, "user", "password", userAddress(i));
+        }
+
+        AtomicBoolean attacking = new AtomicBoolean(true);
+        AtomicLong attempts = new AtomicLong();
+        AtomicLong throttledAttempts = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, attackers));
+        for (int a = 0; a < attackers; a++) {
+            String address = "203.0.113." + a;
+            executor.execute(() -> {
+                for (long n = 0; attacking.get(); n++) {
+                    String login = n % 4 == 0 ? "admin" : "stuffed-" + address + "-" + n;
+                    try {
+                        login(controller, login, "guess-" + n, address);
+                    } catch (LoginThrottledException e) {
+                        throttledAttempts.incrementAndGet();
+                    } catch (AuthenticationException e) {
+                        // Wrong guess
+                    }
+                    attempts.incrementAndGet();
+                    LockSupport.parkNanos(ATTACKER_PAUSE_NANOS);
+                }
+            });
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        try {
+            for (int i = 0; i < LOGINS; i++) {
+                long start = System.nanoTime();
+                assertThat(login(controller, "user", "password", userAddress(i))).isEqualTo(HttpStatus.OK);
+                latencies.add(System.nanoTime() - start);
+            }
+        } finally {
+            attacking.set(false);
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        Collections.sort(latencies);
+        log.info(
+            "{}: p50 {} us, p99 {} us for the user; {} attempts of the attackers, {} throttled",
+            scenario,
+            latencies.get(LOGINS / 2) / 1000,
+            latencies.get(LOGINS * 99 / 100 - 1) / 1000,
+            attempts.get(),
+            throttledAttempts.get()
+        );
+        return throttledAttempts.get();
+    }
+
+    /**
+     * The users log in from many addresses, unlike the attackers.
+     */
+    private static String userAddress(int login) {
+        return "198.51.100." + login;
+    }
+
+    private HttpStatus login(UserJWTController controller, String username, String password, String address) {
+        LoginVM loginVM = new LoginVM();
+        loginVM.setUsername(username);
+        loginVM.setPassword(password);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        return controller.authorize(loginVM, request).getStatusCode();
+    }
+
+    private UserJWTController controller(ApplicationProperties applicationProperties) throws Exception {
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findOneWithAuthoritiesByLogin(anyString())).thenReturn(Optional.empty());
+        for (User user : List.of(user(1L, "user", "password"), user(2L, "admin", "admin-password"))) {
+            when(userRepository.findOneWithAuthoritiesByLogin(user.getLogin())).thenReturn(Optional.of(user));
+            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        }
+        UserCache userCache = new UserCache(userRepository, new ConcurrentMapCacheManager());
+        DomainUserDetailsService userDetailsService = new DomainUserDetailsService(
+            userRepository,
+            userCache,
+            mock(PlatformTransactionManager.class)
+        );
+
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        AuthenticationManagerBuilder authenticationManagerBuilder = new AuthenticationManagerBuilder(
+            new ObjectPostProcessor<Object>() {
+                @Override
+                public <O> O postProcess(O object) {
+                    return object;
+                }
+            }
+        );
+        authenticationManagerBuilder.authenticationProvider(authenticationProvider);
+        authenticationManagerBuilder.build();
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+        TokenProvider tokenProvider = new TokenProvider(
+            jHipsterProperties,
+            applicationProperties,
+            securityMetersService,
+            new NoOpCacheManager()
+        );
+        LoginThrottler loginThrottler = new LoginThrottler(applicationProperties, userDetailsService, securityMetersService);
+        return new UserJWTController(tokenProvider, authenticationManagerBuilder, loginThrottler);
+    }
+
+    private User user(Long id, String login, String password) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setActivated(true);
+        return user;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.WMISComponent;
+import com.mycompany.myapp.repository.WMISComponentRepository;
+import com.mycompany.myapp.repository.search.WMISComponentSearchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link WMISComponentBulkResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class WMISComponentBulkResourceIT {
+
+    private static final String BULK_API_URL = "/api/wmis-components/bulk";
+
+    @Autowired
+    private WMISComponentRepository wMISComponentRepository;
+
+    @Autowired
+    private WMISComponentSearchRepository wMISComponentSearchRepository;
+
+    @Autowired
+    private MockMvc restWMISComponentBulkMockMvc;
+
+    @AfterEach
+    public void cleanupElasticSearchRepository() {
+        wMISComponentSearchRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional
+    void bulkWithJsonArray() throws Exception {
+        WMISComponent existing = wMISComponentRepository.saveAndFlush(new WMISComponent().componentName("AAAAAAAAAA"));
+        WMISComponent toDelete = wMISComponentRepository.saveAndFlush(new WMISComponent().componentName("CCCCCCCCCC"));
+        int databaseSizeBefore = wMISComponentRepository.findAll().size();
+
+        String body =
+            "[" +
+            "{\"action\":\"CREATE\",\"componentName\":\"DDDDDDDDDD\"}," +
+            "{\"action\":\"UPDATE\",\"id\":" +
+            existing.getId() +
+            ",\"componentName\":\"BBBBBBBBBB\"}," +
+            "{\"action\":\"DELETE\",\"id\":" +
+            toDelete.getId() +
+            "}," +
+            "{\"action\":\"UPDATE\",\"id\":" +
+            Long.MAX_VALUE +
+            "}," +
+            "{\"action\":\"CREATE\",\"id\":1}" +
+            "]";
+
+        restWMISComponentBulkMockMvc
+            .perform(post(BULK_API_URL).contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(5))
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[1].status").value(200))
+            .andExpect(jsonPath("$.[2].status").value(204))
+            .andExpect(jsonPath("$.[3].status").value(404))
+            .andExpect(jsonPath("$.[4].status").value(400));
+
+        assertThat(wMISComponentRepository.findAll()).hasSize(databaseSizeBefore);
+        assertThat(wMISComponentRepository.findById(existing.getId())).map(WMISComponent::getComponentName).contains("BBBBBBBBBB");
+        assertThat(wMISComponentRepository.existsById(toDelete.getId())).isFalse();
+    }
+
+    @Test
+    @Transactional
+    void bulkWithNdjson() throws Exception {
+        int databaseSizeBefore = wMISComponentRepository.findAll().size();
+
+        String body = "{\"action\":\"CREATE\",\"componentName\":\"AAAAAAAAAA\"}\n{\"action\":\"CREATE\",\"componentName\":\"BBBBBBBBBB\"}\n";
+
+        restWMISComponentBulkMockMvc
+            .perform(post(BULK_API_URL).contentType(MediaType.APPLICATION_NDJSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(everyItem(is(201))));
+
+        assertThat(wMISComponentRepository.findAll()).hasSize(databaseSizeBefore + 2);
+    }
+
+    @Test
+    @Transactional
+    void bulkStopsAtMalformedOperation() throws Exception {
+        String body = "{\"action\":\"CREATE\",\"componentName\":\"AAAAAAAAAA\"}\n{\"action\":\"UNKNOWN\"}\n";
+
+        restWMISComponentBulkMockMvc
+            .perform(post(BULK_API_URL).contentType(MediaType.APPLICATION_NDJSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value(201))
+            .andExpect(jsonPath("$.[1].index").value(1))
+            .andExpect(jsonPath("$.[1].status").value(400));
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.myapp.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Test class for the {@link KeysetPaginationUtil} utility class.
+ */
+class KeysetPaginationUtilTest {
+
+    @Test
+    void cursorRoundTrip() {
+        String cursor = KeysetPaginationUtil.encodeCursor(1234L);
+        assertThat(KeysetPaginationUtil.decodeCursor(cursor, "instance")).isEqualTo(1234L);
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstId() {
+        assertThat(KeysetPaginationUtil.decodeCursor(null, "instance")).isEqualTo(Long.MIN_VALUE);
+        assertThat(KeysetPaginationUtil.decodeCursor("", "instance")).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("1234", "instance")).isInstanceOf(BadRequestAlertException.class);
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("%%%", "instance")).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        ApplicationProperties.Pagination pagination = new ApplicationProperties.Pagination();
+        pagination.setDefaultPageSize(20);
+        pagination.setMaxPageSize(100);
+
+        assertThat(KeysetPaginationUtil.pageable(null, pagination).getPageSize()).isEqualTo(20);
+        assertThat(KeysetPaginationUtil.pageable(0, pagination).getPageSize()).isEqualTo(20);
+        assertThat(KeysetPaginationUtil.pageable(50, pagination).getPageSize()).isEqualTo(50);
+        assertThat(KeysetPaginationUtil.pageable(100_000, pagination).getPageSize()).isEqualTo(100);
+    }
+
+    @Test
+    void generateKeysetHttpHeadersWithNextSlice() {
+        Pageable pageable = PageRequest.of(0, 2);
+        SliceImpl<Long> slice = new SliceImpl<>(List.of(1L, 2L), pageable, true);
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            UriComponentsBuilder.fromUriString("http://localhost/api/instances"),
+            slice,
+            id -> id,
+            42L
+        );
+
+        assertThat(headers.getFirst("X-Total-Count")).isEqualTo("42");
+        assertThat(headers.getFirst(HttpHeaders.LINK))
+            .contains("cursor=" + KeysetPaginationUtil.encodeCursor(2L))
+            .contains("rel=\"next\"")
+            .contains("rel=\"first\"");
+    }
+
+    @Test
+    void generateKeysetHttpHeadersOnLastSlice() {
+        SliceImpl<Long> slice = new SliceImpl<>(List.of(1L), PageRequest.of(0, 2), false);
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            UriComponentsBuilder.fromUriString("http://localhost/api/instances"),
+            slice,
+            id -> id,
+            null
+        );
+
+        assertThat(headers.containsKey("X-Total-Count")).isFalse();
+        assertThat(headers.getFirst(HttpHeaders.LINK)).doesNotContain("rel=\"next\"").contains("rel=\"first\"");
+    }
+}
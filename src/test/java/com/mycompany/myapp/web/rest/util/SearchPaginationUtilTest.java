@@ -0,0 +1,187 @@
+package com.mycompany.myapp.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.ScoreSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Test class for the {@link SearchPaginationUtil} utility class.
+ */
+class SearchPaginationUtilTest {
+
+    private static final List<String> TEXT_FIELDS = List.of("countryName");
+
+    private ApplicationProperties.Search search;
+
+    @BeforeEach
+    public void setup() {
+        search = new ApplicationProperties.Search();
+        search.setMaxPageSize(100);
+        search.setMaxResultWindow(1000);
+        search.setTrackTotalHitsUpTo(500);
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        String cursor = SearchPaginationUtil.encodeCursor(List.of(1.5, "AAAAAAAAAA", 1234));
+        assertThat(SearchPaginationUtil.decodeCursor(cursor, "instance")).containsExactly(1.5, "AAAAAAAAAA", 1234);
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThatThrownBy(() -> SearchPaginationUtil.decodeCursor("1234", "instance")).isInstanceOf(BadRequestAlertException.class);
+        assertThatThrownBy(() -> SearchPaginationUtil.decodeCursor("%%%", "instance")).isInstanceOf(BadRequestAlertException.class);
+        String empty = SearchPaginationUtil.encodeCursor(List.of());
+        assertThatThrownBy(() -> SearchPaginationUtil.decodeCursor(empty, "instance")).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void hitsAreSortedByRelevanceThenById() {
+        NativeSearchQuery query = buildQuery(PageRequest.of(0, 20), null);
+
+        assertThat(query.getElasticsearchSorts()).hasSize(2);
+        assertThat(query.getElasticsearchSorts().get(0)).isInstanceOf(ScoreSortBuilder.class);
+        assertThat(((FieldSortBuilder) query.getElasticsearchSorts().get(1)).getFieldName()).isEqualTo("id");
+        assertThat(query.getTrackTotalHitsUpTo()).isEqualTo(500);
+    }
+
+    @Test
+    void textFieldsAreSortedOnTheirKeyword() {
+        NativeSearchQuery query = buildQuery(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "countryName")), null);
+
+        FieldSortBuilder sort = (FieldSortBuilder) query.getElasticsearchSorts().get(0);
+        assertThat(sort.getFieldName()).isEqualTo("countryName.keyword");
+        assertThat(sort.order()).isEqualTo(SortOrder.DESC);
+        assertThat(((FieldSortBuilder) query.getElasticsearchSorts().get(1)).getFieldName()).isEqualTo("id");
+    }
+
+    @Test
+    void unknownSortPropertyIsRejected() {
+        assertThatThrownBy(() -> buildQuery(PageRequest.of(0, 20, Sort.by("application")), null))
+            .isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        assertThat(buildQuery(PageRequest.of(0, 2000), null).getPageable().getPageSize()).isEqualTo(100);
+    }
+
+    @Test
+    void pagesBeyondTheResultWindowAreRejected() {
+        assertThat(buildQuery(PageRequest.of(9, 100), null).getPageable().getOffset()).isEqualTo(900);
+        assertThatThrownBy(() -> buildQuery(PageRequest.of(10, 100), null)).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void cursorSearchesAfterTheLastHit() {
+        String cursor = SearchPaginationUtil.encodeCursor(List.of(1.5, 1234));
+
+        NativeSearchQuery query = buildQuery(PageRequest.of(50, 100), cursor);
+
+        assertThat(query.getSearchAfter()).containsExactly(1.5, 1234);
+        assertThat(query.getPageable().getOffset()).isZero();
+    }
+
+    @Test
+    void cursorMustMatchTheSort() {
+        String cursor = SearchPaginationUtil.encodeCursor(List.of(1234));
+
+        assertThatThrownBy(() -> buildQuery(PageRequest.of(0, 20), cursor)).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void highlightAndSourceFiltering() {
+        NativeSearchQuery query = SearchPaginationUtil.buildQuery(
+            "AAAAAAAAAA",
+            PageRequest.of(0, 20),
+            null,
+            TEXT_FIELDS,
+            true,
+            List.of("id"),
+            search,
+            "instance"
+        );
+
+        assertThat(query.getHighlightBuilder().fields()).extracting(field -> field.name()).containsExactly("countryName");
+        assertThat(query.getSourceFilter().getIncludes()).containsExactly("id");
+    }
+
+    @Test
+    void generateSearchHttpHeadersWithNextPage() {
+        NativeSearchQuery query = buildQuery(PageRequest.of(0, 2), null);
+        SearchHitsImpl<String> searchHits = new SearchHitsImpl<>(
+            1000,
+            TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO,
+            1.0f,
+            null,
+            List.of(hit("1", 1.0, 1L), hit("2", 1.0, 2L)),
+            null,
+            null
+        );
+
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            UriComponentsBuilder.fromUriString("http://localhost/api/_search/instances?query=AAAAAAAAAA"),
+            searchHits,
+            query
+        );
+
+        assertThat(headers.getFirst("X-Total-Count")).isEqualTo("1000");
+        assertThat(headers.getFirst("X-Total-Count-Relation")).isEqualTo("gte");
+        String nextCursor = SearchPaginationUtil.encodeCursor(List.of(1.0, 2L));
+        assertThat(headers.getFirst(HttpHeaders.LINK))
+            .isEqualTo(
+                "<http://localhost/api/_search/instances?query=AAAAAAAAAA&size=2&cursor=" +
+                nextCursor +
+                ">; rel=\"next\"," +
+                "<http://localhost/api/_search/instances?query=AAAAAAAAAA&size=2>; rel=\"first\""
+            );
+    }
+
+    @Test
+    void generateSearchHttpHeadersOnLastPage() {
+        NativeSearchQuery query = buildQuery(PageRequest.of(0, 2), null);
+        SearchHitsImpl<String> searchHits = new SearchHitsImpl<>(
+            1,
+            TotalHitsRelation.EQUAL_TO,
+            1.0f,
+            null,
+            List.of(hit("1", 1.0, 1L)),
+            null,
+            null
+        );
+
+        HttpHeaders headers = SearchPaginationUtil.generateSearchHttpHeaders(
+            UriComponentsBuilder.fromUriString("http://localhost/api/_search/instances"),
+            searchHits,
+            query
+        );
+
+        assertThat(headers.getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(headers.containsKey("X-Total-Count-Relation")).isFalse();
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/_search/instances?size=2>; rel=\"first\"");
+    }
+
+    private NativeSearchQuery buildQuery(PageRequest pageable, String cursor) {
+        return SearchPaginationUtil.buildQuery("AAAAAAAAAA", pageable, cursor, TEXT_FIELDS, false, null, search, "instance");
+    }
+
+    private static SearchHit<String> hit(String id, Object... sortValues) {
+        return new SearchHit<>("instance", id, null, 1.0f, sortValues, null, null, null, null, null, id);
+    }
+}